@@ -0,0 +1,83 @@
+package com.appointment.dto;
+
+import com.appointment.entity.Appointment;
+import com.appointment.service.MappingFixtures;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response lists the API returns, using an
+ * {@link ObjectMapper} built with the same defaults Spring MVC applies
+ * (ISO dates, no timestamps).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "32", "512"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<AppointmentResponse> appointments;
+    private List<TimeSlotDTO> timeSlots;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+
+        appointments = new ArrayList<>(size);
+        for (Appointment appointment : MappingFixtures.appointments(size)) {
+            AppointmentResponse response = new AppointmentResponse();
+            response.setId(appointment.getId());
+            response.setCustomerName(appointment.getCustomerName());
+            response.setCustomerEmail(appointment.getCustomerEmail());
+            response.setCustomerPhone(appointment.getCustomerPhone());
+            response.setBookingReference(appointment.getBookingReference());
+            response.setStatus(appointment.getStatus().name());
+            response.setAppointmentDate(appointment.getTimeSlot().getSlotDate());
+            response.setStartTime(appointment.getTimeSlot().getStartTime());
+            response.setEndTime(appointment.getTimeSlot().getEndTime());
+            response.setBranchName(appointment.getTimeSlot().getBranch().getName());
+            response.setBranchAddress(appointment.getTimeSlot().getBranch().getAddress());
+            appointments.add(response);
+        }
+
+        timeSlots = new ArrayList<>(size);
+        MappingFixtures.timeSlots(size).forEach(slot -> timeSlots.add(new TimeSlotDTO(
+                slot.getId(), slot.getBranch().getId(), slot.getBranch().getName(), slot.getSlotDate(),
+                slot.getStartTime(), slot.getEndTime(), slot.getCapacity(), slot.getBookedCount(),
+                slot.getAvailable())));
+    }
+
+    @Benchmark
+    public byte[] serializeAppointments() throws JsonProcessingException {
+        return writer.writeValueAsBytes(appointments);
+    }
+
+    @Benchmark
+    public byte[] serializeTimeSlots() throws JsonProcessingException {
+        return writer.writeValueAsBytes(timeSlots);
+    }
+}
@@ -0,0 +1,63 @@
+package com.appointment.service;
+
+import com.appointment.entity.Appointment;
+import com.appointment.entity.AppointmentStatus;
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detached entity graphs shaped like a busy branch day, shared by the mapping
+ * and serialization benchmarks.
+ */
+public final class MappingFixtures {
+
+    private MappingFixtures() {
+    }
+
+    public static List<TimeSlot> timeSlots(int count) {
+        Branch branch = new Branch();
+        branch.setId(1L);
+        branch.setName("Main Branch");
+        branch.setAddress("123 Main Street, City Center");
+
+        LocalDate date = LocalDate.of(2026, 1, 15);
+        List<TimeSlot> slots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TimeSlot slot = new TimeSlot();
+            slot.setId((long) i + 1);
+            slot.setBranch(branch);
+            slot.setSlotDate(date);
+            slot.setStartTime(LocalTime.of(9, 0).plusMinutes(15L * (i % 32)));
+            slot.setEndTime(LocalTime.of(9, 15).plusMinutes(15L * (i % 32)));
+            slot.setCapacity(5);
+            slot.setBookedCount(i % 5);
+            slot.setAvailable(true);
+            slots.add(slot);
+        }
+        return slots;
+    }
+
+    public static List<Appointment> appointments(int count) {
+        List<TimeSlot> slots = timeSlots(Math.max(1, count / 3));
+        List<Appointment> appointments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setId((long) i + 1);
+            appointment.setCustomerName("Customer " + i);
+            appointment.setCustomerEmail("customer" + i + "@example.com");
+            appointment.setCustomerPhone("+27 82 555 " + String.format("%04d", i));
+            appointment.setBookingReference("APT-20260115-" + String.format("%06X", i));
+            appointment.setStatus(AppointmentStatus.CONFIRMED);
+            appointment.setTimeSlot(slots.get(i % slots.size()));
+            appointment.setCreatedAt(LocalDateTime.of(2026, 1, 10, 12, 0));
+            appointments.add(appointment);
+        }
+        return appointments;
+    }
+}
@@ -0,0 +1,64 @@
+package com.appointment.service;
+
+import com.appointment.dto.AppointmentResponse;
+import com.appointment.dto.TimeSlotDTO;
+import com.appointment.entity.Appointment;
+import com.appointment.entity.TimeSlot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity-to-DTO mapping for the two list endpoints: a customer's appointments
+ * and a branch day's available slots. The entity graphs are already loaded, so
+ * this isolates the copy cost from the queries that feed it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+
+    @Param({"1", "32", "512"})
+    private int size;
+
+    private AppointmentService appointmentService;
+    private List<Appointment> appointments;
+    private List<TimeSlot> timeSlots;
+
+    @Setup
+    public void setUp() {
+        // mapToResponse touches none of the collaborators
+        appointmentService = new AppointmentService(null, null, null, null, null, null, null, null, null);
+        appointments = MappingFixtures.appointments(size);
+        timeSlots = MappingFixtures.timeSlots(size);
+    }
+
+    @Benchmark
+    public List<AppointmentResponse> mapAppointments() {
+        return appointments.stream()
+                .map(appointmentService::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<TimeSlotDTO> mapTimeSlots() {
+        return timeSlots.stream()
+                .map(TimeSlotService::toDto)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,34 @@
+package com.appointment.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one booking reference: a {@code LocalDateTime} format, a random
+ * UUID and three string copies. Run with {@code -prof gc} to see the bytes
+ * allocated per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingReferenceGeneratorBenchmark {
+
+    private final BookingReferenceGenerator generator = new BookingReferenceGenerator();
+
+    @Benchmark
+    public String generateBookingReference() {
+        return generator.generateBookingReference();
+    }
+}
@@ -2,14 +2,20 @@ package com.appointment;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "com.appointment.repository")
 public class AppointmentBookingSystemApplication {
 
+	// Startup steps kept for the StartupTimingReport; the buffer is drained once the app is ready
+	private static final int STARTUP_STEP_CAPACITY = 20_000;
+
 	public static void main(String[] args) {
-		SpringApplication.run(AppointmentBookingSystemApplication.class, args);
+		SpringApplication application = new SpringApplication(AppointmentBookingSystemApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+		application.run(args);
 	}
 
 }
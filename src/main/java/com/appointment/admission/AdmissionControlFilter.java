@@ -0,0 +1,105 @@
+package com.appointment.admission;
+
+import com.appointment.admission.AdmissionController.Priority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Puts {@link AdmissionController} in front of every {@code /api} request.
+ * It runs ahead of the security chain, so a shed request costs no token
+ * check or user lookup, and answers it with a 503 and {@code Retry-After}.
+ * Bookings and cancellations are {@link Priority#CRITICAL}, availability
+ * browsing is {@link Priority#LOW}, everything else is {@link Priority#NORMAL}.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionController admissionController;
+    private final ObjectMapper objectMapper;
+
+    public AdmissionControlFilter(AdmissionController admissionController, ObjectMapper objectMapper) {
+        this.admissionController = admissionController;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !admissionController.isEnabled() || !path(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Priority priority = priorityOf(request);
+        if (!admissionController.tryAcquire(priority)) {
+            reject(response, priority);
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            if (!failed && isClientError(response.getStatus())) {
+                // Rate-limited, unauthenticated or not-found answers are fast whatever the load; sampled,
+                // a burst of them would pass for the no-load latency and shrink the limit for real work
+                admissionController.releaseWithoutSample();
+            } else {
+                admissionController.release(System.nanoTime() - startedAt, failed);
+            }
+        }
+    }
+
+    private static boolean isClientError(int status) {
+        return status >= HttpStatus.BAD_REQUEST.value() && status < HttpStatus.INTERNAL_SERVER_ERROR.value();
+    }
+
+    static Priority priorityOf(HttpServletRequest request) {
+        String path = path(request);
+        String method = request.getMethod();
+        if (path.equals("/api/appointments") ? HttpMethod.POST.matches(method)
+                : path.startsWith("/api/appointments/") && HttpMethod.DELETE.matches(method)) {
+            return Priority.CRITICAL;
+        }
+        if (HttpMethod.GET.matches(method) && (path.startsWith("/api/timeslots") || path.startsWith("/api/branches"))) {
+            return Priority.LOW;
+        }
+        return Priority.NORMAL;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void reject(HttpServletResponse response, Priority priority) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now().toString());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "Service Unavailable");
+        body.put("message", "Server is at capacity; " + priority.tag() + " priority request shed, retry shortly");
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
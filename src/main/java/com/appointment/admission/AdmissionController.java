@@ -0,0 +1,225 @@
+package com.appointment.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive concurrency limit for API requests. Requests beyond the limit are
+ * refused up front instead of queueing on Tomcat threads for a database
+ * connection, so under overload admitted requests keep answering in seconds
+ * and goodput stays near its peak, rather than every request waiting out the
+ * pool timeout. It does not raise raw throughput: an unprotected server
+ * completes as many requests or more, only late or as connection-timeout
+ * errors (see {@code AdmissionOverloadBenchmark}).
+ * <p>
+ * The limit is re-estimated once per window from the requests that finished
+ * in it, client errors excluded (see {@link #releaseWithoutSample}), in the
+ * style of TCP Vegas: the lowest average latency seen recently is taken as
+ * the no-load latency, and {@code limit * (1 - noLoad / latency)}
+ * estimates how many requests are queueing. A short queue grows the limit by
+ * {@code log10(limit)}, a long one shrinks it by the same step. Server errors
+ * or threads waiting on the Hikari pool count as congestion and cut the
+ * limit multiplicatively (the AIMD backoff).
+ * <p>
+ * Priorities share the limit unevenly: availability browsing ({@link
+ * Priority#LOW}) may only use part of it and is shed first, and outright
+ * whenever a thread is already waiting for a connection; bookings and
+ * cancellations ({@link Priority#CRITICAL}) may use all of it.
+ */
+@Component
+public class AdmissionController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionController.class);
+
+    static final String REQUESTS_COUNTER = "api.admission.requests";
+    static final String LIMIT_GAUGE = "api.admission.limit";
+    static final String IN_FLIGHT_GAUGE = "api.admission.in_flight";
+
+    // Windows after which the no-load latency is re-measured, in case the baseline itself has moved
+    private static final int PROBE_WINDOWS = 600;
+
+    public enum Priority {
+        CRITICAL, NORMAL, LOW;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final ConnectionPoolMonitor poolMonitor;
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final double backoffRatio;
+    private final Map<Priority, Double> shares = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> admitted = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> shed = new EnumMap<>(Priority.class);
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // Current window, guarded by windowLock
+    private final ReentrantLock windowLock = new ReentrantLock();
+    private long windowStart = -1;
+    private long windowLatencyNanos;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowCongested;
+    private long noLoadLatencyNanos = Long.MAX_VALUE;
+    private int windowsSinceProbe;
+
+    public AdmissionController(ConnectionPoolMonitor poolMonitor,
+                               MeterRegistry meterRegistry,
+                               @Value("${appointment.admission.enabled:true}") boolean enabled,
+                               @Value("${appointment.admission.initial-limit:40}") int initialLimit,
+                               @Value("${appointment.admission.min-limit:8}") int minLimit,
+                               @Value("${appointment.admission.max-limit:400}") int maxLimit,
+                               @Value("${appointment.admission.window-ms:100}") long windowMillis,
+                               @Value("${appointment.admission.backoff-ratio:0.9}") double backoffRatio,
+                               @Value("${appointment.admission.normal-priority-share:0.8}") double normalShare,
+                               @Value("${appointment.admission.low-priority-share:0.5}") double lowShare) {
+        this.poolMonitor = poolMonitor;
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.backoffRatio = backoffRatio;
+        shares.put(Priority.CRITICAL, 1.0);
+        shares.put(Priority.NORMAL, normalShare);
+        shares.put(Priority.LOW, lowShare);
+        for (Priority priority : Priority.values()) {
+            admitted.put(priority, meterRegistry.counter(REQUESTS_COUNTER,
+                    "priority", priority.tag(), "outcome", "admitted"));
+            shed.put(priority, meterRegistry.counter(REQUESTS_COUNTER,
+                    "priority", priority.tag(), "outcome", "shed"));
+        }
+        meterRegistry.gauge(LIMIT_GAUGE, this, AdmissionController::getLimit);
+        meterRegistry.gauge(IN_FLIGHT_GAUGE, inFlight);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Admits a request if its priority's share of the limit has room. Every
+     * admitted request must be followed by exactly one {@link #release}.
+     */
+    public boolean tryAcquire(Priority priority) {
+        if (priority == Priority.LOW && poolMonitor.threadsAwaitingConnection() > 0) {
+            shed.get(priority).increment();
+            return false;
+        }
+        int allowed = Math.max(1, (int) (limit * shares.get(priority)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                shed.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.get(priority).increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Records how an admitted request went; {@code failed} marks a server
+     * error, which is treated as congestion.
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int before = inFlight.getAndDecrement();
+        onSample(System.nanoTime(), latencyNanos, failed, before);
+    }
+
+    /**
+     * Releases an admitted request without feeding its latency to the limit,
+     * for answers that did no real work (client errors).
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    void onSample(long nowNanos, long latencyNanos, boolean failed, int inFlightAtFinish) {
+        windowLock.lock();
+        try {
+            if (windowStart < 0) {
+                windowStart = nowNanos;
+            }
+            windowLatencyNanos += latencyNanos;
+            windowSamples++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtFinish);
+            windowCongested |= failed;
+            if (nowNanos - windowStart < windowNanos) {
+                return;
+            }
+
+            long averageLatency = Math.max(1, windowLatencyNanos / windowSamples);
+            boolean congested = windowCongested || poolMonitor.threadsAwaitingConnection() > 0;
+            adjust(averageLatency, congested);
+
+            windowStart = nowNanos;
+            windowLatencyNanos = 0;
+            windowSamples = 0;
+            windowMaxInFlight = 0;
+            windowCongested = false;
+        } finally {
+            windowLock.unlock();
+        }
+    }
+
+    private void adjust(long averageLatency, boolean congested) {
+        if (++windowsSinceProbe >= PROBE_WINDOWS) {
+            noLoadLatencyNanos = averageLatency;
+            windowsSinceProbe = 0;
+        } else {
+            noLoadLatencyNanos = Math.min(noLoadLatencyNanos, averageLatency);
+        }
+
+        double current = limit;
+        double next;
+        if (congested) {
+            next = current * backoffRatio;
+        } else {
+            double step = Math.max(1, Math.log10(current));
+            double queue = current * (1 - (double) noLoadLatencyNanos / averageLatency);
+            if (queue < 3 * step) {
+                // Only grow a limit that is actually being used
+                next = windowMaxInFlight * 2 >= current ? current + step : current;
+            } else if (queue > 6 * step) {
+                next = current - step;
+            } else {
+                next = current;
+            }
+        }
+        next = Math.max(minLimit, Math.min(maxLimit, next));
+        if ((int) next != (int) current) {
+            log.debug("Admission limit {} -> {} (latency {} us, no-load {} us, congested {})", (int) current,
+                    (int) next, TimeUnit.NANOSECONDS.toMicros(averageLatency),
+                    TimeUnit.NANOSECONDS.toMicros(noLoadLatencyNanos), congested);
+        }
+        limit = next;
+    }
+}
@@ -0,0 +1,67 @@
+package com.appointment.admission;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads saturation straight from the Hikari pools: how many threads are
+ * blocked waiting for a connection. That covers the pools declared as beans
+ * (the primary pool in every datasource setup) and the ones built inside a
+ * routing datasource, i.e. the extra shards and the read replicas. Every
+ * connection being checked out is normal at peak; a queue of waiters is the
+ * point where requests start to pile up. The count is kept inside the pool,
+ * so reading it on the request path is cheap.
+ */
+@Component
+public class ConnectionPoolMonitor {
+
+    private final ObjectProvider<HikariDataSource> poolProvider;
+    private final ObjectProvider<AbstractRoutingDataSource> routingProvider;
+    private volatile List<HikariDataSource> pools;
+
+    public ConnectionPoolMonitor(ObjectProvider<HikariDataSource> poolProvider,
+                                 ObjectProvider<AbstractRoutingDataSource> routingProvider) {
+        this.poolProvider = poolProvider;
+        this.routingProvider = routingProvider;
+    }
+
+    public int threadsAwaitingConnection() {
+        int waiting = 0;
+        for (HikariDataSource pool : pools()) {
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+            if (mxBean != null) {
+                waiting += mxBean.getThreadsAwaitingConnection();
+            }
+        }
+        return waiting;
+    }
+
+    // Resolved on first use: the pools are not all created when this bean is built
+    private List<HikariDataSource> pools() {
+        List<HikariDataSource> resolved = pools;
+        if (resolved == null) {
+            // The primary is both a bean and a routing target; count its waiters once
+            Set<HikariDataSource> found = Collections.newSetFromMap(new IdentityHashMap<>());
+            poolProvider.orderedStream().forEach(found::add);
+            routingProvider.orderedStream().forEach(routing -> {
+                for (DataSource target : routing.getResolvedDataSources().values()) {
+                    if (target instanceof HikariDataSource pool) {
+                        found.add(pool);
+                    }
+                }
+            });
+            resolved = List.copyOf(found);
+            pools = resolved;
+        }
+        return resolved;
+    }
+}
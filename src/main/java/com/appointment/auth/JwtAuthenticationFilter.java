@@ -1,6 +1,8 @@
 package com.appointment.auth;
 
+import com.appointment.jfr.AuthenticationEvent;
 import com.appointment.service.CustomUserDetailsService;
+import com.appointment.util.LogSampler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,6 +22,9 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    private static final int INVALID_TOKEN_WARNINGS_PER_SECOND = 10;
+
+    private final LogSampler invalidTokenLogSampler = new LogSampler(INVALID_TOKEN_WARNINGS_PER_SECOND);
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
@@ -34,24 +39,48 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
+        AuthenticationEvent event = new AuthenticationEvent();
+        event.begin();
+        try {
+            event.setOutcome(authenticate(request));
+        } catch (RuntimeException e) {
+            event.setOutcome("error");
+            throw e;
+        } finally {
+            event.commit();
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Sets the authentication from a valid bearer token and returns the outcome
+     * recorded on the JFR event.
+     */
+    private String authenticate(HttpServletRequest request) {
         final String authorizationHeader = request.getHeader("Authorization");
-        log.debug("JWT Filter - Authorization header: {}", authorizationHeader);
 
         String username = null;
         String jwt = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
-            log.debug("JWT Filter - Extracted token: {}", jwt);
 
             try {
                 username = jwtUtil.getUsernameFromToken(jwt);
                 log.debug("JWT Filter - Extracted username: {}", username);
             } catch (Exception e) {
-                log.warn("JWT token validation failed: {}", e.getMessage());
+                long suppressed = invalidTokenLogSampler.sample();
+                if (suppressed >= 0) {
+                    // Exception type only: parser messages can echo token content
+                    log.warn("JWT token validation failed: {} ({} similar warnings suppressed)",
+                            e.getClass().getSimpleName(), suppressed);
+                }
+                return "invalid_token";
             }
         } else {
             log.debug("JWT Filter - No Bearer token found");
+            return "no_token";
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
@@ -65,13 +94,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
                 log.debug("JWT Filter - Authentication set in SecurityContext");
-            } else {
-                log.debug("JWT Filter - Token validation failed for user: {}", username);
+                return "authenticated";
             }
-        } else {
-            log.debug("JWT Filter - Username null or already authenticated");
+            log.debug("JWT Filter - Token validation failed for user: {}", username);
+            return "invalid_token";
         }
-
-        filterChain.doFilter(request, response);
+        log.debug("JWT Filter - Username null or already authenticated");
+        return "skipped";
     }
 }
\ No newline at end of file
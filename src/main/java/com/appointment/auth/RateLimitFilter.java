@@ -0,0 +1,207 @@
+package com.appointment.auth;
+
+import com.appointment.util.LogSampler;
+import com.appointment.util.TokenBucket;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token-bucket rate limiting for the public API, registered in the security
+ * filter chain right after {@link JwtAuthenticationFilter} so an
+ * authenticated caller is limited per user and everyone else per IP. Each
+ * endpoint group (availability, booking, auth) has its own burst capacity
+ * and refill rate; other paths are not limited.
+ * <p>
+ * Buckets live in a map bounded by {@code appointment.rate-limit.max-clients}.
+ * Buckets that have refilled completely are swept out, which loses nothing;
+ * while the map is full, new clients share one overflow bucket per group.
+ * Every limited response carries {@code X-RateLimit-Limit} and
+ * {@code X-RateLimit-Remaining}; rejected requests get a 429 with
+ * {@code Retry-After}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+    private static final int REJECTION_WARNINGS_PER_SECOND = 10;
+
+    static final String REQUESTS_COUNTER = "api.rate_limit.requests";
+    static final String CLIENTS_GAUGE = "api.rate_limit.clients";
+
+    private final LogSampler rejectionLogSampler = new LogSampler(REJECTION_WARNINGS_PER_SECOND);
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxClients;
+    private final List<EndpointGroup> groups;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${appointment.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${appointment.rate-limit.max-clients:100000}") int maxClients,
+                           @Value("${appointment.rate-limit.availability.capacity:60}") int availabilityCapacity,
+                           @Value("${appointment.rate-limit.availability.refill-per-second:20}") double availabilityRefill,
+                           @Value("${appointment.rate-limit.booking.capacity:20}") int bookingCapacity,
+                           @Value("${appointment.rate-limit.booking.refill-per-second:2}") double bookingRefill,
+                           @Value("${appointment.rate-limit.auth.capacity:10}") int authCapacity,
+                           @Value("${appointment.rate-limit.auth.refill-per-second:0.5}") double authRefill) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxClients = maxClients;
+        this.groups = List.of(
+                new EndpointGroup("availability", List.of("/api/timeslots", "/api/branches"),
+                        availabilityCapacity, availabilityRefill, meterRegistry),
+                new EndpointGroup("booking", List.of("/api/appointments"),
+                        bookingCapacity, bookingRefill, meterRegistry),
+                new EndpointGroup("auth", List.of("/api/auth"),
+                        authCapacity, authRefill, meterRegistry));
+        meterRegistry.gaugeMapSize(CLIENTS_GAUGE, List.of(), buckets);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || groupFor(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        EndpointGroup group = groupFor(request);
+        String client = clientKey(request);
+        long now = System.nanoTime();
+        long result = bucketFor(group, client, now).tryConsume(now);
+
+        response.setHeader("X-RateLimit-Limit", String.valueOf(group.capacity));
+        if (result >= 0) {
+            response.setHeader("X-RateLimit-Remaining", String.valueOf(result));
+            group.allowed.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        group.rejected.increment();
+        long retryAfterSeconds = Math.max(1, (-result + 999_999_999L) / 1_000_000_000L);
+        long suppressed = rejectionLogSampler.sample();
+        if (suppressed >= 0) {
+            log.warn("Rate limited {} on {} ({} similar warnings suppressed)", client, group.name, suppressed);
+        }
+        reject(response, group, retryAfterSeconds);
+    }
+
+    /**
+     * Drops buckets that have refilled completely; a new bucket starts full,
+     * so the client sees no difference.
+     */
+    @Scheduled(fixedDelayString = "${appointment.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        log.debug("Evicted {} idle rate-limit buckets, {} left", before - buckets.size(), buckets.size());
+    }
+
+    int getClientCount() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucketFor(EndpointGroup group, String client, long now) {
+        String key = group.name + '|' + client;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            return group.overflow;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(group.capacity, group.refillPerSecond, now));
+    }
+
+    private EndpointGroup groupFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (EndpointGroup group : groups) {
+            if (group.matches(path)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            // Behind a proxy, server.forward-headers-strategy makes this the client's address
+            return "ip:" + request.getRemoteAddr();
+        }
+        return "user:" + authentication.getName();
+    }
+
+    private void reject(HttpServletResponse response, EndpointGroup group, long retryAfterSeconds) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now().toString());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("message", "Rate limit exceeded for " + group.name + " requests; retry in " + retryAfterSeconds + "s");
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("X-RateLimit-Remaining", "0");
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static final class EndpointGroup {
+        private final String name;
+        private final List<String> pathPrefixes;
+        private final int capacity;
+        private final double refillPerSecond;
+        private final TokenBucket overflow;
+        private final Counter allowed;
+        private final Counter rejected;
+
+        private EndpointGroup(String name, List<String> pathPrefixes, int capacity, double refillPerSecond,
+                              MeterRegistry meterRegistry) {
+            this.name = name;
+            this.pathPrefixes = pathPrefixes;
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            this.overflow = new TokenBucket(capacity, refillPerSecond, System.nanoTime());
+            this.allowed = meterRegistry.counter(REQUESTS_COUNTER, "group", name, "outcome", "allowed");
+            this.rejected = meterRegistry.counter(REQUESTS_COUNTER, "group", name, "outcome", "rejected");
+        }
+
+        private boolean matches(String path) {
+            for (String prefix : pathPrefixes) {
+                if (path.equals(prefix) || path.startsWith(prefix + "/")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.appointment.calendar;
+
+import org.springframework.util.DigestUtils;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable, fully rendered {@code .ics} body and its ETag. Events are
+ * kept as pre-rendered blocks keyed by booking reference, so adding or
+ * removing one appointment only concatenates bytes already in memory.
+ * Blocks are ordered by reference, which makes the body, and so the ETag,
+ * the same however the feed was built.
+ */
+public final class CalendarFeed {
+
+    private final byte[] header;
+    private final TreeMap<String, byte[]> events;
+    private final byte[] body;
+    private final String eTag;
+
+    private CalendarFeed(byte[] header, TreeMap<String, byte[]> events) {
+        this.header = header;
+        this.events = events;
+        this.body = render(header, events);
+        this.eTag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    static CalendarFeed of(byte[] header, Map<String, byte[]> events) {
+        return new CalendarFeed(header, new TreeMap<>(events));
+    }
+
+    CalendarFeed with(String bookingReference, byte[] event) {
+        TreeMap<String, byte[]> patched = new TreeMap<>(events);
+        patched.put(bookingReference, event);
+        return new CalendarFeed(header, patched);
+    }
+
+    CalendarFeed without(String bookingReference) {
+        if (!events.containsKey(bookingReference)) {
+            return this;
+        }
+        TreeMap<String, byte[]> patched = new TreeMap<>(events);
+        patched.remove(bookingReference);
+        return new CalendarFeed(header, patched);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public int getEventCount() {
+        return events.size();
+    }
+
+    private static byte[] render(byte[] header, TreeMap<String, byte[]> events) {
+        int length = header.length + ICalendarWriter.FOOTER.length;
+        for (byte[] event : events.values()) {
+            length += event.length;
+        }
+        byte[] rendered = new byte[length];
+        int offset = append(rendered, 0, header);
+        for (byte[] event : events.values()) {
+            offset = append(rendered, offset, event);
+        }
+        append(rendered, offset, ICalendarWriter.FOOTER);
+        return rendered;
+    }
+
+    private static int append(byte[] target, int offset, byte[] source) {
+        System.arraycopy(source, 0, target, offset, source.length);
+        return offset + source.length;
+    }
+}
@@ -0,0 +1,234 @@
+package com.appointment.calendar;
+
+import com.appointment.entity.Appointment;
+import com.appointment.entity.Branch;
+import com.appointment.exception.ResourceNotFoundException;
+import com.appointment.repository.AppointmentRepository;
+import com.appointment.repository.BranchRepository;
+import com.appointment.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Pre-rendered iCalendar feeds per branch (staff) and per customer. A feed is
+ * read from the database once, on its first request; after that bookings and
+ * cancellations patch the event blocks of just the two feeds they touch, once
+ * their transaction commits, and polling clients are served the cached bytes.
+ * <p>
+ * Each feed has its own lock, held while it loads and while it is patched. A
+ * patch arriving during a load waits and then applies on top, so a booking
+ * that committed after the load's query still lands in the feed. Patches for
+ * feeds nobody has asked for are dropped; the first request reads them fresh.
+ * Loads therefore read from the primary, in a read-write transaction: a
+ * lagging replica could miss a booking whose patch was already dropped, and
+ * the feed would then lack it until evicted.
+ * Feeds idle for {@code appointment.calendar.idle-ttl-ms} are evicted, and past
+ * {@code appointment.calendar.max-feeds} further feeds are rendered per request
+ * without being cached.
+ */
+@Component
+public class CalendarFeedCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarFeedCache.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final BranchRepository branchRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate primaryTransaction;
+    private final int maxFeeds;
+    private final long idleNanos;
+    private final Map<String, FeedHolder> feeds = new ConcurrentHashMap<>();
+
+    public CalendarFeedCache(AppointmentRepository appointmentRepository,
+                             BranchRepository branchRepository,
+                             ShardRouter shardRouter,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${appointment.calendar.max-feeds:10000}") int maxFeeds,
+                             @Value("${appointment.calendar.idle-ttl-ms:1800000}") long idleMillis) {
+        this.appointmentRepository = appointmentRepository;
+        this.branchRepository = branchRepository;
+        this.shardRouter = shardRouter;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.maxFeeds = maxFeeds;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+    }
+
+    public CalendarFeed branchFeed(Long branchId) {
+        return feed(branchKey(branchId), () -> loadBranchFeed(branchId));
+    }
+
+    // Customers are identified by username, as for /my-appointments
+    public CalendarFeed customerFeed(String username) {
+        return feed(customerKey(username), () -> loadCustomerFeed(username));
+    }
+
+    /**
+     * Adds a new booking to its branch and customer feeds once the current
+     * transaction commits. The event blocks are rendered straight away, while
+     * the slot and branch are still attached.
+     */
+    public void appointmentBooked(Appointment appointment) {
+        String bookingReference = appointment.getBookingReference();
+        String branchKey = branchKey(appointment.getTimeSlot().getBranch().getId());
+        String customerKey = customerKey(appointment.getCustomerName());
+        byte[] branchEvent = ICalendarWriter.branchEvent(appointment);
+        byte[] customerEvent = ICalendarWriter.customerEvent(appointment);
+        afterCommit(() -> {
+            patch(branchKey, feed -> feed.with(bookingReference, branchEvent));
+            patch(customerKey, feed -> feed.with(bookingReference, customerEvent));
+        });
+    }
+
+    public void appointmentCancelled(Appointment appointment) {
+        String bookingReference = appointment.getBookingReference();
+        String branchKey = branchKey(appointment.getTimeSlot().getBranch().getId());
+        String customerKey = customerKey(appointment.getCustomerName());
+        afterCommit(() -> {
+            patch(branchKey, feed -> feed.without(bookingReference));
+            patch(customerKey, feed -> feed.without(bookingReference));
+        });
+    }
+
+    // For bulk changes made in SQL, which bypass the per-appointment patches
+    public void evictAll() {
+        feeds.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.calendar.sweep-interval-ms:60000}")
+    public void evictIdleFeeds() {
+        long now = System.nanoTime();
+        int before = feeds.size();
+        feeds.values().removeIf(holder -> now - holder.lastAccessNanos > idleNanos);
+        int evicted = before - feeds.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle calendar feeds, {} cached", evicted, feeds.size());
+        }
+    }
+
+    public int getCachedFeedCount() {
+        return feeds.size();
+    }
+
+    private CalendarFeed feed(String key, Supplier<CalendarFeed> loader) {
+        FeedHolder holder = feeds.get(key);
+        if (holder == null) {
+            if (feeds.size() >= maxFeeds) {
+                return loader.get();
+            }
+            holder = feeds.computeIfAbsent(key, k -> new FeedHolder());
+        }
+        holder.lastAccessNanos = System.nanoTime();
+        CalendarFeed feed = holder.feed;
+        if (feed != null) {
+            return feed;
+        }
+
+        holder.lock.lock();
+        try {
+            if (holder.feed == null) {
+                holder.feed = loader.get();
+            }
+            return holder.feed;
+        } catch (RuntimeException e) {
+            feeds.remove(key, holder);
+            throw e;
+        } finally {
+            holder.lock.unlock();
+        }
+    }
+
+    private void patch(String key, UnaryOperator<CalendarFeed> change) {
+        FeedHolder holder = feeds.get(key);
+        if (holder == null) {
+            return;
+        }
+        holder.lock.lock();
+        try {
+            if (holder.feed != null) {
+                holder.feed = change.apply(holder.feed);
+            }
+        } finally {
+            holder.lock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable patch) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            patch.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                patch.run();
+            }
+        });
+    }
+
+    private CalendarFeed loadBranchFeed(Long branchId) {
+        return shardRouter.onBranchShard(branchId,
+                () -> primaryTransaction.execute(status -> renderBranchFeed(branchId)));
+    }
+
+    private CalendarFeed renderBranchFeed(Long branchId) {
+        // One fetch-joined query on the branch's shard; nothing lazy is touched while rendering
+        List<Appointment> appointments = appointmentRepository.findConfirmedWithTimeSlotAndBranchByBranchId(branchId);
+        String branchName = appointments.isEmpty()
+                ? branchRepository.findById(branchId).map(Branch::getName)
+                        .orElseThrow(() -> new ResourceNotFoundException("Branch not found"))
+                : appointments.get(0).getTimeSlot().getBranch().getName();
+
+        Map<String, byte[]> events = new HashMap<>();
+        for (Appointment appointment : appointments) {
+            events.put(appointment.getBookingReference(), ICalendarWriter.branchEvent(appointment));
+        }
+        log.debug("Loaded calendar feed for branch {} with {} appointments", branchId, events.size());
+        return CalendarFeed.of(ICalendarWriter.header(branchName + " appointments"), events);
+    }
+
+    private CalendarFeed loadCustomerFeed(String username) {
+        // A customer's appointments can sit on any shard
+        List<Map.Entry<String, byte[]>> rendered = shardRouter.readAllShardsOnPrimary(() -> appointmentRepository
+                .findConfirmedWithTimeSlotAndBranchByUsername(username).stream()
+                .map(appointment -> Map.entry(appointment.getBookingReference(),
+                        ICalendarWriter.customerEvent(appointment)))
+                .toList());
+
+        Map<String, byte[]> events = new HashMap<>();
+        for (Map.Entry<String, byte[]> event : rendered) {
+            events.put(event.getKey(), event.getValue());
+        }
+        log.debug("Loaded calendar feed for customer {} with {} appointments", username, events.size());
+        return CalendarFeed.of(ICalendarWriter.header("My appointments"), events);
+    }
+
+    private static String branchKey(Long branchId) {
+        return "branch:" + branchId;
+    }
+
+    private static String customerKey(String username) {
+        return "customer:" + username;
+    }
+
+    private static final class FeedHolder {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile CalendarFeed feed;
+        private volatile long lastAccessNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,85 @@
+package com.appointment.calendar;
+
+import com.appointment.entity.CalendarFeedToken;
+import com.appointment.exception.ResourceNotFoundException;
+import com.appointment.repository.BranchRepository;
+import com.appointment.repository.CalendarFeedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues and checks the secret tokens in subscribable calendar URLs. Calendar
+ * apps poll a plain URL and cannot send a bearer token, so the URL itself is
+ * the credential: 256 random bits, stored only as a hash, and rotated on
+ * request, which revokes the previous URL.
+ */
+@Service
+public class CalendarFeedTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarFeedTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final CalendarFeedTokenRepository calendarFeedTokenRepository;
+    private final BranchRepository branchRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public CalendarFeedTokenService(CalendarFeedTokenRepository calendarFeedTokenRepository,
+                                    BranchRepository branchRepository) {
+        this.calendarFeedTokenRepository = calendarFeedTokenRepository;
+        this.branchRepository = branchRepository;
+    }
+
+    @Transactional
+    public String rotateBranchToken(Long branchId) {
+        if (!branchRepository.existsById(branchId)) {
+            throw new ResourceNotFoundException("Branch not found");
+        }
+        log.info("Rotating calendar feed token for branch {}", branchId);
+        return rotate(calendarFeedTokenRepository.findByBranchId(branchId)
+                .orElseGet(() -> CalendarFeedToken.forBranch(branchId)));
+    }
+
+    @Transactional
+    public String rotateCustomerToken(String username) {
+        log.info("Rotating calendar feed token for user {}", username);
+        return rotate(calendarFeedTokenRepository.findByUsername(username)
+                .orElseGet(() -> CalendarFeedToken.forCustomer(username)));
+    }
+
+    // Read-write, so a URL issued a moment ago is found even when reads go to a replica
+    @Transactional
+    public CalendarFeedToken resolve(String token) {
+        return calendarFeedTokenRepository.findByTokenHash(hash(token))
+                .orElseThrow(() -> new ResourceNotFoundException("Calendar feed not found"));
+    }
+
+    private String rotate(CalendarFeedToken feedToken) {
+        byte[] secret = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(secret);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        feedToken.setTokenHash(hash(token));
+        feedToken.setCreatedAt(LocalDateTime.now());
+        calendarFeedTokenRepository.save(feedToken);
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.appointment.calendar;
+
+import com.appointment.entity.Appointment;
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Renders RFC 5545 calendar text. Each appointment becomes one
+ * self-contained {@code VEVENT} block, so a feed can be patched by swapping
+ * blocks without re-rendering the rest. Slot times are written as floating
+ * local times: they are the branch's wall-clock times, whatever zone the
+ * subscriber is in.
+ */
+final class ICalendarWriter {
+
+    private static final DateTimeFormatter LOCAL_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final String UID_SUFFIX = "@appointment-booking-system";
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] FOLD = {'\r', '\n', ' '};
+    private static final int MAX_LINE_OCTETS = 75;
+
+    static final byte[] FOOTER = "END:VCALENDAR\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private ICalendarWriter() {
+    }
+
+    static byte[] header(String calendarName) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(192);
+        line(out, "BEGIN:VCALENDAR");
+        line(out, "VERSION:2.0");
+        line(out, "PRODID:-//Appointment Booking System//Calendar Feed//EN");
+        line(out, "CALSCALE:GREGORIAN");
+        line(out, "METHOD:PUBLISH");
+        line(out, "X-WR-CALNAME:" + escape(calendarName));
+        return out.toByteArray();
+    }
+
+    // Staff view: who is coming, and how to reach them
+    static byte[] branchEvent(Appointment appointment) {
+        String description = "Booking reference " + appointment.getBookingReference()
+                + (appointment.getCustomerPhone() != null ? "\nPhone " + appointment.getCustomerPhone() : "")
+                + "\nEmail " + appointment.getCustomerEmail();
+        return event(appointment, appointment.getCustomerName(), description);
+    }
+
+    // Customer view: where to go
+    static byte[] customerEvent(Appointment appointment) {
+        return event(appointment, "Appointment at " + appointment.getTimeSlot().getBranch().getName(),
+                "Booking reference " + appointment.getBookingReference());
+    }
+
+    private static byte[] event(Appointment appointment, String summary, String description) {
+        TimeSlot timeSlot = appointment.getTimeSlot();
+        Branch branch = timeSlot.getBranch();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(384);
+        line(out, "BEGIN:VEVENT");
+        line(out, "UID:" + appointment.getBookingReference() + UID_SUFFIX);
+        line(out, "DTSTAMP:" + UTC_TIME.format(appointment.getCreatedAt().atZone(ZoneId.systemDefault())));
+        line(out, "DTSTART:" + LOCAL_TIME.format(timeSlot.getSlotDate().atTime(timeSlot.getStartTime())));
+        line(out, "DTEND:" + LOCAL_TIME.format(timeSlot.getSlotDate().atTime(timeSlot.getEndTime())));
+        line(out, "SUMMARY:" + escape(summary));
+        if (branch.getAddress() != null) {
+            line(out, "LOCATION:" + escape(branch.getAddress()));
+        }
+        line(out, "DESCRIPTION:" + escape(description));
+        line(out, "STATUS:CONFIRMED");
+        line(out, "END:VEVENT");
+        return out.toByteArray();
+    }
+
+    static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> escaped.append('\\').append(c);
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> { }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    // Lines longer than 75 octets are folded, never inside a UTF-8 sequence
+    private static void line(ByteArrayOutputStream out, String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        int start = 0;
+        int limit = MAX_LINE_OCTETS;
+        while (bytes.length - start > limit) {
+            int end = start + limit;
+            while ((bytes[end] & 0xC0) == 0x80) {
+                end--;
+            }
+            out.write(bytes, start, end - start);
+            out.write(FOLD, 0, FOLD.length);
+            start = end;
+            // The leading space of a continuation line counts towards its 75 octets
+            limit = MAX_LINE_OCTETS - 1;
+        }
+        out.write(bytes, start, bytes.length - start);
+        out.write(CRLF, 0, CRLF.length);
+    }
+}
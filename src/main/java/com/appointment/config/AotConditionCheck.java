@@ -0,0 +1,56 @@
+package com.appointment.config;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An AOT-processed build ({@code mvn -Pfast-start package}) fixes every
+ * {@code @Conditional} outcome at build time. Read replicas and shards are
+ * switched on by properties, so on a jar built without them setting
+ * {@code appointment.datasource.replica.urls} or
+ * {@code appointment.datasource.shard.urls} would be silently ignored. Startup
+ * fails instead, naming the setting; rebuild the plain jar to use it.
+ */
+@Component
+public class AotConditionCheck implements ApplicationListener<ContextRefreshedEvent> {
+
+    static final String REPLICA_URLS = "appointment.datasource.replica.urls";
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
+        List<String> ignored = ignoredSettings(event.getApplicationContext().getEnvironment(),
+                event.getApplicationContext());
+        if (!ignored.isEmpty()) {
+            throw new IllegalStateException(String.join(", ", ignored) + " cannot take effect: this jar was "
+                    + "AOT-processed without it. Run a build without Spring AOT, or AOT-process with it set");
+        }
+    }
+
+    static List<String> ignoredSettings(Environment environment, ListableBeanFactory beanFactory) {
+        boolean replicasSet = isSet(environment, REPLICA_URLS);
+        boolean shardsSet = isSet(environment, ShardConfig.SHARD_URLS);
+        List<String> ignored = new ArrayList<>();
+        // With shards set, ShardConfig itself rejects replicas
+        if (replicasSet && !shardsSet && beanFactory.getBeanNamesForType(ReadReplicaConfig.class).length == 0) {
+            ignored.add(REPLICA_URLS);
+        }
+        if (shardsSet && beanFactory.getBeanNamesForType(ShardConfig.class).length == 0) {
+            ignored.add(ShardConfig.SHARD_URLS);
+        }
+        return ignored;
+    }
+
+    private static boolean isSet(Environment environment, String property) {
+        return !environment.getProperty(property, "").isBlank();
+    }
+}
@@ -0,0 +1,65 @@
+package com.appointment.config;
+
+import com.appointment.entity.AppointmentStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One-off upgrade of databases created before appointment status became a
+ * numeric code. {@code ddl-auto=update} cannot change a column type, so any
+ * {@code status} column still holding text is rewritten to the
+ * {@link AppointmentStatus} codes, converted to SMALLINT and given its CHECK
+ * constraint. Runs after the schema is in place and before the context
+ * starts serving; a no-op on fresh or already migrated databases.
+ */
+@Component
+public class AppointmentStatusMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentStatusMigration.class);
+
+    private static final List<String> TABLES = List.of("APPOINTMENTS", "APPOINTMENTS_ARCHIVE");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory is injected only so Hibernate's schema management runs first
+    public AppointmentStatusMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        for (String table : TABLES) {
+            List<String> types = jdbcTemplate.queryForList(
+                    "SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS " +
+                    "WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ? AND COLUMN_NAME = 'STATUS'",
+                    String.class, table);
+            if (types.isEmpty() || !types.get(0).contains("CHAR")) {
+                continue;
+            }
+            migrateTable(table);
+        }
+    }
+
+    private void migrateTable(String table) {
+        log.info("Migrating {}.status from text to numeric status codes", table);
+        StringBuilder cases = new StringBuilder("CASE status");
+        for (AppointmentStatus status : AppointmentStatus.values()) {
+            cases.append(" WHEN '").append(status.name()).append("' THEN '").append(status.getCode()).append('\'');
+        }
+        cases.append(" ELSE status END");
+
+        int rows = jdbcTemplate.update("UPDATE " + table + " SET status = " + cases);
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN status SET DATA TYPE SMALLINT");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN status SET NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT ck_" + table.toLowerCase(Locale.ROOT) + "_status " +
+                "CHECK (status IN (1, 2, 3))");
+        log.info("Migrated {} rows in {}", rows, table);
+    }
+}
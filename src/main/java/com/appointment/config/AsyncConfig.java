@@ -0,0 +1,55 @@
+package com.appointment.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+
+    // Bounded pool for notification fan-out so bulk operations cannot flood the mail server
+    @Bean(name = EMAIL_EXECUTOR)
+    public Executor emailExecutor(@Value("${appointment.email.pool-size:4}") int poolSize,
+                                  @Value("${appointment.email.queue-capacity:1000}") int queueCapacity,
+                                  Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // One virtual thread per email; the concurrency limit keeps the same cap on the mail server
+            // and makes submitters wait when it is reached, as CallerRunsPolicy does for the pool
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("email-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(poolSize);
+            executor.setTaskTerminationTimeout(30_000);
+            return executor;
+        }
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform threads",
+                    JavaVersion.getJavaVersion());
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("email-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,410 @@
+package com.appointment.config;
+
+import com.appointment.entity.Appointment;
+import com.appointment.entity.AppointmentStatus;
+import com.appointment.entity.TimeSlot;
+import com.appointment.shard.ShardRouter;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Bulk-generates branches, time slots, users and appointments for benchmarking
+ * when the {@code seed} profile is active. Volumes come from the
+ * {@code appointment.seed.*} properties and every row is derived from
+ * {@code appointment.seed.seed}: the same seed and start date always produce
+ * the same data. Rows bypass JPA entirely; in {@code csv} mode each table is
+ * streamed to a CSV file and loaded with one H2 {@code CSVREAD} insert, in
+ * {@code batch} mode rows go through JDBC batch inserts (works on any database).
+ * <p>
+ * Each slot's {@code booked_count} and {@code available} flag match its
+ * generated confirmed appointments, so the capacity invariant holds on the
+ * seeded data. Seed users share one password, {@code appointment.seed.password}.
+ * Rows are written to one database, so seeding is refused when the schedule
+ * is sharded.
+ */
+@Component
+@Profile("seed")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class BulkDataSeeder implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkDataSeeder.class);
+
+    private static final String BRANCH_PREFIX = "Seed Branch ";
+    private static final int BATCH_SIZE = 1_000;
+    private static final int CSV_CHUNK_ROWS = 500_000;
+    private static final LocalTime FIRST_SLOT = LocalTime.of(8, 0);
+    private static final int SLOT_MINUTES = 30;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter REFERENCE_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final IdSequenceMigration idSequenceMigration;
+    private final ShardRouter shardRouter;
+
+    @Value("${appointment.seed.seed:42}")
+    private long seed;
+
+    @Value("${appointment.seed.mode:csv}")
+    private String mode;
+
+    @Value("${appointment.seed.branches:500}")
+    private int branches;
+
+    @Value("${appointment.seed.days:365}")
+    private int days;
+
+    @Value("${appointment.seed.slots-per-day:20}")
+    private int slotsPerDay;
+
+    @Value("${appointment.seed.capacity:5}")
+    private int capacity;
+
+    @Value("${appointment.seed.users:100000}")
+    private int users;
+
+    // Probability that each seat of a slot holds a confirmed appointment
+    @Value("${appointment.seed.fill-ratio:0.6}")
+    private double fillRatio;
+
+    // Probability that each seat also carries a cancelled appointment
+    @Value("${appointment.seed.cancel-ratio:0.1}")
+    private double cancelRatio;
+
+    // Empty means tomorrow, so the data stays ahead of the archiver
+    @Value("${appointment.seed.start-date:}")
+    private String startDate;
+
+    @Value("${appointment.seed.password:seed123}")
+    private String password;
+
+    @Value("${appointment.seed.work-dir:${java.io.tmpdir}/appointment-seed}")
+    private String workDir;
+
+    public BulkDataSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+                          IdSequenceMigration idSequenceMigration, ShardRouter shardRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.idSequenceMigration = idSequenceMigration;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (shardRouter.isSharded()) {
+            throw new IllegalStateException("Bulk seeding writes to a single database and does not support "
+                    + "appointment.datasource.shard.urls");
+        }
+        Integer seeded = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM branches WHERE name LIKE ?", Integer.class, BRANCH_PREFIX + "%");
+        if (seeded != null && seeded > 0) {
+            log.info("Found {} seeded branches, skipping bulk seeding", seeded);
+            return;
+        }
+
+        LocalDate firstDay = startDate.isBlank() ? LocalDate.now().plusDays(1) : LocalDate.parse(startDate);
+        log.info("Seeding {} branches x {} days x {} slots (capacity {}), {} users, seed {}, {} mode",
+                branches, days, slotsPerDay, capacity, users, seed, mode);
+        long startedAt = System.nanoTime();
+
+        Files.createDirectories(Paths.get(workDir));
+        try (TableLoader userTable = loader("users", null, "id", "username", "password", "enabled");
+             TableLoader roleTable = loader("user_roles", null, "user_id", "role");
+             TableLoader branchTable = loader("branches", null,
+                     "id", "name", "address", "phone", "email", "operating_hours");
+             TableLoader slotTable = loader("time_slots", TimeSlot.class,
+                     "id", "branch_id", "slot_date", "start_time", "end_time", "capacity", "booked_count",
+                     "available");
+             TableLoader appointmentTable = loader("appointments", Appointment.class,
+                     "id", "customer_name", "customer_email", "customer_phone", "time_slot_id", "status",
+                     "created_at", "booking_reference")) {
+
+            long firstUserId = nextId("users");
+            seedUsers(userTable, roleTable, firstUserId);
+            seedSchedule(branchTable, slotTable, appointmentTable, firstDay);
+
+            boolean csv = !"batch".equalsIgnoreCase(mode);
+            if (csv) {
+                // Generated rows are consistent by construction; skipping H2's per-row FK lookups halves the load
+                jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            }
+            try {
+                // Parents before children for the foreign keys
+                for (TableLoader loader : List.of(userTable, roleTable, branchTable, slotTable, appointmentTable)) {
+                    loader.finish();
+                }
+            } finally {
+                if (csv) {
+                    jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+                }
+            }
+        }
+
+        idSequenceMigration.migrate();
+        log.info("Bulk seeding finished in {} s", (System.nanoTime() - startedAt) / 1_000_000_000);
+    }
+
+    private void seedUsers(TableLoader userTable, TableLoader roleTable, long firstUserId) throws IOException {
+        // One hash for every seed user: hashing millions of passwords would dominate the run
+        String passwordHash = passwordEncoder.encode(password);
+        for (int u = 0; u < users; u++) {
+            long id = firstUserId + u;
+            userTable.add(id, username(u), passwordHash, true);
+            roleTable.add(id, "USER");
+            if ((u + 1) % (BATCH_SIZE * 10) == 0) {
+                userTable.flush();
+                roleTable.flush();
+            }
+        }
+    }
+
+    private void seedSchedule(TableLoader branchTable, TableLoader slotTable, TableLoader appointmentTable,
+                              LocalDate firstDay) throws IOException {
+        long branchId = nextId("branches");
+        long slotId = nextId("time_slots");
+        long appointmentId = nextId("appointments");
+        String[] slotStarts = new String[slotsPerDay];
+        String[] slotEnds = new String[slotsPerDay];
+        for (int s = 0; s < slotsPerDay; s++) {
+            LocalTime start = FIRST_SLOT.plusMinutes((long) SLOT_MINUTES * s);
+            slotStarts[s] = start.toString() + ":00";
+            slotEnds[s] = start.plusMinutes(SLOT_MINUTES).toString() + ":00";
+        }
+
+        for (int b = 0; b < branches; b++, branchId++) {
+            // Per-branch stream: a branch's rows do not depend on how many branches precede it
+            SplittableRandom random = new SplittableRandom(seed * 1_000_003L + b);
+            branchTable.add(branchId, String.format("%s%04d", BRANCH_PREFIX, b), b + " Seed Street",
+                    String.format("+27-11-%03d-%04d", b / 10_000, b % 10_000),
+                    "branch" + b + "@seed.example.com", "8:00 AM - 6:00 PM");
+
+            for (int d = 0; d < days; d++) {
+                LocalDate date = firstDay.plusDays(d);
+                String slotDate = date.toString();
+                String referenceDate = date.format(REFERENCE_DATE);
+
+                for (int s = 0; s < slotsPerDay; s++, slotId++) {
+                    int confirmed = 0;
+                    int firstCustomer = random.nextInt(users);
+                    for (int seat = 0; seat < capacity; seat++) {
+                        boolean cancelled = random.nextDouble() < cancelRatio;
+                        boolean booked = random.nextDouble() < fillRatio;
+                        if (!cancelled && !booked) {
+                            continue;
+                        }
+                        // Consecutive users per slot, so no customer holds two seats in one slot
+                        int customer = (firstCustomer + seat) % users;
+                        LocalDateTime createdAt = date.atTime(FIRST_SLOT).minusDays(1 + random.nextInt(30))
+                                .plusMinutes(random.nextInt(600));
+                        if (booked) {
+                            confirmed++;
+                        }
+                        appointmentTable.add(appointmentId, username(customer),
+                                username(customer) + "@example.com", String.format("08%08d", customer), slotId,
+                                (booked ? AppointmentStatus.CONFIRMED : AppointmentStatus.CANCELLED).getCode(),
+                                createdAt.format(TIMESTAMP), reference(referenceDate, appointmentId));
+                        appointmentId++;
+                    }
+                    slotTable.add(slotId, branchId, slotDate, slotStarts[s], slotEnds[s],
+                            capacity, confirmed, confirmed < capacity);
+                }
+            }
+
+            branchTable.flush();
+            slotTable.flush();
+            appointmentTable.flush();
+            if ((b + 1) % 50 == 0) {
+                log.info("Generated {}/{} branches ({} slots, {} appointments)",
+                        b + 1, branches, slotTable.rows, appointmentTable.rows);
+            }
+        }
+    }
+
+    private long nextId(String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return maxId == null ? 1 : maxId + 1;
+    }
+
+    private static String username(int user) {
+        return "seed-user-" + user;
+    }
+
+    // Base-36 id keeps references unique and in the APT-YYYYMMDD-XXXXXX shape
+    private static String reference(String date, long id) {
+        String code = Long.toString(id, 36).toUpperCase(Locale.ROOT);
+        return "APT-" + date + "-" + "000000".substring(Math.min(6, code.length())) + code;
+    }
+
+    private TableLoader loader(String table, Class<?> entity, String... columns) throws IOException {
+        return "batch".equalsIgnoreCase(mode)
+                ? new BatchTableLoader(table, columns)
+                : new CsvTableLoader(table, entity, columns);
+    }
+
+    /**
+     * Destination for one table's generated rows.
+     */
+    private abstract class TableLoader implements AutoCloseable {
+        final String name;
+        final String[] columns;
+        final long startedAt = System.nanoTime();
+        long rows;
+
+        TableLoader(String name, String[] columns) {
+            this.name = name;
+            this.columns = columns;
+        }
+
+        void add(Object... values) throws IOException {
+            write(values);
+            rows++;
+        }
+
+        abstract void write(Object[] values) throws IOException;
+
+        /** Called whenever every row a child table may reference has been added. */
+        void flush() throws IOException {
+        }
+
+        /** Completes the load; called once per table in foreign key order. */
+        void finish() throws IOException {
+            flush();
+            double seconds = (System.nanoTime() - startedAt) / 1e9;
+            log.info("Seeded {} rows into {} ({} rows/s)", rows, name, String.format("%,.0f", rows / seconds));
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    private final class BatchTableLoader extends TableLoader {
+        private final String insertSql;
+        private final List<Object[]> pending = new ArrayList<>(BATCH_SIZE);
+
+        BatchTableLoader(String name, String[] columns) {
+            super(name, columns);
+            this.insertSql = "INSERT INTO " + name + " (" + String.join(", ", columns) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        }
+
+        @Override
+        void write(Object[] values) {
+            pending.add(values);
+        }
+
+        @Override
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            for (int i = 0; i < pending.size(); i += BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(insertSql, pending.subList(i, Math.min(i + BATCH_SIZE, pending.size())));
+            }
+            pending.clear();
+        }
+    }
+
+    private final class CsvTableLoader extends TableLoader {
+        private final Index[] indexes;
+        private final List<Path> files = new ArrayList<>();
+        private final StringBuilder line = new StringBuilder(256);
+        private BufferedWriter writer;
+
+        CsvTableLoader(String name, Class<?> entity, String[] columns) throws IOException {
+            super(name, columns);
+            // Secondary indexes declared on the entity are rebuilt once after the load instead of row by row
+            this.indexes = entity == null ? new Index[0] : entity.getAnnotation(Table.class).indexes();
+            nextFile();
+        }
+
+        @Override
+        void write(Object[] values) throws IOException {
+            if (rows > 0 && rows % CSV_CHUNK_ROWS == 0) {
+                nextFile();
+            }
+            // Generated values never contain commas, quotes or newlines
+            line.setLength(0);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append(values[i]);
+            }
+            line.append('\n');
+            writer.append(line);
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.close();
+            for (Index index : indexes) {
+                jdbcTemplate.execute("DROP INDEX IF EXISTS " + index.name());
+            }
+            // One statement (and transaction) per chunk keeps H2's undo log small
+            for (Path file : files) {
+                // CSVREAD needs the file name at prepare time, so it cannot be a bind parameter
+                String fileName = file.toAbsolutePath().toString().replace("'", "''");
+                jdbcTemplate.update("INSERT INTO " + name + " (" + String.join(", ", columns) + ") "
+                        + "SELECT * FROM CSVREAD('" + fileName + "', NULL, 'charset=UTF-8')");
+                Files.delete(file);
+            }
+            files.clear();
+            long indexStartedAt = System.nanoTime();
+            for (Index index : indexes) {
+                jdbcTemplate.execute("CREATE " + (index.unique() ? "UNIQUE " : "") + "INDEX " + index.name()
+                        + " ON " + name + " (" + index.columnList() + ")");
+            }
+            if (indexes.length > 0) {
+                log.info("Rebuilt {} indexes on {} in {} ms", indexes.length, name,
+                        (System.nanoTime() - indexStartedAt) / 1_000_000);
+            }
+            super.finish();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        private void nextFile() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+            Path file = Paths.get(workDir, name + "-" + files.size() + ".csv");
+            files.add(file);
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            writer.write(String.join(",", columns));
+            writer.write('\n');
+        }
+    }
+}
@@ -8,7 +8,10 @@ import com.appointment.repository.TimeSlotRepository;
 import com.appointment.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -17,6 +20,7 @@ import java.time.LocalTime;
 import java.util.Arrays;
 
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE) // Default users and branches exist before BulkDataSeeder runs
 public class DataLoader implements CommandLineRunner {
 
     private static final Logger log = LoggerFactory.getLogger(DataLoader.class);  // Traditional logging
@@ -24,20 +28,35 @@ public class DataLoader implements CommandLineRunner {
     private final TimeSlotRepository timeSlotRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final boolean async;
 
     // Traditional constructor instead of @RequiredArgsConstructor
     public DataLoader(BranchRepository branchRepository,
                       TimeSlotRepository timeSlotRepository,
                       UserRepository userRepository,
-                      PasswordEncoder passwordEncoder) {
+                      PasswordEncoder passwordEncoder,
+                      @Value("${appointment.data-loader.async:false}") boolean async) {
         this.branchRepository = branchRepository;
         this.timeSlotRepository = timeSlotRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.async = async;
     }
 
     @Override
     public void run(String... args) throws Exception {
+        if (async) {
+            // Fast-start: the app reports ready without waiting on password hashing and seed inserts
+            Thread loader = new Thread(this::loadData, "data-loader");
+            loader.setDaemon(true);
+            loader.setUncaughtExceptionHandler((thread, e) -> log.error("Initial data load failed", e));
+            loader.start();
+        } else {
+            loadData();
+        }
+    }
+
+    private void loadData() {
         log.info("Loading initial data...");
 
         // Load users first
@@ -0,0 +1,65 @@
+package com.appointment.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-off upgrade of databases created while entity ids were IDENTITY
+ * columns. {@code ddl-auto=update} creates the new id sequences starting at 1,
+ * which would collide with existing rows, so each sequence is moved past its
+ * table's highest id. The pooled optimizer treats a fetched value as the top
+ * of a block of {@link #ALLOCATION_SIZE} ids, hence the extra headroom.
+ * A no-op on fresh or already migrated databases.
+ */
+@Component
+public class IdSequenceMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceMigration.class);
+
+    // Must match the allocationSize of the entities' @SequenceGenerator
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "USERS", "USERS_SEQ",
+            "BRANCHES", "BRANCHES_SEQ",
+            "TIME_SLOTS", "TIME_SLOTS_SEQ",
+            "APPOINTMENTS", "APPOINTMENTS_SEQ");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory is injected only so Hibernate's schema management runs first
+    public IdSequenceMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        SEQUENCES.forEach(this::advanceSequence);
+    }
+
+    private void advanceSequence(String table, String sequence) {
+        List<Long> nextValues = jdbcTemplate.queryForList(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES " +
+                "WHERE SEQUENCE_SCHEMA = SCHEMA() AND SEQUENCE_NAME = ?",
+                Long.class, sequence);
+        if (nextValues.isEmpty()) {
+            return;
+        }
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null || nextValues.get(0) > maxId + ALLOCATION_SIZE - 1) {
+            return;
+        }
+
+        long restartWith = maxId + ALLOCATION_SIZE;
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restartWith);
+        log.info("Advanced {} to {} past existing {} ids", sequence, restartWith, table);
+    }
+}
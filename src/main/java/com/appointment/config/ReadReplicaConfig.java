@@ -0,0 +1,77 @@
+package com.appointment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read/write split, active only when {@code appointment.datasource.replica.urls}
+ * lists at least one replica. The primary is built from the regular
+ * {@code spring.datasource.*} settings; replicas share its credentials and
+ * driver. Hibernate's schema management only ever runs against the primary,
+ * so replicas are expected to be populated by replication (locally, a second
+ * H2 file database can stand in for one).
+ */
+@Configuration
+@ConditionalOnExpression("!'${appointment.datasource.replica.urls:}'.isBlank() " +
+        "&& '${appointment.datasource.shard.urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    private final DataSourceProperties properties;
+    private final List<String> replicaUrls;
+
+    public ReadReplicaConfig(DataSourceProperties properties,
+                             @Value("${appointment.datasource.replica.urls}") List<String> replicaUrls) {
+        this.properties = properties;
+        this.replicaUrls = replicaUrls;
+    }
+
+    // Same spring.datasource.hikari.* pool sizing as the single-datasource setup
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource() {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls.get(i).trim())
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            replicas.put("replica-" + i, replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        // Defer the physical connection until the first statement, after readOnly is known
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource,
+                                               ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               @Value("${appointment.datasource.replica.max-lag-ms:5000}") long maxLagMillis) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaRoutingDataSource, maxLagMillis);
+    }
+}
@@ -0,0 +1,85 @@
+package com.appointment.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures replica lag with a heartbeat row: every check writes the current
+ * time to {@code replication_heartbeat} on the primary and reads the
+ * replicated value back from each replica. A replica whose heartbeat is
+ * older than {@code maxLagMillis}, or that cannot be queried, is taken out
+ * of the read rotation until it catches up.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String CREATE_HEARTBEAT_TABLE =
+            "CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)";
+
+    private final JdbcTemplate primary;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final long maxLagMillis;
+    private boolean heartbeatTableCreated;
+
+    public ReplicaLagMonitor(DataSource primary, ReplicaRoutingDataSource routingDataSource, long maxLagMillis) {
+        this.primary = new JdbcTemplate(primary);
+        routingDataSource.getReplicas().forEach((key, dataSource) -> {
+            JdbcTemplate template = new JdbcTemplate(dataSource);
+            template.setQueryTimeout(2);
+            this.replicas.put(key, template);
+        });
+        this.routingDataSource = routingDataSource;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkReplicas() {
+        long now = System.currentTimeMillis();
+        try {
+            writeHeartbeat(now);
+        } catch (RuntimeException e) {
+            // Without a fresh heartbeat the lag cannot be judged; keep the current rotation
+            log.warn("Could not write replication heartbeat to primary: {}", e.getMessage());
+            return;
+        }
+
+        replicas.forEach((key, replica) -> {
+            boolean healthy;
+            try {
+                List<Long> beats = replica.queryForList(
+                        "SELECT beat_at FROM replication_heartbeat WHERE id = 1", Long.class);
+                long lag = beats.isEmpty() ? Long.MAX_VALUE : now - beats.get(0);
+                healthy = lag <= maxLagMillis;
+                if (!healthy) {
+                    log.debug("Replica {} lagging by {} ms", key, beats.isEmpty() ? "unknown" : lag);
+                }
+            } catch (RuntimeException e) {
+                log.debug("Replica {} unreachable: {}", key, e.getMessage());
+                healthy = false;
+            }
+
+            boolean wasHealthy = routingDataSource.getHealthyReplicas().contains(key);
+            if (healthy != wasHealthy) {
+                log.info("Replica {} is now {}", key, healthy ? "in rotation" : "out of rotation");
+            }
+            routingDataSource.setReplicaHealthy(key, healthy);
+        });
+    }
+
+    private void writeHeartbeat(long now) {
+        if (!heartbeatTableCreated) {
+            primary.execute(CREATE_HEARTBEAT_TABLE);
+            heartbeatTableCreated = true;
+        }
+        primary.update("MERGE INTO replication_heartbeat (id, beat_at) KEY (id) VALUES (1, ?)", now);
+    }
+}
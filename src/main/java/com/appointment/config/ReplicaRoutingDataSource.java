@@ -0,0 +1,90 @@
+package com.appointment.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends connections requested inside {@code @Transactional(readOnly = true)}
+ * to one of the healthy read replicas (round robin) and everything else to
+ * the primary. Replicas start unhealthy and only receive traffic once
+ * {@link ReplicaLagMonitor} has confirmed they are within the lag budget;
+ * with no healthy replica, reads fall back to the primary.
+ * <p>
+ * Must be wrapped in a {@code LazyConnectionDataSourceProxy} so the
+ * connection is fetched after the transaction's read-only flag is set.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    // Not synchronized: a monitor held by a virtual thread would pin its carrier
+    private final ReentrantLock healthLock = new ReentrantLock();
+    private volatile List<String> healthyReplicas = Collections.emptyList();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<String> replicas = healthyReplicas;
+        if (replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        return replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+    }
+
+    public void setReplicaHealthy(String replicaKey, boolean healthy) {
+        healthLock.lock();
+        try {
+            List<String> updated = new ArrayList<>(healthyReplicas);
+            if (healthy && !updated.contains(replicaKey)) {
+                updated.add(replicaKey);
+                Collections.sort(updated);
+            } else if (!healthy) {
+                updated.remove(replicaKey);
+            }
+            healthyReplicas = Collections.unmodifiableList(updated);
+        } finally {
+            healthLock.unlock();
+        }
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    // The primary is a bean in its own right; only the replica pools are owned here
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
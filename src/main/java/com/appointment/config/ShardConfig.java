@@ -0,0 +1,109 @@
+package com.appointment.config;
+
+import com.appointment.shard.ShardKeyRepositoryCustomizer;
+import com.appointment.shard.ShardMap;
+import com.appointment.shard.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Branch sharding, active only when {@code appointment.datasource.shard.urls}
+ * lists at least one extra database. Shard 0 is built from the regular
+ * {@code spring.datasource.*} settings; the other shards share its
+ * credentials, driver and pool sizing. Each branch's slots and appointments
+ * live on the shard {@link ShardMap} assigns it; users, sessions and the
+ * other unsharded tables stay on shard 0 and branches are copied everywhere.
+ * Locally, a few H2 file databases stand in for the shards.
+ * <p>
+ * Not combined with read replicas yet: setting both fails at startup.
+ */
+@Configuration
+@ConditionalOnExpression("!'${appointment.datasource.shard.urls:}'.isBlank()")
+public class ShardConfig {
+
+    static final String SHARD_URLS = "appointment.datasource.shard.urls";
+
+    private final DataSourceProperties properties;
+    private final List<String> shardUrls;
+
+    public ShardConfig(DataSourceProperties properties,
+                       @Value("${appointment.datasource.shard.urls}") List<String> shardUrls,
+                       @Value("${appointment.datasource.replica.urls:}") String replicaUrls) {
+        if (!replicaUrls.isBlank()) {
+            throw new IllegalStateException("appointment.datasource.shard.urls and "
+                    + "appointment.datasource.replica.urls cannot be used together");
+        }
+        this.properties = properties;
+        this.shardUrls = shardUrls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+    }
+
+    // Static: a BeanPostProcessor must not pull the rest of this configuration in early
+    @Bean
+    public static ShardKeyRepositoryCustomizer shardKeyRepositoryCustomizer(Environment environment) {
+        List<String> urls = Binder.get(environment).bind(SHARD_URLS, Bindable.listOf(String.class))
+                .orElse(List.of());
+        int extraShards = (int) urls.stream().filter(url -> !url.isBlank()).count();
+        return new ShardKeyRepositoryCustomizer(new ShardMap(1 + extraShards));
+    }
+
+    // Same spring.datasource.hikari.* pool sizing as the single-datasource setup
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource() {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource primaryDataSource) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(primaryDataSource);
+        for (int i = 0; i < shardUrls.size(); i++) {
+            HikariDataSource shard = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(shardUrls.get(i))
+                    .build();
+            shard.setPoolName("shard-" + (i + 1));
+            shard.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            shard.setMinimumIdle(primaryDataSource.getMinimumIdle());
+            shard.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        // Defer the physical connection until the first statement, after the shard key is known
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        // Declared rather than probed, so probing never borrows a connection inside a transaction
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardRoutingDataSource shardRoutingDataSource,
+                                                         EntityManagerFactory entityManagerFactory,
+                                                         @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return new ShardSchemaInitializer(shardRoutingDataSource, entityManagerFactory, ddlAuto);
+    }
+}
@@ -0,0 +1,82 @@
+package com.appointment.config;
+
+import com.appointment.shard.BranchReplicationListener;
+import com.appointment.shard.ShardContext;
+import com.appointment.shard.ShardMap;
+import com.appointment.shard.ShardRoutingDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.relational.SchemaManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings shards 1..N in line with shard 0 once Hibernate has built the
+ * session factory. Hibernate's own schema management only ever sees shard 0,
+ * so the mapped tables are created on the others here ({@code create} and
+ * {@code create-drop} recreate them; {@code update} only creates them on an
+ * empty shard). Each shard's id sequences then start at
+ * {@code shard * ShardMap.ID_BLOCK}, keeping ids unique across shards, and
+ * branch writes start being copied to every shard.
+ */
+public class ShardSchemaInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    private final ShardRoutingDataSource shardRoutingDataSource;
+    private final SessionFactoryImplementor sessionFactory;
+    private final String ddlAuto;
+
+    public ShardSchemaInitializer(ShardRoutingDataSource shardRoutingDataSource,
+                                  EntityManagerFactory entityManagerFactory, String ddlAuto) {
+        this.shardRoutingDataSource = shardRoutingDataSource;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.ddlAuto = ddlAuto;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        List<DataSource> shards = shardRoutingDataSource.getShards();
+        SchemaManager schemaManager = sessionFactory.getSchemaManager();
+        for (int shard = 1; shard < shards.size(); shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(shards.get(shard));
+            boolean recreate = ddlAuto.startsWith("create");
+            boolean empty = jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                    "WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = 'TIME_SLOTS'", Integer.class) == 0;
+            if (recreate || (empty && "update".equals(ddlAuto))) {
+                ShardContext.runOn(shard, () -> {
+                    schemaManager.dropMappedObjects(false);
+                    schemaManager.exportMappedObjects(false);
+                });
+                log.info("Created schema on shard {}", shard);
+            }
+            offsetSequences(jdbc, shard);
+        }
+
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        BranchReplicationListener replication = new BranchReplicationListener(shards);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, replication);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, replication);
+        log.info("Branch sharding across {} databases", shards.size());
+    }
+
+    private void offsetSequences(JdbcTemplate jdbc, int shard) {
+        long start = shard * ShardMap.ID_BLOCK + IdSequenceMigration.ALLOCATION_SIZE;
+        List<Map<String, Object>> sequences = jdbc.queryForList(
+                "SELECT SEQUENCE_NAME, BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_SCHEMA = SCHEMA()");
+        for (Map<String, Object> sequence : sequences) {
+            long baseValue = ((Number) sequence.get("BASE_VALUE")).longValue();
+            if (baseValue < start) {
+                jdbc.execute("ALTER SEQUENCE " + sequence.get("SEQUENCE_NAME") + " RESTART WITH " + start);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.appointment.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * With {@code spring.main.lazy-initialization=true} (the fast-start profile) a
+     * bean is only created when something first asks for it. Beans whose work is
+     * triggered by the container itself - {@code @Scheduled} jobs and
+     * {@code @PostConstruct} migrations and streams - would then never run, so
+     * they stay eager. Everything else is built on first use.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter lifecycleBeansStayEager() {
+        return (beanName, beanDefinition, beanType) -> hasLifecycleMethod(beanType);
+    }
+
+    static boolean hasLifecycleMethod(Class<?> beanType) {
+        if (beanType == null) {
+            return false;
+        }
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(beanType, ReflectionUtils.USER_DECLARED_METHODS)) {
+            if (AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                    || AnnotatedElementUtils.hasAnnotation(method, PostConstruct.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,104 @@
+package com.appointment.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Logs where startup time went once the application is ready, from the steps
+ * recorded by the {@link BufferingApplicationStartup} installed in
+ * {@code main}: the top-level phases in order, then the step types and beans
+ * with the most self time (a step's duration minus that of its children, so
+ * the figures add up instead of counting nested bean creation twice).
+ * The buffer is drained afterwards either way.
+ */
+@Component
+public class StartupTimingReport {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimingReport.class);
+
+    private final boolean enabled;
+    private final int top;
+
+    public StartupTimingReport(@Value("${appointment.startup.report.enabled:false}") boolean enabled,
+                               @Value("${appointment.startup.report.top:10}") int top) {
+        this.enabled = enabled;
+        this.top = top;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+        StartupTimeline timeline = buffering.drainBufferedTimeline();
+        if (!enabled) {
+            return;
+        }
+
+        long jvmUptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        Duration timeTaken = event.getTimeTaken();
+        log.info("Startup: ready {} ms after JVM start ({} ms in SpringApplication.run, {} ms before it)",
+                jvmUptime, timeTaken.toMillis(), jvmUptime - timeTaken.toMillis());
+
+        List<StartupTimeline.TimelineEvent> events = timeline.getEvents();
+        Map<Long, Duration> childTime = new HashMap<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : events) {
+            Long parentId = timelineEvent.getStartupStep().getParentId();
+            if (parentId != null) {
+                childTime.merge(parentId, timelineEvent.getDuration(), Duration::plus);
+            }
+        }
+
+        Map<String, Duration> byStep = new HashMap<>();
+        Map<String, Duration> byBean = new HashMap<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : events) {
+            StartupStep step = timelineEvent.getStartupStep();
+            if (step.getParentId() == null) {
+                log.info("Startup phase {}: {} ms", step.getName(), timelineEvent.getDuration().toMillis());
+            }
+            Duration self = timelineEvent.getDuration()
+                    .minus(childTime.getOrDefault(step.getId(), Duration.ZERO));
+            byStep.merge(step.getName(), self, Duration::plus);
+            String beanName = tag(step, "beanName");
+            if (beanName != null) {
+                byBean.merge(beanName, self, Duration::plus);
+            }
+        }
+        log.info("Startup self time by step: {}", slowest(byStep));
+        log.info("Startup self time by bean: {}", slowest(byBean));
+    }
+
+    private Map<String, Long> slowest(Map<String, Duration> durations) {
+        return durations.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                .limit(top)
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().toMillis(),
+                        (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private static String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (key.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return null;
+    }
+}
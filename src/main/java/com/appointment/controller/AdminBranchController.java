@@ -0,0 +1,63 @@
+package com.appointment.controller;
+
+import com.appointment.dto.BranchClosureRequest;
+import com.appointment.dto.BranchClosureResponse;
+import com.appointment.service.BranchClosureService;
+import com.appointment.service.ManifestExportService;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/admin/branches")
+public class AdminBranchController {
+
+    private final ManifestExportService manifestExportService;
+    private final BranchClosureService branchClosureService;
+
+    public AdminBranchController(ManifestExportService manifestExportService,
+                                 BranchClosureService branchClosureService) {
+        this.manifestExportService = manifestExportService;
+        this.branchClosureService = branchClosureService;
+    }
+
+    @GetMapping("/{branchId}/manifest")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> getDailyManifest(
+            @PathVariable Long branchId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "csv") String format) {
+
+        ManifestExportService.Format manifestFormat;
+        try {
+            manifestFormat = ManifestExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String filename = "manifest-" + branchId + "-" + date + "." + manifestFormat.name().toLowerCase(Locale.ROOT);
+        StreamingResponseBody body = out -> manifestExportService.writeManifest(branchId, date, manifestFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(manifestFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    @PostMapping("/{branchId}/closures")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BranchClosureResponse> closeBranch(@PathVariable Long branchId,
+                                                             @Valid @RequestBody BranchClosureRequest request) {
+        BranchClosureResponse response = branchClosureService.closeBranch(
+                branchId, request.getStartDate(), request.getEndDate());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,31 @@
+package com.appointment.controller;
+
+import com.appointment.dto.CacheStatisticsResponse;
+import com.appointment.service.CacheStatisticsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+public class AdminCacheController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    public AdminCacheController(CacheStatisticsService cacheStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @GetMapping("/statistics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CacheStatisticsResponse> getStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getStatistics());
+    }
+
+    @DeleteMapping("/statistics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> clearStatistics() {
+        cacheStatisticsService.clearStatistics();
+        return ResponseEntity.noContent().build();
+    }
+}
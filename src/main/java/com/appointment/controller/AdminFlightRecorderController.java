@@ -0,0 +1,24 @@
+package com.appointment.controller;
+
+import com.appointment.dto.FlightEventSummaryResponse;
+import com.appointment.service.FlightEventSummaryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/jfr")
+public class AdminFlightRecorderController {
+
+    private final FlightEventSummaryService flightEventSummaryService;
+
+    public AdminFlightRecorderController(FlightEventSummaryService flightEventSummaryService) {
+        this.flightEventSummaryService = flightEventSummaryService;
+    }
+
+    @GetMapping("/summary")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FlightEventSummaryResponse> getSummary(@RequestParam(defaultValue = "5") int minutes) {
+        return ResponseEntity.ok(flightEventSummaryService.summarize(minutes));
+    }
+}
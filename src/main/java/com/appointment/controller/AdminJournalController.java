@@ -0,0 +1,33 @@
+package com.appointment.controller;
+
+import com.appointment.dto.JournalStatusResponse;
+import com.appointment.journal.BookingJournal;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/admin/journal")
+public class AdminJournalController {
+
+    private final BookingJournal bookingJournal;
+
+    public AdminJournalController(BookingJournal bookingJournal) {
+        this.bookingJournal = bookingJournal;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<JournalStatusResponse> getStatus() {
+        return ResponseEntity.ok(bookingJournal.status());
+    }
+
+    @PostMapping("/snapshot")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<JournalStatusResponse> snapshot() throws IOException {
+        bookingJournal.snapshot();
+        return ResponseEntity.ok(bookingJournal.status());
+    }
+}
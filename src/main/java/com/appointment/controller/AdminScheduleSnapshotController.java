@@ -0,0 +1,40 @@
+package com.appointment.controller;
+
+import com.appointment.dto.ScheduleSnapshotStatusResponse;
+import com.appointment.service.ScheduleSnapshotService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/admin/schedule-snapshot")
+public class AdminScheduleSnapshotController {
+
+    private final ScheduleSnapshotService scheduleSnapshotService;
+
+    public AdminScheduleSnapshotController(ScheduleSnapshotService scheduleSnapshotService) {
+        this.scheduleSnapshotService = scheduleSnapshotService;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ScheduleSnapshotStatusResponse> getStatus() {
+        return ResponseEntity.ok(scheduleSnapshotService.status());
+    }
+
+    @PostMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ScheduleSnapshotStatusResponse> export() throws IOException {
+        scheduleSnapshotService.export();
+        return ResponseEntity.ok(scheduleSnapshotService.status());
+    }
+
+    @PostMapping("/load")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ScheduleSnapshotStatusResponse> load() throws IOException {
+        scheduleSnapshotService.load();
+        return ResponseEntity.ok(scheduleSnapshotService.status());
+    }
+}
@@ -1,5 +1,7 @@
 package com.appointment.controller;
 
+import com.appointment.dto.AppointmentLookupRequest;
+import com.appointment.dto.AppointmentLookupResponse;
 import com.appointment.dto.AppointmentRequest;
 import com.appointment.dto.AppointmentResponse;
 import com.appointment.service.AppointmentService;
@@ -36,6 +38,15 @@ public class AppointmentController {
         return ResponseEntity.ok(response);
     }
 
+    // Bulk reconciliation returns any customer's appointments, so it is not open to ordinary users
+    @PostMapping("/lookup")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AppointmentLookupResponse> lookupAppointments(
+            @Valid @RequestBody AppointmentLookupRequest request) {
+        AppointmentLookupResponse response = appointmentService.lookupAppointments(request.getBookingReferences());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/my-appointments")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<List<AppointmentResponse>> getMyAppointments(Authentication authentication) {
@@ -0,0 +1,98 @@
+package com.appointment.controller;
+
+import com.appointment.calendar.CalendarFeed;
+import com.appointment.calendar.CalendarFeedCache;
+import com.appointment.calendar.CalendarFeedTokenService;
+import com.appointment.dto.CalendarFeedTokenResponse;
+import com.appointment.entity.CalendarFeedToken;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Subscribable {@code .ics} feeds. Calendar apps cannot send a bearer token,
+ * so they subscribe to {@code /calendar/{feedToken}.ics}, a secret URL that
+ * staff (per branch) and customers (for themselves) issue and rotate through
+ * the authenticated {@code calendar-token} endpoints. The bearer-authenticated
+ * {@code calendar.ics} endpoints serve the same feeds to the web app.
+ * <p>
+ * Responses carry the feed's ETag, and a poll with a matching
+ * {@code If-None-Match} gets an empty 304, which Spring answers from the ETag
+ * on the {@link ResponseEntity} without writing the body.
+ */
+@RestController
+public class CalendarFeedController {
+
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private final CalendarFeedCache calendarFeedCache;
+    private final CalendarFeedTokenService calendarFeedTokenService;
+
+    public CalendarFeedController(CalendarFeedCache calendarFeedCache,
+                                  CalendarFeedTokenService calendarFeedTokenService) {
+        this.calendarFeedCache = calendarFeedCache;
+        this.calendarFeedTokenService = calendarFeedTokenService;
+    }
+
+    @GetMapping("/calendar/{feedToken}.ics")
+    public ResponseEntity<byte[]> getSubscribedCalendar(@PathVariable String feedToken) {
+        CalendarFeedToken owner = calendarFeedTokenService.resolve(feedToken);
+        return feedResponse(owner.getBranchId() != null
+                ? calendarFeedCache.branchFeed(owner.getBranchId())
+                : calendarFeedCache.customerFeed(owner.getUsername()));
+    }
+
+    // Issues a new subscription URL; the previous one stops working
+    @PostMapping("/api/admin/branches/{branchId}/calendar-token")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CalendarFeedTokenResponse> rotateBranchCalendarToken(@PathVariable Long branchId) {
+        return feedTokenResponse(calendarFeedTokenService.rotateBranchToken(branchId));
+    }
+
+    @PostMapping("/api/appointments/my-appointments/calendar-token")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<CalendarFeedTokenResponse> rotateMyCalendarToken(Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        return feedTokenResponse(calendarFeedTokenService.rotateCustomerToken(userDetails.getUsername()));
+    }
+
+    @GetMapping("/api/admin/branches/{branchId}/calendar.ics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<byte[]> getBranchCalendar(@PathVariable Long branchId) {
+        return feedResponse(calendarFeedCache.branchFeed(branchId));
+    }
+
+    @GetMapping("/api/appointments/my-appointments/calendar.ics")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<byte[]> getMyCalendar(Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        return feedResponse(calendarFeedCache.customerFeed(userDetails.getUsername()));
+    }
+
+    private static ResponseEntity<CalendarFeedTokenResponse> feedTokenResponse(String feedToken) {
+        String feedUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/calendar/{feedToken}.ics")
+                .buildAndExpand(feedToken)
+                .toUriString();
+        return ResponseEntity.ok(new CalendarFeedTokenResponse(feedUrl));
+    }
+
+    private static ResponseEntity<byte[]> feedResponse(CalendarFeed feed) {
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .eTag(feed.getETag())
+                // Always revalidate, so a booking shows up on the next poll
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(feed.getBody());
+    }
+}
@@ -1,8 +1,10 @@
 package com.appointment.controller;
 
+import com.appointment.dto.AvailabilityResponse;
 import com.appointment.dto.TimeSlotDTO;
 import com.appointment.service.TimeSlotService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -27,4 +29,19 @@ public class TimeSlotController {
         List<TimeSlotDTO> availableSlots = timeSlotService.getAvailableTimeSlots(branchId, date);
         return ResponseEntity.ok(availableSlots);
     }
+
+    /**
+     * Grouped availability over a date range (a single day when {@code toDate}
+     * is omitted), as JSON or, with {@code Accept: application/cbor}, CBOR.
+     */
+    @GetMapping(value = "/availability", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<AvailabilityResponse> getAvailability(
+            @RequestParam Long branchId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+
+        AvailabilityResponse availability = timeSlotService.getAvailability(branchId, fromDate,
+                toDate != null ? toDate : fromDate);
+        return ResponseEntity.ok(availability);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.appointment.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class AppointmentLookupRequest {
+
+    public static final int MAX_REFERENCES = 500;
+
+    @NotEmpty(message = "At least one booking reference is required")
+    @Size(max = MAX_REFERENCES, message = "At most " + MAX_REFERENCES + " booking references per lookup")
+    private List<@NotBlank(message = "Booking references must not be blank") String> bookingReferences;
+
+    // Default constructor
+    public AppointmentLookupRequest() {
+    }
+
+    // Getters and setters
+    public List<String> getBookingReferences() {
+        return bookingReferences;
+    }
+
+    public void setBookingReferences(List<String> bookingReferences) {
+        this.bookingReferences = bookingReferences;
+    }
+}
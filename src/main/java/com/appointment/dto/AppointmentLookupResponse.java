@@ -0,0 +1,35 @@
+package com.appointment.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class AppointmentLookupResponse {
+    private Map<String, AppointmentResponse> appointments;
+    private List<String> notFound;
+
+    // Default constructor
+    public AppointmentLookupResponse() {
+    }
+
+    public AppointmentLookupResponse(Map<String, AppointmentResponse> appointments, List<String> notFound) {
+        this.appointments = appointments;
+        this.notFound = notFound;
+    }
+
+    // Getters and setters
+    public Map<String, AppointmentResponse> getAppointments() {
+        return appointments;
+    }
+
+    public void setAppointments(Map<String, AppointmentResponse> appointments) {
+        this.appointments = appointments;
+    }
+
+    public List<String> getNotFound() {
+        return notFound;
+    }
+
+    public void setNotFound(List<String> notFound) {
+        this.notFound = notFound;
+    }
+}
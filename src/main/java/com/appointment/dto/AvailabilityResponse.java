@@ -0,0 +1,86 @@
+package com.appointment.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Grouped availability for one branch over a date range: the branch and each
+ * date appear once, followed by {@code [startMinute, remaining]} pairs for the
+ * open slots of that day. A slot whose length differs from the day's
+ * {@code slotMinutes} carries its own length as a third element.
+ * <p>
+ * Written by {@link AvailabilityResponseSerializer}, for JSON and CBOR alike.
+ */
+@JsonSerialize(using = AvailabilityResponseSerializer.class)
+public class AvailabilityResponse {
+    private final Long branchId;
+    private final String branchName;
+    private final LocalDate fromDate;
+    private final LocalDate toDate;
+    private final List<Day> days;
+
+    public AvailabilityResponse(Long branchId, String branchName, LocalDate fromDate, LocalDate toDate,
+                                List<Day> days) {
+        this.branchId = branchId;
+        this.branchName = branchName;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.days = days;
+    }
+
+    // Getters
+    public Long getBranchId() { return branchId; }
+
+    public String getBranchName() { return branchName; }
+
+    public LocalDate getFromDate() { return fromDate; }
+
+    public LocalDate getToDate() { return toDate; }
+
+    public List<Day> getDays() { return days; }
+
+    public int getSlotCount() {
+        int count = 0;
+        for (Day day : days) {
+            count += day.size();
+        }
+        return count;
+    }
+
+    /**
+     * One date's open slots, held as parallel arrays so serialising them
+     * walks primitives rather than objects.
+     */
+    public static class Day {
+        private final LocalDate date;
+        private final int slotMinutes;
+        private final int[] startMinutes;
+        private final int[] remaining;
+        private final int[] lengthMinutes;
+        private final int size;
+
+        public Day(LocalDate date, int slotMinutes, int[] startMinutes, int[] remaining, int[] lengthMinutes,
+                   int size) {
+            this.date = date;
+            this.slotMinutes = slotMinutes;
+            this.startMinutes = startMinutes;
+            this.remaining = remaining;
+            this.lengthMinutes = lengthMinutes;
+            this.size = size;
+        }
+
+        public LocalDate getDate() { return date; }
+
+        public int getSlotMinutes() { return slotMinutes; }
+
+        public int size() { return size; }
+
+        public int startMinute(int index) { return startMinutes[index]; }
+
+        public int remaining(int index) { return remaining[index]; }
+
+        public int lengthMinutes(int index) { return lengthMinutes[index]; }
+    }
+}
@@ -0,0 +1,78 @@
+package com.appointment.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link AvailabilityResponse} field by field with pre-encoded field
+ * names, so a calendar response costs no bean introspection and no per-slot
+ * object. Works against any generator, which is how the same serializer
+ * produces both JSON and {@code application/cbor}.
+ */
+public class AvailabilityResponseSerializer extends StdSerializer<AvailabilityResponse> {
+
+    private static final SerializedString BRANCH_ID = new SerializedString("branchId");
+    private static final SerializedString BRANCH_NAME = new SerializedString("branchName");
+    private static final SerializedString FROM_DATE = new SerializedString("fromDate");
+    private static final SerializedString TO_DATE = new SerializedString("toDate");
+    private static final SerializedString DAYS = new SerializedString("days");
+    private static final SerializedString DATE = new SerializedString("date");
+    private static final SerializedString SLOT_MINUTES = new SerializedString("slotMinutes");
+    private static final SerializedString SLOTS = new SerializedString("slots");
+
+    public AvailabilityResponseSerializer() {
+        super(AvailabilityResponse.class);
+    }
+
+    @Override
+    public void serialize(AvailabilityResponse availability, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStartObject(availability);
+        gen.writeFieldName(BRANCH_ID);
+        gen.writeNumber(availability.getBranchId());
+        if (availability.getBranchName() != null) {
+            gen.writeFieldName(BRANCH_NAME);
+            gen.writeString(availability.getBranchName());
+        }
+        gen.writeFieldName(FROM_DATE);
+        gen.writeString(availability.getFromDate().toString());
+        gen.writeFieldName(TO_DATE);
+        gen.writeString(availability.getToDate().toString());
+
+        gen.writeFieldName(DAYS);
+        gen.writeStartArray(availability.getDays(), availability.getDays().size());
+        for (AvailabilityResponse.Day day : availability.getDays()) {
+            writeDay(day, gen);
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    private static void writeDay(AvailabilityResponse.Day day, JsonGenerator gen) throws IOException {
+        gen.writeStartObject(day);
+        gen.writeFieldName(DATE);
+        gen.writeString(day.getDate().toString());
+        gen.writeFieldName(SLOT_MINUTES);
+        gen.writeNumber(day.getSlotMinutes());
+
+        gen.writeFieldName(SLOTS);
+        gen.writeStartArray(day, day.size());
+        for (int i = 0; i < day.size(); i++) {
+            int length = day.lengthMinutes(i);
+            boolean ownLength = length != day.getSlotMinutes();
+            gen.writeStartArray(null, ownLength ? 3 : 2);
+            gen.writeNumber(day.startMinute(i));
+            gen.writeNumber(day.remaining(i));
+            if (ownLength) {
+                gen.writeNumber(length);
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,65 @@
+package com.appointment.dto;
+
+import java.time.LocalDate;
+
+public class BranchClosureResponse {
+    private Long branchId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int slotsClosed;
+    private int appointmentsCancelled;
+
+    // Default constructor
+    public BranchClosureResponse() {
+    }
+
+    public BranchClosureResponse(Long branchId, LocalDate startDate, LocalDate endDate,
+                                 int slotsClosed, int appointmentsCancelled) {
+        this.branchId = branchId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.slotsClosed = slotsClosed;
+        this.appointmentsCancelled = appointmentsCancelled;
+    }
+
+    // Getters and setters
+    public Long getBranchId() {
+        return branchId;
+    }
+
+    public void setBranchId(Long branchId) {
+        this.branchId = branchId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public int getSlotsClosed() {
+        return slotsClosed;
+    }
+
+    public void setSlotsClosed(int slotsClosed) {
+        this.slotsClosed = slotsClosed;
+    }
+
+    public int getAppointmentsCancelled() {
+        return appointmentsCancelled;
+    }
+
+    public void setAppointmentsCancelled(int appointmentsCancelled) {
+        this.appointmentsCancelled = appointmentsCancelled;
+    }
+}
@@ -0,0 +1,108 @@
+package com.appointment.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CacheStatisticsResponse {
+    private long prepareStatementCount;
+    private long queryCacheHitCount;
+    private long queryCacheMissCount;
+    private List<RegionStatistics> regions = new ArrayList<>();
+
+    // Default constructor
+    public CacheStatisticsResponse() {
+    }
+
+    // Getters and setters
+    public long getPrepareStatementCount() {
+        return prepareStatementCount;
+    }
+
+    public void setPrepareStatementCount(long prepareStatementCount) {
+        this.prepareStatementCount = prepareStatementCount;
+    }
+
+    public long getQueryCacheHitCount() {
+        return queryCacheHitCount;
+    }
+
+    public void setQueryCacheHitCount(long queryCacheHitCount) {
+        this.queryCacheHitCount = queryCacheHitCount;
+    }
+
+    public long getQueryCacheMissCount() {
+        return queryCacheMissCount;
+    }
+
+    public void setQueryCacheMissCount(long queryCacheMissCount) {
+        this.queryCacheMissCount = queryCacheMissCount;
+    }
+
+    public List<RegionStatistics> getRegions() {
+        return regions;
+    }
+
+    public void setRegions(List<RegionStatistics> regions) {
+        this.regions = regions;
+    }
+
+    public static class RegionStatistics {
+        private String region;
+        private long hitCount;
+        private long missCount;
+        private long putCount;
+        private long elementCountInMemory;
+
+        // Default constructor
+        public RegionStatistics() {
+        }
+
+        public RegionStatistics(String region, long hitCount, long missCount, long putCount, long elementCountInMemory) {
+            this.region = region;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.putCount = putCount;
+            this.elementCountInMemory = elementCountInMemory;
+        }
+
+        public String getRegion() {
+            return region;
+        }
+
+        public void setRegion(String region) {
+            this.region = region;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public void setHitCount(long hitCount) {
+            this.hitCount = hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public void setMissCount(long missCount) {
+            this.missCount = missCount;
+        }
+
+        public long getPutCount() {
+            return putCount;
+        }
+
+        public void setPutCount(long putCount) {
+            this.putCount = putCount;
+        }
+
+        public long getElementCountInMemory() {
+            return elementCountInMemory;
+        }
+
+        public void setElementCountInMemory(long elementCountInMemory) {
+            this.elementCountInMemory = elementCountInMemory;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.appointment.dto;
+
+public class CalendarFeedTokenResponse {
+    private String feedUrl;
+
+    // Default constructor
+    public CalendarFeedTokenResponse() {
+    }
+
+    public CalendarFeedTokenResponse(String feedUrl) {
+        this.feedUrl = feedUrl;
+    }
+
+    // Getters and setters
+    public String getFeedUrl() {
+        return feedUrl;
+    }
+
+    public void setFeedUrl(String feedUrl) {
+        this.feedUrl = feedUrl;
+    }
+}
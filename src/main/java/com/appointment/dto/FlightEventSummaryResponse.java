@@ -0,0 +1,96 @@
+package com.appointment.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class FlightEventSummaryResponse {
+    private int minutes;
+    private List<EventSummary> events = new ArrayList<>();
+
+    // Default constructor
+    public FlightEventSummaryResponse() {
+    }
+
+    public FlightEventSummaryResponse(int minutes) {
+        this.minutes = minutes;
+    }
+
+    // Getters and setters
+    public int getMinutes() {
+        return minutes;
+    }
+
+    public void setMinutes(int minutes) {
+        this.minutes = minutes;
+    }
+
+    public List<EventSummary> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<EventSummary> events) {
+        this.events = events;
+    }
+
+    public static class EventSummary {
+        private String event;
+        private long count;
+        private double averageMillis;
+        private double maxMillis;
+        private Map<String, Long> outcomes;
+
+        // Default constructor
+        public EventSummary() {
+        }
+
+        public EventSummary(String event, long count, double averageMillis, double maxMillis,
+                            Map<String, Long> outcomes) {
+            this.event = event;
+            this.count = count;
+            this.averageMillis = averageMillis;
+            this.maxMillis = maxMillis;
+            this.outcomes = outcomes;
+        }
+
+        public String getEvent() {
+            return event;
+        }
+
+        public void setEvent(String event) {
+            this.event = event;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public double getAverageMillis() {
+            return averageMillis;
+        }
+
+        public void setAverageMillis(double averageMillis) {
+            this.averageMillis = averageMillis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        public void setMaxMillis(double maxMillis) {
+            this.maxMillis = maxMillis;
+        }
+
+        public Map<String, Long> getOutcomes() {
+            return outcomes;
+        }
+
+        public void setOutcomes(Map<String, Long> outcomes) {
+            this.outcomes = outcomes;
+        }
+    }
+}
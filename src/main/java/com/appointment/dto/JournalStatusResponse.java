@@ -0,0 +1,81 @@
+package com.appointment.dto;
+
+public class JournalStatusResponse {
+    private boolean enabled;
+    private String directory;
+    private long lastSequence;
+    private long durableSequence;
+    private long snapshotSequence;
+    private int trackedSlots;
+    private long recoveredRecords;
+    private long recoveryMillis;
+
+    // Default constructor
+    public JournalStatusResponse() {
+    }
+
+    // Getters and setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    public void setDurableSequence(long durableSequence) {
+        this.durableSequence = durableSequence;
+    }
+
+    public long getSnapshotSequence() {
+        return snapshotSequence;
+    }
+
+    public void setSnapshotSequence(long snapshotSequence) {
+        this.snapshotSequence = snapshotSequence;
+    }
+
+    public int getTrackedSlots() {
+        return trackedSlots;
+    }
+
+    public void setTrackedSlots(int trackedSlots) {
+        this.trackedSlots = trackedSlots;
+    }
+
+    public long getRecoveredRecords() {
+        return recoveredRecords;
+    }
+
+    public void setRecoveredRecords(long recoveredRecords) {
+        this.recoveredRecords = recoveredRecords;
+    }
+
+    public long getRecoveryMillis() {
+        return recoveryMillis;
+    }
+
+    public void setRecoveryMillis(long recoveryMillis) {
+        this.recoveryMillis = recoveryMillis;
+    }
+}
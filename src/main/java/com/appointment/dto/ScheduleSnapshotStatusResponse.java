@@ -0,0 +1,111 @@
+package com.appointment.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public class ScheduleSnapshotStatusResponse {
+    private boolean enabled;
+    private String path;
+    private String source;
+    private LocalDate fromDate;
+    private Instant createdAt;
+    private int slotCount;
+    private int branchCount;
+    private long fileBytes;
+    private long loadMillis;
+    private long validateMillis;
+    private long exportMillis;
+
+    // Default constructor
+    public ScheduleSnapshotStatusResponse() {
+    }
+
+    // Getters and setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    public void setSlotCount(int slotCount) {
+        this.slotCount = slotCount;
+    }
+
+    public int getBranchCount() {
+        return branchCount;
+    }
+
+    public void setBranchCount(int branchCount) {
+        this.branchCount = branchCount;
+    }
+
+    public long getFileBytes() {
+        return fileBytes;
+    }
+
+    public void setFileBytes(long fileBytes) {
+        this.fileBytes = fileBytes;
+    }
+
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    public void setLoadMillis(long loadMillis) {
+        this.loadMillis = loadMillis;
+    }
+
+    public long getValidateMillis() {
+        return validateMillis;
+    }
+
+    public void setValidateMillis(long validateMillis) {
+        this.validateMillis = validateMillis;
+    }
+
+    public long getExportMillis() {
+        return exportMillis;
+    }
+
+    public void setExportMillis(long exportMillis) {
+        this.exportMillis = exportMillis;
+    }
+}
@@ -1,13 +1,22 @@
 package com.appointment.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Check;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments",
+        indexes = {
+                @Index(name = "idx_appointments_customer_email", columnList = "customer_email"),
+                @Index(name = "idx_appointments_customer_name", columnList = "customer_name"),
+                // Covers the per-slot count and duplicate-booking checks without touching the table
+                @Index(name = "idx_appointments_slot_status_email", columnList = "time_slot_id, status, customer_email"),
+                @Index(name = "idx_appointments_created_at", columnList = "created_at")
+        })
 public class Appointment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -23,7 +32,8 @@ public class Appointment {
     private TimeSlot timeSlot;
 
     @Column(nullable = false)
-    private String status = "CONFIRMED"; // CONFIRMED, CANCELLED, COMPLETED
+    @Check(name = "ck_appointments_status", constraints = "status in (1, 2, 3)")
+    private AppointmentStatus status = AppointmentStatus.CONFIRMED;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -71,11 +81,11 @@ public class Appointment {
         this.timeSlot = timeSlot;
     }
 
-    public String getStatus() {
+    public AppointmentStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(AppointmentStatus status) {
         this.status = status;
     }
 
@@ -0,0 +1,30 @@
+package com.appointment.entity;
+
+/**
+ * Lifecycle state of an appointment. Persisted as a compact numeric code
+ * (see {@link AppointmentStatusConverter}); codes must never be reused.
+ */
+public enum AppointmentStatus {
+    CONFIRMED((short) 1),
+    CANCELLED((short) 2),
+    COMPLETED((short) 3);
+
+    private final short code;
+
+    AppointmentStatus(short code) {
+        this.code = code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public static AppointmentStatus fromCode(short code) {
+        for (AppointmentStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown appointment status code: " + code);
+    }
+}
@@ -0,0 +1,18 @@
+package com.appointment.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class AppointmentStatusConverter implements AttributeConverter<AppointmentStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(AppointmentStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public AppointmentStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : AppointmentStatus.fromCode(code);
+    }
+}
@@ -2,12 +2,17 @@ package com.appointment.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "branches")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "branch")
 public class Branch {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "branches_seq")
+    @SequenceGenerator(name = "branches_seq", sequenceName = "branches_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
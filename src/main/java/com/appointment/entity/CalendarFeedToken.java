@@ -0,0 +1,85 @@
+package com.appointment.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The secret behind a subscribable calendar URL: one per branch (staff feed)
+ * or per username (customer feed). Only a SHA-256 hash of the token is
+ * stored; rotating replaces it, which cuts off every copy of the old URL.
+ */
+@Entity
+@Table(name = "calendar_feed_tokens")
+public class CalendarFeedToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "calendar_feed_tokens_seq")
+    @SequenceGenerator(name = "calendar_feed_tokens_seq", sequenceName = "calendar_feed_tokens_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    // Exactly one of branchId and username is set
+    @Column(name = "branch_id", unique = true)
+    private Long branchId;
+
+    @Column(unique = true)
+    private String username;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public static CalendarFeedToken forBranch(Long branchId) {
+        CalendarFeedToken token = new CalendarFeedToken();
+        token.setBranchId(branchId);
+        return token;
+    }
+
+    public static CalendarFeedToken forCustomer(String username) {
+        CalendarFeedToken token = new CalendarFeedToken();
+        token.setUsername(username);
+        return token;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public Long getBranchId() {
+        return branchId;
+    }
+
+    public void setBranchId(Long branchId) {
+        this.branchId = branchId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
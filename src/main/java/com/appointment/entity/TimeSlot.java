@@ -1,15 +1,24 @@
 package com.appointment.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
 @Table(name = "time_slots",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"branch_id", "slot_date", "start_time"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"branch_id", "slot_date", "start_time"}),
+        indexes = {
+                @Index(name = "idx_time_slots_branch_date_available", columnList = "branch_id, slot_date, available"),
+                @Index(name = "idx_time_slots_slot_date", columnList = "slot_date")
+        })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "timeSlot")
 public class TimeSlot {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "time_slots_seq")
+    @SequenceGenerator(name = "time_slots_seq", sequenceName = "time_slots_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,43 @@
+package com.appointment.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Common fields of the appointment JFR events. A slot or branch id of 0 means
+ * the operation failed before it was known. Fields are protected because JFR
+ * skips private fields declared in an event superclass.
+ */
+@Category({"Appointment Booking"})
+public abstract class AppointmentFlightEvent extends Event {
+
+    @Label("Branch Id")
+    protected long branchId;
+
+    @Label("Slot Id")
+    protected long slotId;
+
+    @Label("Outcome")
+    protected String outcome;
+
+    public void setBranchId(Long branchId) {
+        this.branchId = branchId != null ? branchId : 0;
+    }
+
+    public void setSlotId(Long slotId) {
+        this.slotId = slotId != null ? slotId : 0;
+    }
+
+    public long getBranchId() {
+        return branchId;
+    }
+
+    public long getSlotId() {
+        return slotId;
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+}
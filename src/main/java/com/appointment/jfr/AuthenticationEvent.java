@@ -0,0 +1,26 @@
+package com.appointment.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JWT authentication done by {@code JwtAuthenticationFilter}, excluding the
+ * rest of the filter chain.
+ */
+@Name(AuthenticationEvent.NAME)
+@Label("JWT Authentication")
+@Description("JwtAuthenticationFilter token check and user lookup")
+@Category({"Appointment Booking"})
+public class AuthenticationEvent extends Event {
+    public static final String NAME = "com.appointment.Authentication";
+
+    @Label("Outcome")
+    private String outcome;
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+}
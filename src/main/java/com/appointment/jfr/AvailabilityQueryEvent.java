@@ -0,0 +1,19 @@
+package com.appointment.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(AvailabilityQueryEvent.NAME)
+@Label("Availability Query")
+@Description("TimeSlotService.getAvailableTimeSlots")
+public class AvailabilityQueryEvent extends AppointmentFlightEvent {
+    public static final String NAME = "com.appointment.AvailabilityQuery";
+
+    @Label("Slots Returned")
+    private int slotsReturned;
+
+    public void setSlotsReturned(int slotsReturned) {
+        this.slotsReturned = slotsReturned;
+    }
+}
@@ -0,0 +1,12 @@
+package com.appointment.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(BookingEvent.NAME)
+@Label("Booking")
+@Description("AppointmentService.createAppointment")
+public class BookingEvent extends AppointmentFlightEvent {
+    public static final String NAME = "com.appointment.Booking";
+}
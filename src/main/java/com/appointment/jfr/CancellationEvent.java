@@ -0,0 +1,12 @@
+package com.appointment.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(CancellationEvent.NAME)
+@Label("Cancellation")
+@Description("AppointmentService.cancelAppointment")
+public class CancellationEvent extends AppointmentFlightEvent {
+    public static final String NAME = "com.appointment.Cancellation";
+}
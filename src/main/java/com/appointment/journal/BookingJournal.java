@@ -0,0 +1,508 @@
+package com.appointment.journal;
+
+import com.appointment.dto.JournalStatusResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of every seat change (reserve, cancel, release) with
+ * the slot's resulting counters, plus a retirement record for each archived
+ * slot, written as fixed-size {@link JournalRecord}s
+ * into memory-mapped segment files of {@code appointment.journal.segment-records}
+ * records each.
+ * <p>
+ * Appends only copy bytes into the mapping; a flusher thread forces the
+ * segment to disk at most every {@code fsync-interval-ms}, so concurrent
+ * bookings share one fsync. With {@code sync-commit} the booking thread waits
+ * for that group fsync before returning. Changes are appended just before
+ * their transaction commits, so a booking rolled back earlier never reaches
+ * the log, and a failed append rolls the booking back rather than leave the
+ * counters short of a committed change; one whose commit fails after the
+ * append leaves a stale record, which the slot's next record supersedes.
+ * <p>
+ * {@link SlotCounters} snapshots are written every {@code snapshot-interval-ms}.
+ * On startup the newest valid snapshot is loaded and only the records after
+ * it are replayed, instead of recounting appointments in SQL. Segments are
+ * kept as the audit trail; only the two newest snapshots are.
+ */
+@Component
+public class BookingJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingJournal.class);
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int SNAPSHOTS_KEPT = 2;
+    private static final long DURABLE_WAIT_MILLIS = 5_000;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentRecords;
+    private final long fsyncIntervalMillis;
+    private final boolean syncCommit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+
+    // Guarded by lock
+    private SlotCounters counters = new SlotCounters();
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentCapacity;
+    private int segmentRecordCount;
+    private long nextSequence = 1;
+    private long durableSequence;
+
+    private volatile long snapshotSequence;
+    private volatile boolean running;
+    private Thread flusher;
+    private long recoveredRecords;
+    private long recoveryMillis;
+
+    public BookingJournal(@Value("${appointment.journal.enabled:false}") boolean enabled,
+                          @Value("${appointment.journal.directory:data/journal}") String directory,
+                          @Value("${appointment.journal.segment-records:1048576}") int segmentRecords,
+                          @Value("${appointment.journal.fsync-interval-ms:5}") long fsyncIntervalMillis,
+                          @Value("${appointment.journal.sync-commit:true}") boolean syncCommit) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentRecords = segmentRecords;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.syncCommit = syncCommit;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        long startedAt = System.nanoTime();
+        lock.lock();
+        try {
+            recover();
+        } finally {
+            lock.unlock();
+        }
+        recoveryMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        log.info("Booking journal recovered in {} ms: {} slots from snapshot {} + {} replayed records, next sequence {}",
+                recoveryMillis, counters.size(), snapshotSequence, recoveredRecords, nextSequence);
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        lock.lock();
+        try {
+            pending.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+        snapshot();
+        lock.lock();
+        try {
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Journals a seat change as part of the surrounding transaction (or
+     * straight away outside one). Records are appended just before commit,
+     * while the transaction still holds the slot's row lock, so the journal
+     * order for a slot matches the database's; the wait for the group fsync
+     * happens after commit, once per transaction. A failed append is thrown
+     * from {@code beforeCommit}, so the transaction rolls back instead of
+     * committing a change the journal never saw. If the commit itself then
+     * fails, the slot's next record carries the correct absolute count again.
+     */
+    public void record(JournalRecord.Type type, long slotId, long appointmentId,
+                       int bookedAfter, int capacity, boolean available) {
+        if (!enabled) {
+            return;
+        }
+        PendingChange change = new PendingChange(type, slotId, appointmentId, bookedAfter, capacity, available);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            awaitDurable(appendAll(List.of(change)));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<PendingChange> pendingChanges = (List<PendingChange>) TransactionSynchronizationManager.getResource(this);
+        if (pendingChanges == null) {
+            List<PendingChange> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private long lastSequence;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    lastSequence = appendAll(changes);
+                }
+
+                @Override
+                public void afterCommit() {
+                    awaitDurable(lastSequence);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BookingJournal.this);
+                }
+            });
+            pendingChanges = changes;
+        }
+        pendingChanges.add(change);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public SlotCounters.SlotState slotState(long slotId) {
+        lock.lock();
+        try {
+            return counters.get(slotId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public JournalStatusResponse status() {
+        JournalStatusResponse status = new JournalStatusResponse();
+        status.setEnabled(enabled);
+        if (!enabled) {
+            return status;
+        }
+        lock.lock();
+        try {
+            status.setDirectory(directory.toAbsolutePath().toString());
+            status.setLastSequence(nextSequence - 1);
+            status.setDurableSequence(durableSequence);
+            status.setTrackedSlots(counters.size());
+        } finally {
+            lock.unlock();
+        }
+        status.setSnapshotSequence(snapshotSequence);
+        status.setRecoveredRecords(recoveredRecords);
+        status.setRecoveryMillis(recoveryMillis);
+        return status;
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.journal.snapshot-interval-ms:60000}",
+            initialDelayString = "${appointment.journal.snapshot-interval-ms:60000}")
+    public void snapshotScheduled() {
+        if (!running) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (IOException e) {
+            log.error("Booking journal snapshot failed", e);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the current counters. The journal is forced first,
+     * so a snapshot never covers records that could still be lost.
+     */
+    public void snapshot() throws IOException {
+        SlotCounters copy;
+        lock.lock();
+        try {
+            copy = counters.copy();
+        } finally {
+            lock.unlock();
+        }
+        if (copy.getLastSequence() == snapshotSequence) {
+            return;
+        }
+        flush();
+        copy.writeSnapshot(directory.resolve(fileName(SNAPSHOT_PREFIX, copy.getLastSequence(), SNAPSHOT_SUFFIX)));
+        snapshotSequence = copy.getLastSequence();
+
+        List<Path> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        for (int i = 0; i < snapshots.size() - SNAPSHOTS_KEPT; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+        log.debug("Booking journal snapshot at sequence {} ({} slots)", copy.getLastSequence(), copy.size());
+    }
+
+    /**
+     * Appends the changes and returns the last sequence written.
+     */
+    private long appendAll(List<PendingChange> changes) {
+        try {
+            long sequence = 0;
+            for (PendingChange change : changes) {
+                sequence = append(change);
+            }
+            return sequence;
+        } catch (RuntimeException e) {
+            log.error("Booking journal append failed for {} changes starting at slot {}",
+                    changes.size(), changes.get(0).slotId, e);
+            throw e;
+        }
+    }
+
+    private long append(PendingChange change) {
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Booking journal is closed");
+            }
+            if (segmentRecordCount == segmentCapacity) {
+                rollSegment();
+            }
+            JournalRecord record = new JournalRecord(nextSequence++, System.currentTimeMillis(), change.type,
+                    change.slotId, change.appointmentId, change.bookedAfter, change.capacity, change.available);
+            segment.put(segmentRecordCount * JournalRecord.SIZE, record.encode());
+            segmentRecordCount++;
+            counters.apply(record);
+            pending.signal();
+            return record.getSequence();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        if (!syncCommit || sequence == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURABLE_WAIT_MILLIS);
+            while (durableSequence < sequence) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    log.warn("Booking journal record {} not forced to disk within {} ms", sequence, DURABLE_WAIT_MILLIS);
+                    return;
+                }
+                durable.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            lock.lock();
+            try {
+                while (running && nextSequence - 1 == durableSequence) {
+                    pending.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                // Group window: every append in the next interval shares this fsync
+                Thread.sleep(fsyncIntervalMillis);
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Booking journal fsync failed", e);
+            }
+        }
+        flush();
+    }
+
+    private void flush() {
+        MappedByteBuffer buffer;
+        long target;
+        lock.lock();
+        try {
+            target = nextSequence - 1;
+            if (target == durableSequence) {
+                return;
+            }
+            buffer = segment;
+        } finally {
+            lock.unlock();
+        }
+        // Forced outside the lock so bookings keep appending while the disk catches up
+        buffer.force();
+        lock.lock();
+        try {
+            durableSequence = Math.max(durableSequence, target);
+            durable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        segment.force();
+        channel.close();
+        durableSequence = nextSequence - 1;
+        durable.signalAll();
+        openSegment(directory.resolve(fileName(SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX)), 0);
+    }
+
+    private void openSegment(Path file, int existingRecords) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long bytes = Math.max(channel.size(), (long) segmentRecords * JournalRecord.SIZE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        segmentCapacity = (int) (bytes / JournalRecord.SIZE);
+        segmentRecordCount = existingRecords;
+    }
+
+    private void recover() throws IOException {
+        List<Path> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            SlotCounters snapshot = SlotCounters.readSnapshot(snapshots.get(i));
+            if (snapshot != null) {
+                counters = snapshot;
+                snapshotSequence = snapshot.getLastSequence();
+                break;
+            }
+            log.warn("Ignoring corrupt journal snapshot {}", snapshots.get(i));
+        }
+
+        long lastSequence = counters.getLastSequence();
+        List<Path> segments = list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        Path tail = null;
+        int tailRecords = 0;
+        boolean tornTail = false;
+        for (int i = 0; i < segments.size(); i++) {
+            Path file = segments.get(i);
+            long firstSequence = sequenceOf(file);
+            boolean last = i == segments.size() - 1;
+            if (!last && sequenceOf(segments.get(i + 1)) <= lastSequence + 1) {
+                continue; // Entirely covered by the snapshot
+            }
+            int records = 0;
+            try (FileChannel segmentChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = segmentChannel.map(FileChannel.MapMode.READ_ONLY, 0, segmentChannel.size());
+                for (int offset = 0; offset + JournalRecord.SIZE <= buffer.capacity(); offset += JournalRecord.SIZE) {
+                    JournalRecord record = JournalRecord.decode(buffer, offset);
+                    if (record == null || record.getSequence() != firstSequence + records) {
+                        if (!isBlank(buffer, offset)) {
+                            log.warn("Journal segment {} ends in a torn record at offset {}", file, offset);
+                            tornTail = last;
+                        }
+                        break;
+                    }
+                    records++;
+                    if (record.getSequence() > lastSequence) {
+                        counters.apply(record);
+                        lastSequence = record.getSequence();
+                        recoveredRecords++;
+                    }
+                }
+            }
+            if (last) {
+                tail = file;
+                tailRecords = records;
+            }
+        }
+
+        nextSequence = lastSequence + 1;
+        durableSequence = lastSequence;
+        if (tail != null && sequenceOf(tail) + tailRecords == nextSequence) {
+            openSegment(tail, tailRecords);
+            if (tornTail) {
+                // Clear whatever a torn write left behind so it cannot be mistaken for a record later
+                segment.put(segmentRecordCount * JournalRecord.SIZE,
+                        new byte[(segmentCapacity - segmentRecordCount) * JournalRecord.SIZE]);
+                segment.force();
+            }
+        } else {
+            openSegment(directory.resolve(fileName(SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX)), 0);
+        }
+    }
+
+    private static boolean isBlank(MappedByteBuffer buffer, int offset) {
+        for (int i = offset; i < offset + JournalRecord.SIZE; i++) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)
+                            && file.getFileName().toString().endsWith(suffix))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-') + 1, name.lastIndexOf('.')));
+    }
+
+    private static String fileName(String prefix, long sequence, String suffix) {
+        return String.format("%s%020d%s", prefix, sequence, suffix);
+    }
+
+    /**
+     * A seat change waiting for its transaction to commit.
+     */
+    private static final class PendingChange {
+        private final JournalRecord.Type type;
+        private final long slotId;
+        private final long appointmentId;
+        private final int bookedAfter;
+        private final int capacity;
+        private final boolean available;
+
+        private PendingChange(JournalRecord.Type type, long slotId, long appointmentId,
+                              int bookedAfter, int capacity, boolean available) {
+            this.type = type;
+            this.slotId = slotId;
+            this.appointmentId = appointmentId;
+            this.bookedAfter = bookedAfter;
+            this.capacity = capacity;
+            this.available = available;
+        }
+    }
+}
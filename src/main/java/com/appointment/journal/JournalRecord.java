@@ -0,0 +1,127 @@
+package com.appointment.journal;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * One seat change in the booking journal, stored as a fixed-size 48-byte
+ * record so a segment can be scanned by offset and a torn write at the tail
+ * is caught by the trailing CRC32:
+ * <pre>
+ *  0  sequence       long   (1-based; 0 marks unwritten space)
+ *  8  timestamp      long   epoch millis
+ * 16  slotId         long
+ * 24  appointmentId  long   (0 when not tied to one appointment)
+ * 32  bookedAfter    int    slot's booked count after the change
+ * 36  capacity       int    (-1 when unchanged/unknown)
+ * 40  type           byte
+ * 41  available      byte
+ * 42  reserved       2 bytes
+ * 44  crc32          int    over bytes 0-43
+ * </pre>
+ * Records carry absolute counts rather than deltas, so replaying the latest
+ * record for a slot is enough to restore it.
+ */
+public final class JournalRecord {
+
+    public static final int SIZE = 48;
+    private static final int CRC_OFFSET = 44;
+
+    public enum Type {
+        // ARCHIVE retires a slot moved out of the live tables; it carries no counts
+        RESERVE, RELEASE, CANCEL, ARCHIVE
+    }
+
+    private final long sequence;
+    private final long timestamp;
+    private final Type type;
+    private final long slotId;
+    private final long appointmentId;
+    private final int bookedAfter;
+    private final int capacity;
+    private final boolean available;
+
+    public JournalRecord(long sequence, long timestamp, Type type, long slotId, long appointmentId,
+                         int bookedAfter, int capacity, boolean available) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.slotId = slotId;
+        this.appointmentId = appointmentId;
+        this.bookedAfter = bookedAfter;
+        this.capacity = capacity;
+        this.available = available;
+    }
+
+    public byte[] encode() {
+        byte[] bytes = new byte[SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.putLong(0, sequence);
+        buffer.putLong(8, timestamp);
+        buffer.putLong(16, slotId);
+        buffer.putLong(24, appointmentId);
+        buffer.putInt(32, bookedAfter);
+        buffer.putInt(36, capacity);
+        buffer.put(40, (byte) type.ordinal());
+        buffer.put(41, (byte) (available ? 1 : 0));
+        buffer.putInt(CRC_OFFSET, crc(bytes));
+        return bytes;
+    }
+
+    /**
+     * Decodes the record at {@code offset}, or returns null for unwritten space
+     * or a record whose checksum does not match (a write torn by a crash).
+     */
+    public static JournalRecord decode(ByteBuffer buffer, int offset) {
+        byte[] bytes = new byte[SIZE];
+        buffer.get(offset, bytes);
+        ByteBuffer record = ByteBuffer.wrap(bytes);
+        long sequence = record.getLong(0);
+        int typeOrdinal = record.get(40);
+        if (sequence == 0 || record.getInt(CRC_OFFSET) != crc(bytes)
+                || typeOrdinal < 0 || typeOrdinal >= Type.values().length) {
+            return null;
+        }
+        return new JournalRecord(sequence, record.getLong(8), Type.values()[typeOrdinal], record.getLong(16),
+                record.getLong(24), record.getInt(32), record.getInt(36), record.get(41) == 1);
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, CRC_OFFSET);
+        return (int) crc.getValue();
+    }
+
+    // Getters
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getSlotId() {
+        return slotId;
+    }
+
+    public long getAppointmentId() {
+        return appointmentId;
+    }
+
+    public int getBookedAfter() {
+        return bookedAfter;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+}
@@ -0,0 +1,154 @@
+package com.appointment.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * In-memory booked count, capacity and availability per slot, as rebuilt from
+ * the journal. Slots retired by an {@code ARCHIVE} record are dropped, so the
+ * map and its snapshots only cover the live tables. Not thread-safe;
+ * {@link BookingJournal} guards it with its append lock.
+ * <p>
+ * Snapshot layout: magic, version, last applied sequence, entry count, then
+ * 17 bytes per slot (id, booked, capacity, available) and a CRC32 of
+ * everything before it.
+ */
+public class SlotCounters {
+
+    private static final int MAGIC = 0x424A534E; // "BJSN"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+    private static final int ENTRY_SIZE = 17;
+
+    private final Map<Long, SlotState> slots = new HashMap<>();
+    private long lastSequence;
+
+    public void apply(JournalRecord record) {
+        lastSequence = record.getSequence();
+        if (record.getType() == JournalRecord.Type.ARCHIVE) {
+            slots.remove(record.getSlotId());
+            return;
+        }
+        SlotState previous = slots.get(record.getSlotId());
+        int capacity = record.getCapacity() >= 0 ? record.getCapacity()
+                : previous != null ? previous.getCapacity() : -1;
+        slots.put(record.getSlotId(), new SlotState(record.getBookedAfter(), capacity, record.isAvailable()));
+    }
+
+    public SlotState get(long slotId) {
+        return slots.get(slotId);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public SlotCounters copy() {
+        SlotCounters copy = new SlotCounters();
+        copy.slots.putAll(slots);
+        copy.lastSequence = lastSequence;
+        return copy;
+    }
+
+    /**
+     * Writes the snapshot to a temporary file, forces it to disk and then
+     * renames it into place, so a crash never leaves a half-written snapshot
+     * under the final name.
+     */
+    public void writeSnapshot(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + slots.size() * ENTRY_SIZE + Integer.BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(lastSequence).putInt(slots.size());
+        for (Map.Entry<Long, SlotState> entry : slots.entrySet()) {
+            SlotState state = entry.getValue();
+            buffer.putLong(entry.getKey())
+                    .putInt(state.getBooked())
+                    .putInt(state.getCapacity())
+                    .put((byte) (state.isAvailable() ? 1 : 0));
+        }
+        buffer.putInt(crc(buffer.array(), buffer.position()));
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Reads a snapshot, or returns null if the file is truncated or corrupt.
+     */
+    public static SlotCounters readSnapshot(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < HEADER_SIZE + Integer.BYTES) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+        }
+        SlotCounters counters = new SlotCounters();
+        counters.lastSequence = buffer.getLong();
+        int count = buffer.getInt();
+        int crcOffset = HEADER_SIZE + count * ENTRY_SIZE;
+        if (count < 0 || bytes.length != crcOffset + Integer.BYTES
+                || buffer.getInt(crcOffset) != crc(bytes, crcOffset)) {
+            return null;
+        }
+        for (int i = 0; i < count; i++) {
+            long slotId = buffer.getLong();
+            counters.slots.put(slotId, new SlotState(buffer.getInt(), buffer.getInt(), buffer.get() == 1));
+        }
+        return counters;
+    }
+
+    private static int crc(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * A slot's counters as of the last journal record applied to it.
+     */
+    public static final class SlotState {
+        private final int booked;
+        private final int capacity;
+        private final boolean available;
+
+        public SlotState(int booked, int capacity, boolean available) {
+            this.booked = booked;
+            this.capacity = capacity;
+            this.available = available;
+        }
+
+        // Getters
+        public int getBooked() {
+            return booked;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+    }
+}
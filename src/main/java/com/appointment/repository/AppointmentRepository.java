@@ -1,18 +1,26 @@
 package com.appointment.repository;
 
 import com.appointment.entity.Appointment;
+import com.appointment.shard.ShardKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
-    Optional<Appointment> findByBookingReference(String bookingReference);
+    Optional<Appointment> findByBookingReference(@ShardKey(ShardKey.Type.BOOKING_REFERENCE) String bookingReference);
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.timeSlot ts JOIN FETCH ts.branch " +
+            "WHERE a.bookingReference IN :bookingReferences")
+    List<Appointment> findWithTimeSlotAndBranchByBookingReferenceIn(
+            @Param("bookingReferences") Collection<String> bookingReferences);
 
     @Query("SELECT a FROM Appointment a WHERE a.customerName = :username ORDER BY a.timeSlot.slotDate ASC, a.timeSlot.startTime ASC")
     List<Appointment> findByUsernameOrderBySlotDateAndStartTime(@Param("username") String username);
@@ -21,14 +29,40 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
     List<Appointment> findByCustomerEmail(String customerEmail);
 
-    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.timeSlot.id = :timeSlotId AND a.status != 'CANCELLED'")
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.timeSlot.id = :timeSlotId " +
+            "AND a.status != com.appointment.entity.AppointmentStatus.CANCELLED")
     int countConfirmedAppointmentsByTimeSlot(@Param("timeSlotId") Long timeSlotId);
 
-    @Query("SELECT a FROM Appointment a JOIN a.timeSlot ts WHERE ts.branch.id = :branchId AND a.status = 'CONFIRMED'")
-    List<Appointment> findConfirmedAppointmentsByBranchId(@Param("branchId") Long branchId);
+    @Query("SELECT a FROM Appointment a JOIN a.timeSlot ts WHERE ts.branch.id = :branchId " +
+            "AND a.status = com.appointment.entity.AppointmentStatus.CONFIRMED")
+    List<Appointment> findConfirmedAppointmentsByBranchId(@ShardKey @Param("branchId") Long branchId);
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.timeSlot ts JOIN FETCH ts.branch b WHERE b.id = :branchId " +
+            "AND a.status = com.appointment.entity.AppointmentStatus.CONFIRMED")
+    List<Appointment> findConfirmedWithTimeSlotAndBranchByBranchId(@ShardKey @Param("branchId") Long branchId);
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.timeSlot ts JOIN FETCH ts.branch WHERE a.customerName = :username " +
+            "AND a.status = com.appointment.entity.AppointmentStatus.CONFIRMED")
+    List<Appointment> findConfirmedWithTimeSlotAndBranchByUsername(@Param("username") String username);
 
     @Query("SELECT COUNT(a) > 0 FROM Appointment a WHERE a.timeSlot.id = :timeSlotId " +
-            "AND a.customerEmail = :customerEmail AND a.status = 'CONFIRMED'")
+            "AND a.status = com.appointment.entity.AppointmentStatus.CONFIRMED AND a.customerEmail = :customerEmail")
     boolean existsByTimeSlotIdAndCustomerEmail(@Param("timeSlotId") Long timeSlotId,
                                                @Param("customerEmail") String customerEmail);
+
+    @Query("SELECT a.id FROM Appointment a WHERE a.timeSlot.id IN :timeSlotIds " +
+            "AND a.status = com.appointment.entity.AppointmentStatus.CONFIRMED ORDER BY a.id")
+    List<Long> findConfirmedIdsByTimeSlotIds(@Param("timeSlotIds") Collection<Long> timeSlotIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = com.appointment.entity.AppointmentStatus.CANCELLED " +
+            "WHERE a.id IN :ids AND a.status = com.appointment.entity.AppointmentStatus.CONFIRMED")
+    int cancelConfirmedByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.timeSlot ts JOIN FETCH ts.branch WHERE a.id IN :ids")
+    List<Appointment> findWithTimeSlotAndBranchByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Appointment a WHERE a.timeSlot.id IN :timeSlotIds")
+    int deleteByTimeSlotIds(@Param("timeSlotIds") Collection<Long> timeSlotIds);
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.appointment.repository;
+
+import com.appointment.entity.ArchivedAppointment;
+import com.appointment.shard.ShardKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long> {
+
+    Optional<ArchivedAppointment> findByBookingReference(
+            @ShardKey(ShardKey.Type.BOOKING_REFERENCE) String bookingReference);
+
+    List<ArchivedAppointment> findByBookingReferenceIn(Collection<String> bookingReferences);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO appointments_archive (id, booking_reference, customer_name, customer_email, " +
+            "customer_phone, status, created_at, time_slot_id, branch_id, branch_name, branch_address, " +
+            "slot_date, start_time, end_time, archived_at) " +
+            "SELECT a.id, a.booking_reference, a.customer_name, a.customer_email, a.customer_phone, a.status, " +
+            "a.created_at, ts.id, b.id, b.name, b.address, ts.slot_date, ts.start_time, ts.end_time, :archivedAt " +
+            "FROM appointments a JOIN time_slots ts ON ts.id = a.time_slot_id JOIN branches b ON b.id = ts.branch_id " +
+            "WHERE a.time_slot_id IN (:timeSlotIds)", nativeQuery = true)
+    int copyAppointmentsForTimeSlots(@Param("timeSlotIds") Collection<Long> timeSlotIds,
+                                     @Param("archivedAt") LocalDateTime archivedAt);
+}
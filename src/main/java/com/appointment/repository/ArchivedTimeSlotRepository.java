@@ -0,0 +1,23 @@
+package com.appointment.repository;
+
+import com.appointment.entity.ArchivedTimeSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface ArchivedTimeSlotRepository extends JpaRepository<ArchivedTimeSlot, Long> {
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO time_slots_archive (id, branch_id, slot_date, start_time, end_time, " +
+            "capacity, booked_count, archived_at) " +
+            "SELECT ts.id, ts.branch_id, ts.slot_date, ts.start_time, ts.end_time, ts.capacity, ts.booked_count, " +
+            ":archivedAt FROM time_slots ts WHERE ts.id IN (:timeSlotIds)", nativeQuery = true)
+    int copyTimeSlots(@Param("timeSlotIds") Collection<Long> timeSlotIds,
+                      @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -1,10 +1,19 @@
 package com.appointment.repository;
 
 import com.appointment.entity.Branch;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface BranchRepository extends JpaRepository<Branch, Long> {
 
+    // Served from the query cache; invalidated automatically when the branches table changes
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Branch> findAll();
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.appointment.repository;
+
+import com.appointment.entity.CalendarFeedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CalendarFeedTokenRepository extends JpaRepository<CalendarFeedToken, Long> {
+    Optional<CalendarFeedToken> findByTokenHash(String tokenHash);
+    Optional<CalendarFeedToken> findByBranchId(Long branchId);
+    Optional<CalendarFeedToken> findByUsername(String username);
+}
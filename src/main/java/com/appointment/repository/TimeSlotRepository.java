@@ -1,36 +1,86 @@
 package com.appointment.repository;
 
 import com.appointment.entity.TimeSlot;
+import com.appointment.shard.ShardKey;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
-    List<TimeSlot> findByBranchIdAndSlotDateAndAvailableTrue(Long branchId, LocalDate slotDate);
+    // Explicit JPQL: the derived form joins branches and filters on b.id, which hides the FK from the index
+    @Query("SELECT ts FROM TimeSlot ts WHERE ts.branch.id = :branchId AND ts.slotDate = :slotDate " +
+            "AND ts.available = true")
+    List<TimeSlot> findByBranchIdAndSlotDateAndAvailableTrue(@ShardKey @Param("branchId") Long branchId,
+                                                             @Param("slotDate") LocalDate slotDate);
 
+    // Row-locks the slot so concurrent bookings serialise on the capacity check
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT ts FROM TimeSlot ts WHERE ts.branch.id = :branchId AND ts.slotDate = :slotDate " +
             "AND ts.startTime = :startTime AND ts.available = true")
-    Optional<TimeSlot> findAvailableSlot(@Param("branchId") Long branchId,
+    Optional<TimeSlot> findAvailableSlot(@ShardKey @Param("branchId") Long branchId,
                                          @Param("slotDate") LocalDate slotDate,
                                          @Param("startTime") LocalTime startTime);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ts FROM TimeSlot ts WHERE ts.id = :id")
+    Optional<TimeSlot> findByIdForUpdate(@Param("id") Long id);
+
+    // Locks a closure chunk in id order, so two closures over overlapping ranges cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ts FROM TimeSlot ts WHERE ts.id IN :timeSlotIds ORDER BY ts.id")
+    List<TimeSlot> findAllByIdForUpdate(@Param("timeSlotIds") Collection<Long> timeSlotIds);
+
     @Query("SELECT COUNT(a) > 0 FROM Appointment a WHERE a.timeSlot.id = :timeSlotId " +
-            "AND a.customerEmail = :customerEmail AND a.status = 'CONFIRMED'")
+            "AND a.status = com.appointment.entity.AppointmentStatus.CONFIRMED AND a.customerEmail = :customerEmail")
     boolean existsByTimeSlotAndCustomerEmail(@Param("timeSlotId") Long timeSlotId,
                                              @Param("customerEmail") String customerEmail);
 
     @Query("SELECT ts FROM TimeSlot ts WHERE ts.branch.id = :branchId AND ts.slotDate >= :startDate " +
             "AND ts.slotDate <= :endDate ORDER BY ts.slotDate, ts.startTime")
-    List<TimeSlot> findSlotsByBranchAndDateRange(@Param("branchId") Long branchId,
+    List<TimeSlot> findSlotsByBranchAndDateRange(@ShardKey @Param("branchId") Long branchId,
                                                  @Param("startDate") LocalDate startDate,
                                                  @Param("endDate") LocalDate endDate);
 
-    List<TimeSlot> findByBranchIdAndSlotDate(Long branchId, LocalDate slotDate);
+    @Query("SELECT ts FROM TimeSlot ts WHERE ts.branch.id = :branchId AND ts.slotDate >= :startDate " +
+            "AND ts.slotDate <= :endDate AND ts.available = true ORDER BY ts.slotDate, ts.startTime")
+    List<TimeSlot> findAvailableSlotsByBranchAndDateRange(@ShardKey @Param("branchId") Long branchId,
+                                                          @Param("startDate") LocalDate startDate,
+                                                          @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT ts FROM TimeSlot ts WHERE ts.branch.id = :branchId AND ts.slotDate = :slotDate")
+    List<TimeSlot> findByBranchIdAndSlotDate(@ShardKey @Param("branchId") Long branchId,
+                                             @Param("slotDate") LocalDate slotDate);
+
+    @Query("SELECT ts.id FROM TimeSlot ts WHERE ts.branch.id = :branchId AND ts.slotDate >= :startDate " +
+            "AND ts.slotDate <= :endDate ORDER BY ts.id")
+    List<Long> findSlotIdsByBranchAndDateRange(@ShardKey @Param("branchId") Long branchId,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+
+    // Recounts non-cancelled appointments and closes the slots in a single set-based statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TimeSlot ts SET ts.bookedCount = (SELECT COUNT(a) FROM Appointment a " +
+            "WHERE a.timeSlot.id = ts.id AND a.status != com.appointment.entity.AppointmentStatus.CANCELLED), " +
+            "ts.available = false " +
+            "WHERE ts.id IN :timeSlotIds")
+    int recountAndCloseSlots(@Param("timeSlotIds") Collection<Long> timeSlotIds);
+
+    @Query("SELECT ts.id FROM TimeSlot ts WHERE ts.slotDate < :cutoff")
+    List<Long> findSlotIdsBefore(@Param("cutoff") LocalDate cutoff, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TimeSlot ts WHERE ts.id IN :timeSlotIds")
+    int deleteByIds(@Param("timeSlotIds") Collection<Long> timeSlotIds);
 }
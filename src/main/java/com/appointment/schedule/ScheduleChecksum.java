@@ -0,0 +1,86 @@
+package com.appointment.schedule;
+
+import java.util.Objects;
+
+/**
+ * Order-independent fingerprint of a set of slots: how many there are and
+ * the sum of a per-row hash of each slot's id, capacity, booked count and
+ * availability. The hash squares a linear mix of the columns modulo a prime,
+ * so offsetting changes on different slots (a booking on one, a cancellation
+ * on another) do not cancel out the way plain column sums would. It is cheap
+ * to compute both while writing a {@link ScheduleSnapshot} ({@link #rowHash})
+ * and with one aggregate query ({@link #ROW_MIX_SQL}), so a snapshot can be
+ * checked against the database before it is trusted. Checksums of disjoint
+ * sets (e.g. one per shard) add up.
+ */
+public final class ScheduleChecksum {
+
+    // Prime modulus and factors below 2^30: every intermediate product fits a signed 64-bit integer
+    public static final long MODULUS = 2_147_483_647L;
+    private static final long ID_FACTOR = 625_341_585L;
+    private static final long CAPACITY_FACTOR = 461_845_907L;
+    private static final long BOOKED_FACTOR = 1_013_904_242L;
+    private static final long AVAILABLE_FACTOR = 668_265_263L;
+    private static final long OFFSET = 374_761_393L;
+
+    /**
+     * The linear mix of {@link #rowHash} over {@code time_slots} columns, in
+     * portable SQL; square it modulo {@link #MODULUS} to get the row hash. The
+     * casts keep every product in BIGINT, as some databases type MOD by its
+     * divisor.
+     */
+    public static final String ROW_MIX_SQL = "CAST(MOD(CAST(MOD(id, " + MODULUS + ") AS BIGINT) * " + ID_FACTOR
+            + " + CAST(capacity AS BIGINT) * " + CAPACITY_FACTOR
+            + " + CAST(booked_count AS BIGINT) * " + BOOKED_FACTOR
+            + " + CASE WHEN available THEN " + AVAILABLE_FACTOR + " ELSE 0 END + " + OFFSET + ", " + MODULUS
+            + ") AS BIGINT)";
+
+    private final long slotCount;
+    private final long rowHashSum;
+
+    public ScheduleChecksum(long slotCount, long rowHashSum) {
+        this.slotCount = slotCount;
+        this.rowHashSum = rowHashSum;
+    }
+
+    public static long rowHash(long slotId, int capacity, int bookedCount, boolean available) {
+        long mix = (Math.floorMod(slotId, MODULUS) * ID_FACTOR + capacity * CAPACITY_FACTOR
+                + bookedCount * BOOKED_FACTOR + (available ? AVAILABLE_FACTOR : 0) + OFFSET) % MODULUS;
+        return mix * mix % MODULUS;
+    }
+
+    // Getters
+    public long getSlotCount() {
+        return slotCount;
+    }
+
+    public long getRowHashSum() {
+        return rowHashSum;
+    }
+
+    public ScheduleChecksum plus(ScheduleChecksum other) {
+        return new ScheduleChecksum(slotCount + other.slotCount, rowHashSum + other.rowHashSum);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ScheduleChecksum)) {
+            return false;
+        }
+        ScheduleChecksum that = (ScheduleChecksum) o;
+        return slotCount == that.slotCount && rowHashSum == that.rowHashSum;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(slotCount, rowHashSum);
+    }
+
+    @Override
+    public String toString() {
+        return "slots=" + slotCount + " rowHashSum=" + rowHashSum;
+    }
+}
@@ -0,0 +1,476 @@
+package com.appointment.schedule;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only, memory-mapped view of the future schedule: every slot from
+ * {@link #getFromDate()} on with its branch, date, times, capacity, booked
+ * count and availability. Opening a snapshot maps the file and checks its
+ * CRC; slot fields are read straight out of the mapping through typed buffer
+ * views, so nothing is copied onto the heap however many slots there are.
+ * <p>
+ * The file is columnar and little-endian. An 80-byte header (magic, version,
+ * creation time, base date, slot and branch counts, the
+ * {@link ScheduleChecksum} and a CRC32 of the rest of the file) is followed
+ * by one primitive array per column, each 8-byte aligned: branch ids, each
+ * branch's lowest slot id, each branch's first slot index, then per slot the
+ * id as an int delta from its branch's lowest id, the date as a short day
+ * delta from the base date, start minute of day, length in minutes,
+ * capacity, booked count and an available flag. That is 19 bytes per slot.
+ * Slots are ordered by branch, date and start time, so a branch's day is one
+ * contiguous, binary-searchable range. Ids are delta-encoded per branch
+ * because a branch's slots all come from one shard, while the id blocks of
+ * different shards are far more than 2^32 apart.
+ */
+public final class ScheduleSnapshot {
+
+    private static final int MAGIC = 0x53434844; // "SCHD"
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 80;
+    private static final int CRC_OFFSET = 72;
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private final MappedByteBuffer buffer;
+    private final int slotCount;
+    private final int branchCount;
+    private final LocalDate fromDate;
+    private final int baseEpochDay;
+    private final LongBuffer branchIds;
+    private final LongBuffer branchBaseIds;
+    private final IntBuffer branchStarts;
+    private final IntBuffer slotIdDeltas;
+    private final ShortBuffer dayDeltas;
+    private final ShortBuffer startMinutes;
+    private final ShortBuffer lengthMinutes;
+    private final IntBuffer capacities;
+    private final IntBuffer bookedCounts;
+    private final ByteBuffer availableFlags;
+
+    private ScheduleSnapshot(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.baseEpochDay = buffer.getInt(16);
+        this.slotCount = buffer.getInt(20);
+        this.branchCount = buffer.getInt(24);
+        this.fromDate = LocalDate.ofEpochDay(baseEpochDay);
+
+        Layout layout = new Layout(slotCount, branchCount);
+        this.branchIds = column(layout.branchIds, branchCount * Long.BYTES).asLongBuffer();
+        this.branchBaseIds = column(layout.branchBaseIds, branchCount * Long.BYTES).asLongBuffer();
+        this.branchStarts = column(layout.branchStarts, (branchCount + 1) * Integer.BYTES).asIntBuffer();
+        this.slotIdDeltas = column(layout.slotIdDeltas, slotCount * Integer.BYTES).asIntBuffer();
+        this.dayDeltas = column(layout.dayDeltas, slotCount * Short.BYTES).asShortBuffer();
+        this.startMinutes = column(layout.startMinutes, slotCount * Short.BYTES).asShortBuffer();
+        this.lengthMinutes = column(layout.lengthMinutes, slotCount * Short.BYTES).asShortBuffer();
+        this.capacities = column(layout.capacities, slotCount * Integer.BYTES).asIntBuffer();
+        this.bookedCounts = column(layout.bookedCounts, slotCount * Integer.BYTES).asIntBuffer();
+        this.availableFlags = column(layout.availableFlags, slotCount);
+    }
+
+    /**
+     * Maps a snapshot file, or returns null if it is truncated, from another
+     * format version or fails its CRC.
+     */
+    public static ScheduleSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ORDER);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return null;
+            }
+            int slots = buffer.getInt(20);
+            int branches = buffer.getInt(24);
+            if (slots < 0 || branches < 0 || size != new Layout(slots, branches).size
+                    || buffer.getInt(CRC_OFFSET) != crc(buffer)) {
+                return null;
+            }
+            return new ScheduleSnapshot(buffer);
+        }
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    public int getBranchCount() {
+        return branchCount;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public Instant getCreatedAt() {
+        return Instant.ofEpochMilli(buffer.getLong(8));
+    }
+
+    public long getFileSize() {
+        return buffer.capacity();
+    }
+
+    public ScheduleChecksum getChecksum() {
+        return new ScheduleChecksum(slotCount, buffer.getLong(40));
+    }
+
+    /**
+     * Index of the slot starting at {@code startTime} on {@code date} at the
+     * branch, or -1 if the snapshot has no such slot.
+     */
+    public int indexOf(long branchId, LocalDate date, LocalTime startTime) {
+        int branch = branchIndex(branchId);
+        if (branch < 0) {
+            return -1;
+        }
+        int key = sortKey(date.toEpochDay() - baseEpochDay, startTime.getHour() * 60 + startTime.getMinute());
+        int low = branchStarts.get(branch);
+        int high = branchStarts.get(branch + 1) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midKey = sortKey(dayDeltas.get(mid), startMinutes.get(mid));
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Slot indexes {@code [from, to)} held for the branch; empty if the branch
+     * is not in the snapshot.
+     */
+    public int[] branchRange(long branchId) {
+        int branch = branchIndex(branchId);
+        if (branch < 0) {
+            return new int[]{0, 0};
+        }
+        return new int[]{branchStarts.get(branch), branchStarts.get(branch + 1)};
+    }
+
+    public long getSlotId(int index) {
+        return branchBaseIds.get(branchOf(index)) + Integer.toUnsignedLong(slotIdDeltas.get(index));
+    }
+
+    public LocalDate getSlotDate(int index) {
+        return LocalDate.ofEpochDay(baseEpochDay + dayDeltas.get(index));
+    }
+
+    public LocalTime getStartTime(int index) {
+        return LocalTime.ofSecondOfDay(startMinutes.get(index) * 60L);
+    }
+
+    public LocalTime getEndTime(int index) {
+        return LocalTime.ofSecondOfDay(((startMinutes.get(index) + lengthMinutes.get(index)) % 1440) * 60L);
+    }
+
+    public int getCapacity(int index) {
+        return capacities.get(index);
+    }
+
+    public int getBookedCount(int index) {
+        return bookedCounts.get(index);
+    }
+
+    public boolean isAvailable(int index) {
+        return availableFlags.get(index) == 1;
+    }
+
+    private int branchIndex(long branchId) {
+        int low = 0;
+        int high = branchCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = branchIds.get(mid);
+            if (midId < branchId) {
+                low = mid + 1;
+            } else if (midId > branchId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // The branch whose [start, next start) range holds the slot index
+    private int branchOf(int index) {
+        int low = 0;
+        int high = branchCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (branchStarts.get(mid) <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private ByteBuffer column(int offset, int length) {
+        return buffer.slice(offset, length).order(ORDER);
+    }
+
+    private static int sortKey(long dayDelta, int startMinute) {
+        return (int) dayDelta * 1440 + startMinute;
+    }
+
+    private static int crc(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, CRC_OFFSET));
+        crc.update(buffer.slice(HEADER_SIZE, buffer.capacity() - HEADER_SIZE));
+        return (int) crc.getValue();
+    }
+
+    private static int align(long offset) {
+        return Math.toIntExact((offset + 7) & ~7L);
+    }
+
+    /**
+     * Byte offset of each column for a given slot and branch count.
+     */
+    private static final class Layout {
+        private final int branchIds;
+        private final int branchBaseIds;
+        private final int branchStarts;
+        private final int slotIdDeltas;
+        private final int dayDeltas;
+        private final int startMinutes;
+        private final int lengthMinutes;
+        private final int capacities;
+        private final int bookedCounts;
+        private final int availableFlags;
+        private final long size;
+
+        private Layout(int slots, int branches) {
+            branchIds = HEADER_SIZE;
+            branchBaseIds = align(branchIds + (long) branches * Long.BYTES);
+            branchStarts = align(branchBaseIds + (long) branches * Long.BYTES);
+            slotIdDeltas = align(branchStarts + (branches + 1L) * Integer.BYTES);
+            dayDeltas = align(slotIdDeltas + (long) slots * Integer.BYTES);
+            startMinutes = align(dayDeltas + (long) slots * Short.BYTES);
+            lengthMinutes = align(startMinutes + (long) slots * Short.BYTES);
+            capacities = align(lengthMinutes + (long) slots * Short.BYTES);
+            bookedCounts = align(capacities + (long) slots * Integer.BYTES);
+            availableFlags = align(bookedCounts + (long) slots * Integer.BYTES);
+            size = availableFlags + (long) slots;
+        }
+    }
+
+    /**
+     * Collects slots grouped by branch, in date and start-time order within
+     * each branch, into primitive columns and writes them out as a snapshot
+     * file with the branches sorted by id.
+     */
+    public static final class Builder {
+        private final LocalDate fromDate;
+        private final int baseEpochDay;
+
+        private long[] branchIds = new long[16];
+        private long[] branchBaseIds = new long[16];
+        private int[] branchStarts = new int[17];
+        private int branchCount;
+
+        private long[] slotIds = new long[1024];
+        private short[] dayDeltas = new short[1024];
+        private short[] startMinutes = new short[1024];
+        private short[] lengthMinutes = new short[1024];
+        private int[] capacities = new int[1024];
+        private int[] bookedCounts = new int[1024];
+        private byte[] availableFlags = new byte[1024];
+        private int slotCount;
+        private int lastKey;
+
+        private long rowHashSum;
+
+        public Builder(LocalDate fromDate) {
+            this.fromDate = fromDate;
+            this.baseEpochDay = Math.toIntExact(fromDate.toEpochDay());
+        }
+
+        /**
+         * Adds the next slot. Each branch's slots must arrive together, in
+         * date and start time order, all on or after the snapshot's from date
+         * and on whole minutes; branches may arrive in any order, so several
+         * shards can be exported one after the other.
+         */
+        public Builder add(long slotId, long branchId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                           int capacity, int bookedCount, boolean available) {
+            long dayDelta = date.toEpochDay() - baseEpochDay;
+            if (dayDelta < 0 || dayDelta > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Slot " + slotId + " date " + date + " is outside the snapshot range");
+            }
+            if (startTime.getSecond() != 0 || startTime.getNano() != 0
+                    || endTime.getSecond() != 0 || endTime.getNano() != 0) {
+                throw new IllegalArgumentException("Slot " + slotId + " does not start and end on whole minutes");
+            }
+            int startMinute = startTime.getHour() * 60 + startTime.getMinute();
+            int length = Math.floorMod(endTime.getHour() * 60 + endTime.getMinute() - startMinute, 1440);
+            int key = sortKey(dayDelta, startMinute);
+
+            if (branchCount == 0 || branchId != branchIds[branchCount - 1]) {
+                if (branchCount == branchIds.length) {
+                    branchIds = Arrays.copyOf(branchIds, branchCount * 2);
+                    branchBaseIds = Arrays.copyOf(branchBaseIds, branchCount * 2);
+                    branchStarts = Arrays.copyOf(branchStarts, branchCount * 2 + 1);
+                }
+                branchIds[branchCount] = branchId;
+                branchBaseIds[branchCount] = slotId;
+                branchStarts[branchCount] = slotCount;
+                branchCount++;
+            } else if (key <= lastKey) {
+                throw new IllegalArgumentException("Slots must be added in date and start time order per branch");
+            } else {
+                branchBaseIds[branchCount - 1] = Math.min(branchBaseIds[branchCount - 1], slotId);
+            }
+            lastKey = key;
+
+            if (slotCount == slotIds.length) {
+                grow();
+            }
+            slotIds[slotCount] = slotId;
+            dayDeltas[slotCount] = (short) dayDelta;
+            startMinutes[slotCount] = (short) startMinute;
+            lengthMinutes[slotCount] = (short) length;
+            capacities[slotCount] = capacity;
+            bookedCounts[slotCount] = bookedCount;
+            availableFlags[slotCount] = (byte) (available ? 1 : 0);
+            slotCount++;
+
+            rowHashSum += ScheduleChecksum.rowHash(slotId, capacity, bookedCount, available);
+            return this;
+        }
+
+        public LocalDate getFromDate() {
+            return fromDate;
+        }
+
+        public int getSlotCount() {
+            return slotCount;
+        }
+
+        public ScheduleChecksum checksum() {
+            return new ScheduleChecksum(slotCount, rowHashSum);
+        }
+
+        /**
+         * Writes the snapshot to a temporary file, forces it to disk and
+         * renames it into place, then maps the result.
+         */
+        public ScheduleSnapshot write(Path file) throws IOException {
+            Layout layout = new Layout(slotCount, branchCount);
+            if (layout.size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Schedule of " + slotCount + " slots is too large for one snapshot");
+            }
+            branchStarts[branchCount] = slotCount;
+
+            // Branches in id order; each one's slots are copied as a block into its sorted position
+            Integer[] order = new Integer[branchCount];
+            for (int b = 0; b < branchCount; b++) {
+                order[b] = b;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(branchIds[a], branchIds[b]));
+            long[] sortedIds = new long[branchCount];
+            long[] sortedBaseIds = new long[branchCount];
+            int[] sortedStarts = new int[branchCount + 1];
+            for (int b = 0; b < branchCount; b++) {
+                int source = order[b];
+                if (b > 0 && branchIds[source] == sortedIds[b - 1]) {
+                    throw new IllegalArgumentException("Slots of branch " + branchIds[source] + " were not added together");
+                }
+                sortedIds[b] = branchIds[source];
+                sortedBaseIds[b] = branchBaseIds[source];
+                sortedStarts[b + 1] = sortedStarts[b] + branchStarts[source + 1] - branchStarts[source];
+            }
+
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, layout.size);
+                out.order(ORDER);
+                out.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, System.currentTimeMillis())
+                        .putInt(16, baseEpochDay).putInt(20, slotCount).putInt(24, branchCount)
+                        .putLong(40, rowHashSum);
+
+                out.slice(layout.branchIds, branchCount * Long.BYTES).order(ORDER).asLongBuffer()
+                        .put(sortedIds);
+                out.slice(layout.branchBaseIds, branchCount * Long.BYTES).order(ORDER).asLongBuffer()
+                        .put(sortedBaseIds);
+                out.slice(layout.branchStarts, (branchCount + 1) * Integer.BYTES).order(ORDER).asIntBuffer()
+                        .put(sortedStarts);
+                IntBuffer idDeltas = out.slice(layout.slotIdDeltas, slotCount * Integer.BYTES).order(ORDER)
+                        .asIntBuffer();
+                ShortBuffer days = out.slice(layout.dayDeltas, slotCount * Short.BYTES).order(ORDER).asShortBuffer();
+                ShortBuffer starts = out.slice(layout.startMinutes, slotCount * Short.BYTES).order(ORDER)
+                        .asShortBuffer();
+                ShortBuffer lengths = out.slice(layout.lengthMinutes, slotCount * Short.BYTES).order(ORDER)
+                        .asShortBuffer();
+                IntBuffer capacityColumn = out.slice(layout.capacities, slotCount * Integer.BYTES).order(ORDER)
+                        .asIntBuffer();
+                IntBuffer bookedColumn = out.slice(layout.bookedCounts, slotCount * Integer.BYTES).order(ORDER)
+                        .asIntBuffer();
+                for (int b = 0; b < branchCount; b++) {
+                    int from = branchStarts[order[b]];
+                    int length = branchStarts[order[b] + 1] - from;
+                    int to = sortedStarts[b];
+                    for (int i = 0; i < length; i++) {
+                        long delta = slotIds[from + i] - sortedBaseIds[b];
+                        if (delta > 0xFFFF_FFFFL) {
+                            throw new IllegalStateException("Slot ids of branch " + sortedIds[b]
+                                    + " span more than 2^32; cannot delta-encode " + slotIds[from + i]);
+                        }
+                        idDeltas.put(to + i, (int) delta);
+                    }
+                    days.put(to, dayDeltas, from, length);
+                    starts.put(to, startMinutes, from, length);
+                    lengths.put(to, lengthMinutes, from, length);
+                    capacityColumn.put(to, capacities, from, length);
+                    bookedColumn.put(to, bookedCounts, from, length);
+                    out.put(layout.availableFlags + to, availableFlags, from, length);
+                }
+
+                out.putInt(CRC_OFFSET, crc(out));
+                out.force();
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return open(file);
+        }
+
+        private void grow() {
+            int size = slotIds.length * 2;
+            slotIds = Arrays.copyOf(slotIds, size);
+            dayDeltas = Arrays.copyOf(dayDeltas, size);
+            startMinutes = Arrays.copyOf(startMinutes, size);
+            lengthMinutes = Arrays.copyOf(lengthMinutes, size);
+            capacities = Arrays.copyOf(capacities, size);
+            bookedCounts = Arrays.copyOf(bookedCounts, size);
+            availableFlags = Arrays.copyOf(availableFlags, size);
+        }
+    }
+}
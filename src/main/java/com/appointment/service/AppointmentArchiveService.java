@@ -0,0 +1,136 @@
+package com.appointment.service;
+
+import com.appointment.calendar.CalendarFeedCache;
+import com.appointment.journal.BookingJournal;
+import com.appointment.journal.JournalRecord;
+import com.appointment.repository.AppointmentRepository;
+import com.appointment.repository.ArchivedAppointmentRepository;
+import com.appointment.repository.ArchivedTimeSlotRepository;
+import com.appointment.repository.TimeSlotRepository;
+import com.appointment.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves time slots older than the retention horizon, together with their
+ * appointments, out of the live tables into {@code time_slots_archive} and
+ * {@code appointments_archive}. Each chunk of slots is copied and deleted in
+ * its own transaction so the live tables stay bounded by the booking window
+ * and no single run holds long locks.
+ */
+@Service
+public class AppointmentArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentArchiveService.class);
+
+    private final TimeSlotRepository timeSlotRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedTimeSlotRepository archivedTimeSlotRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final ShardRouter shardRouter;
+    private final CalendarFeedCache calendarFeedCache;
+    private final BookingJournal bookingJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final int chunkSize;
+
+    public AppointmentArchiveService(TimeSlotRepository timeSlotRepository,
+                                     AppointmentRepository appointmentRepository,
+                                     ArchivedTimeSlotRepository archivedTimeSlotRepository,
+                                     ArchivedAppointmentRepository archivedAppointmentRepository,
+                                     ShardRouter shardRouter,
+                                     CalendarFeedCache calendarFeedCache,
+                                     BookingJournal bookingJournal,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${appointment.archive.enabled:true}") boolean enabled,
+                                     @Value("${appointment.archive.retention-days:90}") int retentionDays,
+                                     @Value("${appointment.archive.chunk-size:500}") int chunkSize) {
+        this.timeSlotRepository = timeSlotRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.archivedTimeSlotRepository = archivedTimeSlotRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.shardRouter = shardRouter;
+        this.calendarFeedCache = calendarFeedCache;
+        this.bookingJournal = bookingJournal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${appointment.archive.cron:0 30 2 * * *}")
+    public void archiveScheduled() {
+        if (!enabled) {
+            return;
+        }
+        archiveBefore(LocalDate.now().minusDays(retentionDays));
+    }
+
+    /**
+     * Archives every slot dated strictly before {@code cutoff}, one shard at a
+     * time, and returns the number of slots moved.
+     */
+    public int archiveBefore(LocalDate cutoff) {
+        int archivedSlots = 0;
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            archivedSlots += shardRouter.onShard(shard, () -> archiveShard(cutoff));
+        }
+        if (archivedSlots > 0) {
+            // Archived appointments leave the feeds; the moves ran in SQL, so rebuild them on next request
+            calendarFeedCache.evictAll();
+        }
+        return archivedSlots;
+    }
+
+    private int archiveShard(LocalDate cutoff) {
+        log.info("Archiving time slots dated before {}", cutoff);
+        int archivedSlots = 0;
+        int archivedAppointments = 0;
+
+        while (true) {
+            int[] moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            if (moved[0] == 0) {
+                break;
+            }
+            archivedSlots += moved[0];
+            archivedAppointments += moved[1];
+        }
+
+        log.info("Archived {} time slots and {} appointments dated before {}",
+                archivedSlots, archivedAppointments, cutoff);
+        return archivedSlots;
+    }
+
+    private int[] archiveChunk(LocalDate cutoff) {
+        List<Long> slotIds = timeSlotRepository.findSlotIdsBefore(cutoff, PageRequest.of(0, chunkSize));
+        if (slotIds.isEmpty()) {
+            return new int[]{0, 0};
+        }
+
+        LocalDateTime archivedAt = LocalDateTime.now();
+        int appointments = archivedAppointmentRepository.copyAppointmentsForTimeSlots(slotIds, archivedAt);
+        appointmentRepository.deleteByTimeSlotIds(slotIds);
+        archivedTimeSlotRepository.copyTimeSlots(slotIds, archivedAt);
+        timeSlotRepository.deleteByIds(slotIds);
+        if (bookingJournal.isEnabled()) {
+            // Archived slots never change again; retire their counters so snapshots stay bounded
+            for (Long slotId : slotIds) {
+                bookingJournal.record(JournalRecord.Type.ARCHIVE, slotId, 0, 0, -1, false);
+            }
+        }
+
+        log.debug("Archived chunk of {} time slots and {} appointments", slotIds.size(), appointments);
+        return new int[]{slotIds.size(), appointments};
+    }
+}
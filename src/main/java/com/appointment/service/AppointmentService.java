@@ -1,78 +1,153 @@
 package com.appointment.service;
 
+import com.appointment.calendar.CalendarFeedCache;
+import com.appointment.dto.AppointmentLookupResponse;
 import com.appointment.dto.AppointmentRequest;
 import com.appointment.dto.AppointmentResponse;
 import com.appointment.entity.Appointment;
+import com.appointment.entity.AppointmentStatus;
+import com.appointment.entity.ArchivedAppointment;
 import com.appointment.entity.TimeSlot;
 import com.appointment.exception.DoubleBookingException;
 import com.appointment.exception.ResourceNotFoundException;
 import com.appointment.exception.SlotNotAvailableException;
+import com.appointment.jfr.AppointmentFlightEvent;
+import com.appointment.jfr.BookingEvent;
+import com.appointment.jfr.CancellationEvent;
+import com.appointment.journal.BookingJournal;
+import com.appointment.journal.JournalRecord;
 import com.appointment.repository.AppointmentRepository;
+import com.appointment.repository.ArchivedAppointmentRepository;
 import com.appointment.repository.TimeSlotRepository;
+import com.appointment.shard.ShardRouter;
 import com.appointment.util.BookingReferenceGenerator;
+import com.appointment.util.LogSampler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class AppointmentService {
     private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
     private final TimeSlotRepository timeSlotRepository;
     private final EmailService emailService;
     private final BookingReferenceGenerator bookingReferenceGenerator;
+    private final BookingMetrics bookingMetrics;
+    private final BookingJournal bookingJournal;
+    private final ShardRouter shardRouter;
+    private final CalendarFeedCache calendarFeedCache;
 
     private static final Logger log = LoggerFactory.getLogger(AppointmentService.class);
+    // One structured line per booking/cancellation; rejections are sampled
+    private static final Logger eventLog = LoggerFactory.getLogger("com.appointment.events");
+    private static final int REJECTION_EVENTS_PER_SECOND = 20;
+
+    private final LogSampler rejectionLogSampler = new LogSampler(REJECTION_EVENTS_PER_SECOND);
 
     // Constructor injection
     public AppointmentService(AppointmentRepository appointmentRepository,
+                              ArchivedAppointmentRepository archivedAppointmentRepository,
                               TimeSlotRepository timeSlotRepository,
                               EmailService emailService,
-                              BookingReferenceGenerator bookingReferenceGenerator) {
+                              BookingReferenceGenerator bookingReferenceGenerator,
+                              BookingMetrics bookingMetrics,
+                              BookingJournal bookingJournal,
+                              ShardRouter shardRouter,
+                              CalendarFeedCache calendarFeedCache) {
         this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
         this.timeSlotRepository = timeSlotRepository;
         this.emailService = emailService;
         this.bookingReferenceGenerator = bookingReferenceGenerator;
+        this.bookingMetrics = bookingMetrics;
+        this.bookingJournal = bookingJournal;
+        this.shardRouter = shardRouter;
+        this.calendarFeedCache = calendarFeedCache;
     }
 
     @Transactional
     public AppointmentResponse createAppointment(AppointmentRequest request) {
-        log.info("Starting appointment creation for customer: {} at branch: {} on {} at {}",
-                request.getCustomerEmail(), request.getBranchId(),
+        long startedAt = System.nanoTime();
+        BookingMetrics.Recording metrics = bookingMetrics.start();
+        BookingEvent event = new BookingEvent();
+        event.begin();
+        event.setBranchId(request.getBranchId());
+        try {
+            AppointmentResponse response = bookSlot(request, metrics, event);
+            finish(metrics, event, BookingMetrics.Outcome.SUCCESS, response.getBookingReference(), startedAt);
+            return response;
+        } catch (DoubleBookingException e) {
+            finish(metrics, event, BookingMetrics.Outcome.DOUBLE_BOOKING, null, startedAt);
+            throw e;
+        } catch (SlotNotAvailableException e) {
+            finish(metrics, event, BookingMetrics.Outcome.SOLD_OUT, null, startedAt);
+            throw e;
+        } catch (RuntimeException e) {
+            finish(metrics, event, BookingMetrics.Outcome.ERROR, null, startedAt);
+            throw e;
+        }
+    }
+
+    private void finish(BookingMetrics.Recording metrics, BookingEvent event, BookingMetrics.Outcome outcome,
+                        String bookingReference, long startedAt) {
+        metrics.finish(outcome);
+        event.setOutcome(outcome.tag());
+        event.commit();
+        logEvent("booking", outcome.tag(), event, bookingReference, startedAt);
+    }
+
+    private AppointmentResponse bookSlot(AppointmentRequest request, BookingMetrics.Recording metrics,
+                                         BookingEvent event) {
+        log.debug("Starting appointment creation for branch: {} on {} at {}",
+                request.getBranchId(),
                 request.getAppointmentDate(), request.getStartTime());
 
         // Check for existing appointment for same customer and time
-        TimeSlot timeSlot = timeSlotRepository.findAvailableSlot(
+        TimeSlot timeSlot = metrics.time(BookingMetrics.Stage.SLOT_LOOKUP, () -> timeSlotRepository.findAvailableSlot(
                 request.getBranchId(),
                 request.getAppointmentDate(),
                 request.getStartTime()
-        ).orElseThrow(() -> new SlotNotAvailableException("Time slot not available"));
+        )).orElseThrow(() -> new SlotNotAvailableException("Time slot not available"));
 
+        event.setSlotId(timeSlot.getId());
+        metrics.branch(timeSlot.getBranch().getId());
         log.debug("Found available time slot: {} for branch: {}", timeSlot.getId(), request.getBranchId());
 
         // Check if customer already has appointment for this slot
-        boolean existingAppointment = timeSlotRepository.existsByTimeSlotAndCustomerEmail(
-                timeSlot.getId(), request.getCustomerEmail());
+        boolean existingAppointment = metrics.time(BookingMetrics.Stage.DUPLICATE_CHECK, () ->
+                timeSlotRepository.existsByTimeSlotAndCustomerEmail(timeSlot.getId(), request.getCustomerEmail()));
 
         if (existingAppointment) {
             throw new DoubleBookingException("Customer already has an appointment for this time slot");
         }
 
         // Check capacity - if already full, mark as unavailable and throw exception
-        int currentBookedCount = appointmentRepository.countConfirmedAppointmentsByTimeSlot(timeSlot.getId());
+        int currentBookedCount = metrics.time(BookingMetrics.Stage.CAPACITY_COUNT, () ->
+                appointmentRepository.countConfirmedAppointmentsByTimeSlot(timeSlot.getId()));
         log.debug("Current booked count for time slot {}: {}/{}",
                 timeSlot.getId(), currentBookedCount, timeSlot.getCapacity());
         if (currentBookedCount >= timeSlot.getCapacity()) {
-            log.warn("Time slot {} is fully booked. Capacity: {}, Current: {}",
+            log.debug("Time slot {} is fully booked. Capacity: {}, Current: {}",
                     timeSlot.getId(), timeSlot.getCapacity(), currentBookedCount);
             // Only save if we need to mark it as unavailable (might already be false)
             if (timeSlot.getAvailable()) {
                 timeSlot.setAvailable(false);
-                timeSlotRepository.save(timeSlot);
-                log.info("Marked time slot {} as unavailable due to full capacity", timeSlot.getId());
+                metrics.time(BookingMetrics.Stage.SLOT_SAVE, () -> timeSlotRepository.save(timeSlot));
+                log.debug("Marked time slot {} as unavailable due to full capacity", timeSlot.getId());
             }
             throw new SlotNotAvailableException("Time slot is fully booked");
         }
@@ -86,10 +161,10 @@ public class AppointmentService {
         String bookingReference = bookingReferenceGenerator.generateBookingReference();
         appointment.setBookingReference(bookingReference);
 
-        log.info("Creating new appointment with reference: {} for customer: {}",
-                bookingReference, request.getCustomerEmail());
+        log.debug("Creating new appointment with reference: {}", bookingReference);
 
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        Appointment savedAppointment = metrics.time(BookingMetrics.Stage.APPOINTMENT_SAVE, () ->
+                appointmentRepository.save(appointment));
         log.debug("Appointment saved successfully with ID: {}", savedAppointment.getId());
 
         // Update booked count and check if slot becomes full
@@ -101,64 +176,166 @@ public class AppointmentService {
         // If slot becomes full after this booking, mark it as unavailable
         if (newBookedCount >= timeSlot.getCapacity()) {
             timeSlot.setAvailable(false);
-            log.info("Time slot {} is now fully booked. Marking as unavailable.", timeSlot.getId());
+            log.debug("Time slot {} is now fully booked. Marking as unavailable.", timeSlot.getId());
         }
         // Always save the timeSlot to update bookedCount and potentially availability
-        timeSlotRepository.save(timeSlot);
+        metrics.time(BookingMetrics.Stage.SLOT_SAVE, () -> timeSlotRepository.save(timeSlot));
         log.debug("Time slot {} updated successfully", timeSlot.getId());
+        bookingJournal.record(JournalRecord.Type.RESERVE, timeSlot.getId(), savedAppointment.getId(),
+                newBookedCount, timeSlot.getCapacity(), timeSlot.getAvailable());
 
-        // Send confirmation email
-        emailService.sendAppointmentConfirmation(savedAppointment);
+        calendarFeedCache.appointmentBooked(savedAppointment);
 
-        log.info("Appointment created successfully. Reference: {}, Customer: {}",
-                bookingReference, request.getCustomerEmail());
+        // Send confirmation email
+        metrics.time(BookingMetrics.Stage.EMAIL, () -> emailService.sendAppointmentConfirmation(savedAppointment));
 
-        return mapToResponse(savedAppointment);
+        return metrics.time(BookingMetrics.Stage.RESPONSE_MAPPING, () -> mapToResponse(savedAppointment));
     }
 
+    @Transactional(readOnly = true)
     public AppointmentResponse getAppointmentByReference(String bookingReference) {
         log.debug("Fetching appointment by reference: {}", bookingReference);
-        Appointment appointment = appointmentRepository.findByBookingReference(bookingReference)
+        return appointmentRepository.findByBookingReference(bookingReference)
+                .map(this::mapToResponse)
+                // Fall back to the archive for appointments older than the retention horizon
+                .or(() -> archivedAppointmentRepository.findByBookingReference(bookingReference)
+                        .map(this::mapArchivedToResponse))
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
-        return mapToResponse(appointment);
     }
 
-    public List<AppointmentResponse> getAppointmentsByCustomerEmail(String customerEmail) {
-        List<Appointment> appointments = appointmentRepository
-                .findByCustomerEmailOrderByTimeSlotSlotDateAscTimeSlotStartTimeAsc(customerEmail);
+    // One fetch-joined IN query per shard holding any of the references, with an archive IN query for the misses
+    public AppointmentLookupResponse lookupAppointments(List<String> bookingReferences) {
+        Set<String> references = new LinkedHashSet<>(bookingReferences);
+        Map<String, AppointmentResponse> found = new HashMap<>();
+        for (AppointmentResponse response : shardRouter.readByReference(references, this::findByReferences)) {
+            found.put(response.getBookingReference(), response);
+        }
 
-        return appointments.stream()
+        Map<String, AppointmentResponse> appointments = new LinkedHashMap<>();
+        List<String> notFound = new ArrayList<>();
+        for (String reference : references) {
+            AppointmentResponse response = found.get(reference);
+            if (response != null) {
+                appointments.put(reference, response);
+            } else {
+                notFound.add(reference);
+            }
+        }
+        log.debug("Looked up {} booking references, {} not found", references.size(), notFound.size());
+        return new AppointmentLookupResponse(appointments, notFound);
+    }
+
+    private List<AppointmentResponse> findByReferences(List<String> references) {
+        List<AppointmentResponse> found = appointmentRepository.findWithTimeSlotAndBranchByBookingReferenceIn(references)
+                .stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
+        if (found.size() < references.size()) {
+            Set<String> missing = new HashSet<>(references);
+            found.forEach(response -> missing.remove(response.getBookingReference()));
+            archivedAppointmentRepository.findByBookingReferenceIn(missing).stream()
+                    .map(this::mapArchivedToResponse)
+                    .forEach(found::add);
+        }
+        return found;
+    }
+
+    // A customer's appointments can sit on any shard: each shard is queried in its own read-only
+    // transaction, in parallel, and the sorted per-shard lists are merged
+    public List<AppointmentResponse> getAppointmentsByCustomerEmail(String customerEmail) {
+        List<AppointmentResponse> appointments = shardRouter.readAllShards(() -> appointmentRepository
+                .findByCustomerEmailOrderByTimeSlotSlotDateAscTimeSlotStartTimeAsc(customerEmail).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList()));
+        return inSlotOrder(appointments);
     }
 
     public List<AppointmentResponse> getAppointmentsByUsername(String username) {
         log.debug("Fetching appointments for username: {}", username);
-        List<Appointment> appointments = appointmentRepository
-                .findByUsernameOrderBySlotDateAndStartTime(username);
-
-        log.info("Found {} appointments for username: {}", appointments.size(), username);
-        return appointments.stream()
+        List<AppointmentResponse> appointments = shardRouter.readAllShards(() -> appointmentRepository
+                .findByUsernameOrderBySlotDateAndStartTime(username).stream()
                 .map(this::mapToResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+
+        log.debug("Found {} appointments for username: {}", appointments.size(), username);
+        return inSlotOrder(appointments);
+    }
+
+    private List<AppointmentResponse> inSlotOrder(List<AppointmentResponse> appointments) {
+        if (shardRouter.isSharded()) {
+            appointments.sort(Comparator.comparing(AppointmentResponse::getAppointmentDate)
+                    .thenComparing(AppointmentResponse::getStartTime));
+        }
+        return appointments;
     }
 
     @Transactional
     public void cancelAppointment(String bookingReference) {
-        log.info("Starting cancellation for appointment: {}", bookingReference);
+        long startedAt = System.nanoTime();
+        CancellationEvent event = new CancellationEvent();
+        event.begin();
+        String outcome = "error";
+        try {
+            cancel(bookingReference, event);
+            outcome = "success";
+        } catch (ResourceNotFoundException e) {
+            outcome = "not_found";
+            throw e;
+        } catch (IllegalStateException e) {
+            outcome = "already_cancelled";
+            throw e;
+        } finally {
+            event.setOutcome(outcome);
+            event.commit();
+            logEvent("cancellation", outcome, event, bookingReference, startedAt);
+        }
+    }
+
+    private void logEvent(String type, String outcome, AppointmentFlightEvent event,
+                          String bookingReference, long startedAt) {
+        long suppressed = 0;
+        if (!"success".equals(outcome)) {
+            suppressed = rejectionLogSampler.sample();
+            if (suppressed < 0) {
+                return;
+            }
+        }
+
+        LoggingEventBuilder line = eventLog.atInfo()
+                .setMessage(type)
+                .addKeyValue("outcome", outcome)
+                .addKeyValue("branchId", event.getBranchId())
+                .addKeyValue("slotId", event.getSlotId());
+        if (bookingReference != null) {
+            line = line.addKeyValue("reference", bookingReference);
+        }
+        line = line.addKeyValue("durationMs", (System.nanoTime() - startedAt) / 1_000_000);
+        if (suppressed > 0) {
+            line = line.addKeyValue("suppressedRejections", suppressed);
+        }
+        line.log();
+    }
+
+    private void cancel(String bookingReference, CancellationEvent event) {
+        log.debug("Starting cancellation for appointment: {}", bookingReference);
         Appointment appointment = appointmentRepository.findByBookingReference(bookingReference)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
 
         // Check if appointment is already cancelled
-        if ("CANCELLED".equals(appointment.getStatus())) {
+        if (appointment.getStatus() == AppointmentStatus.CANCELLED) {
             throw new IllegalStateException("Appointment is already cancelled");
         }
 
-        // Store the time slot before updating appointment
-        TimeSlot timeSlot = appointment.getTimeSlot();
+        // Lock the slot row so the recount below cannot race a concurrent booking. The slot is only
+        // read through the lock: initialising the lazy proxy first would leave a stale snapshot, and
+        // dirty checking would then skip the booked_count update when it happened to match
+        TimeSlot timeSlot = timeSlotRepository.findByIdForUpdate(appointment.getTimeSlot().getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Time slot not found"));
+        event.setSlotId(timeSlot.getId());
+        event.setBranchId(timeSlot.getBranch().getId());
 
         // Update appointment status
-        appointment.setStatus("CANCELLED");
+        appointment.setStatus(AppointmentStatus.CANCELLED);
         appointmentRepository.save(appointment);
 
         // Get current confirmed appointments count for this time slot (excluding cancelled ones)
@@ -170,22 +347,24 @@ public class AppointmentService {
         // If there's now capacity, mark as available
         if (currentBookedCount < timeSlot.getCapacity()) {
             timeSlot.setAvailable(true);
-            log.info("Time slot {} now has capacity. Marking as available.", timeSlot.getId());
+            log.debug("Time slot {} now has capacity. Marking as available.", timeSlot.getId());
         } else {
             timeSlot.setAvailable(false);
             log.debug("Time slot {} remains unavailable due to full capacity.", timeSlot.getId());
         }
 
         timeSlotRepository.save(timeSlot);
+        bookingJournal.record(JournalRecord.Type.CANCEL, timeSlot.getId(), appointment.getId(),
+                currentBookedCount, timeSlot.getCapacity(), timeSlot.getAvailable());
+
+        calendarFeedCache.appointmentCancelled(appointment);
 
         // Send cancellation email
         emailService.sendAppointmentCancellation(appointment);
-
-        log.info("Appointment cancelled successfully. Reference: {}, Customer: {}",
-                bookingReference, appointment.getCustomerEmail());
     }
 
-    private AppointmentResponse mapToResponse(Appointment appointment) {
+    // Package-private for the JMH mapping benchmark
+    AppointmentResponse mapToResponse(Appointment appointment) {
         log.trace("Mapping appointment to response for ID: {}", appointment.getId());
         AppointmentResponse response = new AppointmentResponse();
         response.setId(appointment.getId());
@@ -193,7 +372,7 @@ public class AppointmentService {
         response.setCustomerEmail(appointment.getCustomerEmail());
         response.setCustomerPhone(appointment.getCustomerPhone());
         response.setBookingReference(appointment.getBookingReference());
-        response.setStatus(appointment.getStatus());
+        response.setStatus(appointment.getStatus().name());
         response.setAppointmentDate(appointment.getTimeSlot().getSlotDate());
         response.setStartTime(appointment.getTimeSlot().getStartTime());
         response.setEndTime(appointment.getTimeSlot().getEndTime());
@@ -203,4 +382,20 @@ public class AppointmentService {
         return response;
     }
 
+    private AppointmentResponse mapArchivedToResponse(ArchivedAppointment appointment) {
+        AppointmentResponse response = new AppointmentResponse();
+        response.setId(appointment.getId());
+        response.setCustomerName(appointment.getCustomerName());
+        response.setCustomerEmail(appointment.getCustomerEmail());
+        response.setCustomerPhone(appointment.getCustomerPhone());
+        response.setBookingReference(appointment.getBookingReference());
+        response.setStatus(appointment.getStatus().name());
+        response.setAppointmentDate(appointment.getSlotDate());
+        response.setStartTime(appointment.getStartTime());
+        response.setEndTime(appointment.getEndTime());
+        response.setBranchName(appointment.getBranchName());
+        response.setBranchAddress(appointment.getBranchAddress());
+        return response;
+    }
+
 }
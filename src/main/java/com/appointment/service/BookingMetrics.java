@@ -0,0 +1,109 @@
+package com.appointment.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times each stage of a booking and records it once the outcome is known, so
+ * every stage timer can be tagged with the branch and the outcome of the
+ * booking it belonged to. Timers publish p50/p99/p999 and a percentile
+ * histogram for Prometheus. The branch tag is taken from the slot the lookup
+ * found, never from the request, so made-up branch ids cannot mint new
+ * series; bookings that fail before the lookup are tagged {@code unknown}.
+ */
+@Component
+public class BookingMetrics {
+
+    static final String STAGE_TIMER = "booking.stage";
+    static final String TOTAL_TIMER = "booking.create";
+    static final String UNKNOWN_BRANCH = "unknown";
+
+    public enum Stage {
+        SLOT_LOOKUP, DUPLICATE_CHECK, CAPACITY_COUNT, APPOINTMENT_SAVE, SLOT_SAVE, EMAIL, RESPONSE_MAPPING;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public enum Outcome {
+        SUCCESS, DOUBLE_BOOKING, SOLD_OUT, ERROR;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Recording start() {
+        return new Recording();
+    }
+
+    private Timer timer(String name, Tags tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stage timings for a single booking. Not thread-safe; one per call.
+     */
+    public final class Recording {
+        private String branch = UNKNOWN_BRANCH;
+        private final long startedAt = System.nanoTime();
+        private final long[] stageNanos = new long[Stage.values().length];
+
+        private Recording() {
+            Arrays.fill(stageNanos, -1);
+        }
+
+        // Called with the id of an existing branch once its slot has been found
+        public void branch(Long branchId) {
+            this.branch = String.valueOf(branchId);
+        }
+
+        public <T> T time(Stage stage, Supplier<T> step) {
+            long start = System.nanoTime();
+            try {
+                return step.get();
+            } finally {
+                stageNanos[stage.ordinal()] = System.nanoTime() - start;
+            }
+        }
+
+        public void time(Stage stage, Runnable step) {
+            time(stage, () -> {
+                step.run();
+                return null;
+            });
+        }
+
+        public void finish(Outcome outcome) {
+            Tags tags = Tags.of("branch", branch, "outcome", outcome.tag());
+            for (Stage stage : Stage.values()) {
+                long nanos = stageNanos[stage.ordinal()];
+                if (nanos >= 0) {
+                    timer(STAGE_TIMER, tags.and("stage", stage.tag())).record(nanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            timer(TOTAL_TIMER, tags).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.appointment.service;
+
+import com.appointment.calendar.CalendarFeedCache;
+import com.appointment.dto.BranchClosureResponse;
+import com.appointment.entity.Appointment;
+import com.appointment.entity.TimeSlot;
+import com.appointment.exception.ResourceNotFoundException;
+import com.appointment.journal.BookingJournal;
+import com.appointment.journal.JournalRecord;
+import com.appointment.repository.AppointmentRepository;
+import com.appointment.repository.BranchRepository;
+import com.appointment.repository.TimeSlotRepository;
+import com.appointment.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cancels every confirmed appointment of a branch over a date range with
+ * set-based updates instead of one {@link AppointmentService#cancelAppointment}
+ * call per booking. Slots are processed in chunks, each chunk in its own
+ * transaction, and the affected customers are notified in batches afterwards.
+ */
+@Service
+public class BranchClosureService {
+
+    private static final Logger log = LoggerFactory.getLogger(BranchClosureService.class);
+
+    private final BranchRepository branchRepository;
+    private final TimeSlotRepository timeSlotRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final EmailService emailService;
+    private final BookingJournal bookingJournal;
+    private final ShardRouter shardRouter;
+    private final CalendarFeedCache calendarFeedCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int slotChunkSize;
+    private final int emailBatchSize;
+
+    public BranchClosureService(BranchRepository branchRepository,
+                                TimeSlotRepository timeSlotRepository,
+                                AppointmentRepository appointmentRepository,
+                                EmailService emailService,
+                                BookingJournal bookingJournal,
+                                ShardRouter shardRouter,
+                                CalendarFeedCache calendarFeedCache,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${appointment.closure.slot-chunk-size:200}") int slotChunkSize,
+                                @Value("${appointment.closure.email-batch-size:100}") int emailBatchSize) {
+        this.branchRepository = branchRepository;
+        this.timeSlotRepository = timeSlotRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.emailService = emailService;
+        this.bookingJournal = bookingJournal;
+        this.shardRouter = shardRouter;
+        this.calendarFeedCache = calendarFeedCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.slotChunkSize = slotChunkSize;
+        this.emailBatchSize = emailBatchSize;
+    }
+
+    public BranchClosureResponse closeBranch(Long branchId, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (!branchRepository.existsById(branchId)) {
+            throw new ResourceNotFoundException("Branch not found");
+        }
+
+        // Every chunk below works on slot and appointment ids only, so pin the whole run to the branch's shard
+        return shardRouter.onBranchShard(branchId, () -> closeOnShard(branchId, startDate, endDate));
+    }
+
+    private BranchClosureResponse closeOnShard(Long branchId, LocalDate startDate, LocalDate endDate) {
+        log.info("Closing branch {} from {} to {}", branchId, startDate, endDate);
+        List<Long> slotIds = timeSlotRepository.findSlotIdsByBranchAndDateRange(branchId, startDate, endDate);
+        List<Long> cancelledIds = new ArrayList<>();
+
+        for (List<Long> chunk : partition(slotIds, slotChunkSize)) {
+            List<Long> chunkCancelled = transactionTemplate.execute(status -> cancelChunk(chunk));
+            cancelledIds.addAll(chunkCancelled);
+        }
+
+        notifyCustomers(cancelledIds);
+
+        log.info("Branch {} closed: {} slots closed, {} appointments cancelled",
+                branchId, slotIds.size(), cancelledIds.size());
+        return new BranchClosureResponse(branchId, startDate, endDate, slotIds.size(), cancelledIds.size());
+    }
+
+    private List<Long> cancelChunk(List<Long> slotIds) {
+        // Bookings and single cancellations lock their slot first, so with the chunk locked the ids read
+        // here are exactly the rows the UPDATE below cancels: no booking can commit onto a slot about to
+        // close, and an appointment cancelled elsewhere is neither counted nor emailed a second time
+        timeSlotRepository.findAllByIdForUpdate(slotIds);
+        List<Long> appointmentIds = appointmentRepository.findConfirmedIdsByTimeSlotIds(slotIds);
+        if (!appointmentIds.isEmpty()) {
+            appointmentRepository.cancelConfirmedByIds(appointmentIds);
+        }
+        timeSlotRepository.recountAndCloseSlots(slotIds);
+        if (bookingJournal.isEnabled()) {
+            // The recount ran in SQL; read the resulting counters back for the journal
+            for (TimeSlot timeSlot : timeSlotRepository.findAllById(slotIds)) {
+                bookingJournal.record(JournalRecord.Type.RELEASE, timeSlot.getId(), 0,
+                        timeSlot.getBookedCount(), timeSlot.getCapacity(), timeSlot.getAvailable());
+            }
+        }
+        return appointmentIds;
+    }
+
+    private void notifyCustomers(List<Long> appointmentIds) {
+        for (List<Long> batch : partition(appointmentIds, emailBatchSize)) {
+            List<Appointment> appointments = appointmentRepository.findWithTimeSlotAndBranchByIdIn(batch);
+            appointments.forEach(calendarFeedCache::appointmentCancelled);
+            emailService.sendAppointmentCancellations(appointments);
+        }
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            chunks.add(items.subList(i, Math.min(i + size, items.size())));
+        }
+        return chunks;
+    }
+}
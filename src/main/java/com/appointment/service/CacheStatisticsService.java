@@ -0,0 +1,49 @@
+package com.appointment.service;
+
+import com.appointment.dto.CacheStatisticsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+
+/**
+ * Reports Hibernate second-level and query cache hit/miss counters, read from
+ * the session factory statistics enabled by {@code hibernate.generate_statistics}.
+ */
+@Service
+public class CacheStatisticsService {
+
+    private final SessionFactory sessionFactory;
+
+    public CacheStatisticsService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public CacheStatisticsResponse getStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+
+        CacheStatisticsResponse response = new CacheStatisticsResponse();
+        response.setPrepareStatementCount(statistics.getPrepareStatementCount());
+        response.setQueryCacheHitCount(statistics.getQueryCacheHitCount());
+        response.setQueryCacheMissCount(statistics.getQueryCacheMissCount());
+
+        Arrays.stream(statistics.getSecondLevelCacheRegionNames()).sorted().forEach(name -> {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region == null) {
+                return;
+            }
+            response.getRegions().add(new CacheStatisticsResponse.RegionStatistics(name,
+                    region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                    region.getElementCountInMemory()));
+        });
+
+        return response;
+    }
+
+    public void clearStatistics() {
+        sessionFactory.getStatistics().clear();
+    }
+}
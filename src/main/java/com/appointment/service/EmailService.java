@@ -1,12 +1,16 @@
 package com.appointment.service;
 
+import com.appointment.config.AsyncConfig;
 import com.appointment.entity.Appointment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 
+import java.util.List;
+
 @Service
 public class EmailService {
 
@@ -21,10 +25,10 @@ public class EmailService {
 
     public void sendAppointmentConfirmation(Appointment appointment) {
         // In production, integrate with actual email service (SendGrid, AWS SES, etc.)
-        log.info("Sending confirmation email for appointment: {}", appointment.getBookingReference());
-        log.info("To: {}", appointment.getCustomerEmail());
-        log.info("Subject: Appointment Confirmation - Reference: {}", appointment.getBookingReference());
-        log.info("Body: Dear {}, your appointment at {} on {} from {} to {} has been confirmed.",
+        log.debug("Sending confirmation email for appointment: {}", appointment.getBookingReference());
+        log.debug("To: {}", appointment.getCustomerEmail());
+        log.debug("Subject: Appointment Confirmation - Reference: {}", appointment.getBookingReference());
+        log.debug("Body: Dear {}, your appointment at {} on {} from {} to {} has been confirmed.",
                 appointment.getCustomerName(),
                 appointment.getTimeSlot().getBranch().getName(),
                 appointment.getTimeSlot().getSlotDate(),
@@ -33,8 +37,25 @@ public class EmailService {
     }
 
     public void sendAppointmentCancellation(Appointment appointment) {
-        log.info("Sending cancellation email for appointment: {}", appointment.getBookingReference());
-        log.info("To: {}", appointment.getCustomerEmail());
-        log.info("Subject: Appointment Cancelled - Reference: {}", appointment.getBookingReference());
+        log.debug("Sending cancellation email for appointment: {}", appointment.getBookingReference());
+        log.debug("To: {}", appointment.getCustomerEmail());
+        log.debug("Subject: Appointment Cancelled - Reference: {}", appointment.getBookingReference());
+    }
+
+    /**
+     * Sends cancellation emails for a batch of appointments on the email executor.
+     * Appointments must have their time slot and branch already loaded.
+     */
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
+    public void sendAppointmentCancellations(List<Appointment> appointments) {
+        log.info("Sending {} cancellation emails", appointments.size());
+        for (Appointment appointment : appointments) {
+            try {
+                sendAppointmentCancellation(appointment);
+            } catch (RuntimeException e) {
+                log.error("Failed to send cancellation email for appointment: {}",
+                        appointment.getBookingReference(), e);
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.appointment.service;
+
+import com.appointment.dto.FlightEventSummaryResponse;
+import com.appointment.jfr.AuthenticationEvent;
+import com.appointment.jfr.AvailabilityQueryEvent;
+import com.appointment.jfr.BookingEvent;
+import com.appointment.jfr.CancellationEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Subscribes to the application's own JFR events through an in-process
+ * {@link RecordingStream} and keeps per-minute aggregates for a bounded
+ * window, so recent latency and outcomes can be read without opening a
+ * recording in JDK Mission Control.
+ */
+@Service
+public class FlightEventSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightEventSummaryService.class);
+
+    static final List<String> EVENT_NAMES = List.of(
+            BookingEvent.NAME, CancellationEvent.NAME, AvailabilityQueryEvent.NAME, AuthenticationEvent.NAME);
+
+    private final boolean enabled;
+    private final int retentionMinutes;
+    private final Map<String, MinuteBuckets> buckets = new TreeMap<>();
+
+    private RecordingStream recordingStream;
+
+    public FlightEventSummaryService(@Value("${appointment.jfr.summary.enabled:true}") boolean enabled,
+                                     @Value("${appointment.jfr.summary.retention-minutes:60}") int retentionMinutes) {
+        this.enabled = enabled;
+        this.retentionMinutes = retentionMinutes;
+        for (String name : EVENT_NAMES) {
+            buckets.put(name, new MinuteBuckets(retentionMinutes));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        recordingStream = new RecordingStream();
+        for (String name : EVENT_NAMES) {
+            recordingStream.enable(name);
+            recordingStream.onEvent(name, this::record);
+        }
+        recordingStream.setMaxAge(Duration.ofMinutes(1));
+        recordingStream.startAsync();
+        log.info("Streaming JFR events for a {} minute summary window", retentionMinutes);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    public FlightEventSummaryResponse summarize(int minutes) {
+        if (minutes < 1 || minutes > retentionMinutes) {
+            throw new IllegalArgumentException("minutes must be between 1 and " + retentionMinutes);
+        }
+
+        long currentMinute = epochMinute(Instant.now());
+        FlightEventSummaryResponse response = new FlightEventSummaryResponse(minutes);
+        buckets.forEach((name, eventBuckets) ->
+                response.getEvents().add(eventBuckets.summarize(name, currentMinute - minutes + 1, currentMinute)));
+        return response;
+    }
+
+    void record(RecordedEvent event) {
+        MinuteBuckets eventBuckets = buckets.get(event.getEventType().getName());
+        if (eventBuckets == null) {
+            return;
+        }
+        String outcome = event.hasField("outcome") ? event.getString("outcome") : null;
+        eventBuckets.add(epochMinute(event.getEndTime()), event.getDuration().toNanos(),
+                outcome != null ? outcome : "unknown");
+    }
+
+    private static long epochMinute(Instant instant) {
+        return instant.getEpochSecond() / 60;
+    }
+
+    /**
+     * Ring of per-minute aggregates; a slot is reset when its minute comes round again.
+     * Guarded by a ReentrantLock rather than synchronized so a virtual request thread
+     * waiting on the JFR consumer never pins its carrier.
+     */
+    private static final class MinuteBuckets {
+        private final long[] minutes;
+        private final long[] counts;
+        private final long[] totalNanos;
+        private final long[] maxNanos;
+        private final Map<String, long[]> outcomeCounts = new TreeMap<>();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private MinuteBuckets(int size) {
+            minutes = new long[size];
+            counts = new long[size];
+            totalNanos = new long[size];
+            maxNanos = new long[size];
+        }
+
+        void add(long minute, long nanos, String outcome) {
+            lock.lock();
+            try {
+                int slot = (int) Math.floorMod(minute, (long) minutes.length);
+                if (minutes[slot] != minute) {
+                    minutes[slot] = minute;
+                    counts[slot] = 0;
+                    totalNanos[slot] = 0;
+                    maxNanos[slot] = 0;
+                    outcomeCounts.values().forEach(perMinute -> perMinute[slot] = 0);
+                }
+                counts[slot]++;
+                totalNanos[slot] += nanos;
+                maxNanos[slot] = Math.max(maxNanos[slot], nanos);
+                outcomeCounts.computeIfAbsent(outcome, key -> new long[minutes.length])[slot]++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        FlightEventSummaryResponse.EventSummary summarize(String name, long fromMinute, long toMinute) {
+            lock.lock();
+            try {
+                long count = 0;
+                long total = 0;
+                long max = 0;
+                Map<String, Long> outcomes = new TreeMap<>();
+                for (int slot = 0; slot < minutes.length; slot++) {
+                    if (minutes[slot] < fromMinute || minutes[slot] > toMinute || counts[slot] == 0) {
+                        continue;
+                    }
+                    count += counts[slot];
+                    total += totalNanos[slot];
+                    max = Math.max(max, maxNanos[slot]);
+                    for (Map.Entry<String, long[]> entry : outcomeCounts.entrySet()) {
+                        if (entry.getValue()[slot] > 0) {
+                            outcomes.merge(entry.getKey(), entry.getValue()[slot], Long::sum);
+                        }
+                    }
+                }
+                double averageMillis = count == 0 ? 0 : total / (double) count / 1_000_000;
+                return new FlightEventSummaryResponse.EventSummary(name, count, averageMillis, max / 1_000_000.0, outcomes);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
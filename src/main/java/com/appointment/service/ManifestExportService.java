@@ -0,0 +1,201 @@
+package com.appointment.service;
+
+import com.appointment.entity.AppointmentStatus;
+import com.appointment.shard.ShardRouter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Streams a branch's confirmed appointments for one day straight from a
+ * forward-only JDBC cursor to an output stream, one row at a time, without
+ * hydrating {@code Appointment} entities. Memory use does not depend on the
+ * number of rows exported.
+ */
+@Service
+public class ManifestExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ManifestExportService.class);
+
+    private static final String MANIFEST_SQL =
+            "SELECT a.booking_reference, ts.start_time, ts.end_time, " +
+            "a.customer_name, a.customer_email, a.customer_phone " +
+            "FROM time_slots ts JOIN appointments a ON a.time_slot_id = ts.id " +
+            "WHERE ts.branch_id = ? AND ts.slot_date = ? AND a.status = " + AppointmentStatus.CONFIRMED.getCode() + " " +
+            "ORDER BY ts.start_time, a.id";
+
+    private static final String[] COLUMNS = {
+            "bookingReference", "startTime", "endTime", "customerName", "customerEmail", "customerPhone"
+    };
+
+    public enum Format {
+        CSV("text/csv"),
+        NDJSON("application/x-ndjson");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final int fetchSize;
+
+    public ManifestExportService(JdbcTemplate jdbcTemplate,
+                                 ShardRouter shardRouter,
+                                 @Value("${appointment.manifest.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes the manifest to {@code out} and returns the number of rows written.
+     * The stream is flushed but not closed.
+     */
+    public long writeManifest(Long branchId, LocalDate date, Format format, OutputStream out) throws IOException {
+        log.debug("Exporting {} manifest for branch: {} on {}", format, branchId, date);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        long[] rows = {0};
+
+        try {
+            rowWriter.writeHeader();
+            shardRouter.onBranchShard(branchId, () -> jdbcTemplate.query(cursor(branchId, date), (RowCallbackHandler) rs -> {
+                try {
+                    rowWriter.writeRow(rs);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            // Unwrap I/O failures raised from inside the row callback (e.g. client disconnected)
+            throw e.getCause();
+        }
+
+        writer.flush();
+        log.debug("Exported {} manifest rows for branch: {} on {}", rows[0], branchId, date);
+        return rows[0];
+    }
+
+    private PreparedStatementCreator cursor(Long branchId, LocalDate date) {
+        return con -> {
+            PreparedStatement ps = con.prepareStatement(MANIFEST_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, branchId);
+            ps.setDate(2, Date.valueOf(date));
+            return ps;
+        };
+    }
+
+    private interface RowWriter {
+        void writeHeader() throws IOException;
+
+        void writeRow(ResultSet rs) throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void writeRow(ResultSet rs) throws IOException {
+            try {
+                for (int i = 1; i <= COLUMNS.length; i++) {
+                    if (i > 1) {
+                        writer.write(',');
+                    }
+                    writeField(rs.getString(i));
+                }
+                writer.write("\r\n");
+            } catch (SQLException e) {
+                throw new IOException("Failed to read manifest row", e);
+            }
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = jsonFactory.createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void writeHeader() {
+            // NDJSON carries field names on every line
+        }
+
+        @Override
+        public void writeRow(ResultSet rs) throws IOException {
+            try {
+                generator.writeStartObject();
+                for (int i = 1; i <= COLUMNS.length; i++) {
+                    generator.writeStringField(COLUMNS[i - 1], rs.getString(i));
+                }
+                generator.writeEndObject();
+                generator.flush();
+                writer.write('\n');
+            } catch (SQLException e) {
+                throw new IOException("Failed to read manifest row", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.appointment.service;
+
+import com.appointment.dto.ScheduleSnapshotStatusResponse;
+import com.appointment.schedule.ScheduleChecksum;
+import com.appointment.schedule.ScheduleSnapshot;
+import com.appointment.shard.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports the future schedule (every slot from today on) to a
+ * {@link ScheduleSnapshot} file and maps it back in on startup, so the
+ * schedule is in memory without reading millions of slots through JPA.
+ * <p>
+ * A snapshot is only trusted if its {@link ScheduleChecksum} matches one
+ * aggregate query over the same slots in the database; otherwise (or if the
+ * file is missing or corrupt) it is rebuilt with a single forward-only JDBC
+ * cursor. That query still scans every future slot, so it dominates a warm
+ * boot: mapping the file takes milliseconds, the check most of what a rebuild
+ * costs (about 1.2 s against 1.7 s for 1M slots in H2, see
+ * {@code ScheduleSnapshotBenchmark}). What a warm boot saves is shipping and
+ * decoding the rows, not reading them. With {@code export-on-shutdown} a fresh snapshot is written when
+ * the application stops, which is what makes the next boot warm. When the
+ * schedule is sharded, the shards are exported one after the other into the
+ * same file and their checksums are summed.
+ * <p>
+ * The snapshot is an export/import format for warm boot and offline tooling
+ * only. It is not updated as appointments are booked or cancelled, and
+ * nothing serves availability from it; the database stays the source of
+ * truth.
+ */
+@Service
+public class ScheduleSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleSnapshotService.class);
+
+    private static final String EXPORT_SQL =
+            "SELECT id, branch_id, slot_date, start_time, end_time, capacity, booked_count, available " +
+            "FROM time_slots WHERE slot_date >= ? ORDER BY branch_id, slot_date, start_time";
+
+    // Same per-row hash as ScheduleChecksum.rowHash; each term is below 2^31, so the sum fits a BIGINT
+    private static final String CHECKSUM_SQL =
+            "SELECT COUNT(*), COALESCE(SUM(MOD(mix * mix, " + ScheduleChecksum.MODULUS + ")), 0) " +
+            "FROM (SELECT " + ScheduleChecksum.ROW_MIX_SQL + " AS mix FROM time_slots WHERE slot_date >= ?) slots";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final Path file;
+    private final int fetchSize;
+    private final boolean exportOnShutdown;
+
+    private volatile ScheduleSnapshot snapshot;
+    private volatile String source = "none";
+    private volatile long loadMillis;
+    private volatile long validateMillis;
+    private volatile long exportMillis;
+
+    public ScheduleSnapshotService(JdbcTemplate jdbcTemplate,
+                                   ShardRouter shardRouter,
+                                   @Value("${appointment.schedule-snapshot.enabled:false}") boolean enabled,
+                                   @Value("${appointment.schedule-snapshot.path:data/schedule.snapshot}") String path,
+                                   @Value("${appointment.schedule-snapshot.fetch-size:5000}") int fetchSize,
+                                   @Value("${appointment.schedule-snapshot.export-on-shutdown:true}") boolean exportOnShutdown) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.file = Paths.get(path);
+        this.fetchSize = fetchSize;
+        this.exportOnShutdown = exportOnShutdown;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmBoot() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            load();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load the schedule snapshot from {}", file, e);
+        }
+    }
+
+    /**
+     * Maps the snapshot file and checks it against the database, rebuilding
+     * it if it is missing, corrupt or stale.
+     */
+    public ScheduleSnapshot load() throws IOException {
+        long startedAt = System.nanoTime();
+        ScheduleSnapshot loaded = Files.exists(file) ? ScheduleSnapshot.open(file) : null;
+        long mappedAt = System.nanoTime();
+        if (loaded == null) {
+            log.info("No valid schedule snapshot at {}, rebuilding", file);
+            return export();
+        }
+
+        ScheduleChecksum expected = databaseChecksum(loaded.getFromDate());
+        validateMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mappedAt);
+        if (!expected.equals(loaded.getChecksum())) {
+            log.info("Schedule snapshot at {} is stale (file: {}, database: {}), rebuilding",
+                    file, loaded.getChecksum(), expected);
+            return export();
+        }
+
+        loadMillis = TimeUnit.NANOSECONDS.toMillis(mappedAt - startedAt);
+        snapshot = loaded;
+        source = "snapshot";
+        log.info("Loaded schedule snapshot: {} slots across {} branches from {} in {} ms (database check {} ms)",
+                loaded.getSlotCount(), loaded.getBranchCount(), loaded.getFromDate(), loadMillis, validateMillis);
+        return loaded;
+    }
+
+    /**
+     * Writes every slot from today on to the snapshot file and maps it.
+     */
+    public ScheduleSnapshot export() throws IOException {
+        long startedAt = System.nanoTime();
+        ScheduleSnapshot.Builder builder = new ScheduleSnapshot.Builder(LocalDate.now());
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            shardRouter.onShard(shard, () -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                ps.setDate(1, Date.valueOf(builder.getFromDate()));
+                return ps;
+            }, (RowCallbackHandler) rs -> builder.add(
+                    rs.getLong(1),
+                    rs.getLong(2),
+                    rs.getDate(3).toLocalDate(),
+                    rs.getTime(4).toLocalTime(),
+                    rs.getTime(5).toLocalTime(),
+                    rs.getInt(6),
+                    rs.getInt(7),
+                    rs.getBoolean(8))));
+        }
+
+        ScheduleSnapshot written = builder.write(file);
+        exportMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        snapshot = written;
+        source = "rebuilt";
+        log.info("Exported schedule snapshot: {} slots ({} bytes) to {} in {} ms",
+                written.getSlotCount(), written.getFileSize(), file, exportMillis);
+        return written;
+    }
+
+    public ScheduleChecksum databaseChecksum(LocalDate fromDate) {
+        ScheduleChecksum checksum = new ScheduleChecksum(0, 0);
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            checksum = checksum.plus(shardRouter.onShard(shard, () -> jdbcTemplate.queryForObject(CHECKSUM_SQL,
+                    (rs, rowNum) -> new ScheduleChecksum(rs.getLong(1), rs.getLong(2)),
+                    Date.valueOf(fromDate))));
+        }
+        return checksum;
+    }
+
+    /**
+     * The schedule as of the last load or export, or null if neither has run.
+     * Bookings and cancellations since then are not reflected.
+     */
+    public ScheduleSnapshot current() {
+        return snapshot;
+    }
+
+    public ScheduleSnapshotStatusResponse status() {
+        ScheduleSnapshotStatusResponse status = new ScheduleSnapshotStatusResponse();
+        status.setEnabled(enabled);
+        status.setPath(file.toString());
+        status.setSource(source);
+        status.setLoadMillis(loadMillis);
+        status.setValidateMillis(validateMillis);
+        status.setExportMillis(exportMillis);
+        ScheduleSnapshot current = snapshot;
+        if (current != null) {
+            status.setFromDate(current.getFromDate());
+            status.setCreatedAt(current.getCreatedAt());
+            status.setSlotCount(current.getSlotCount());
+            status.setBranchCount(current.getBranchCount());
+            status.setFileBytes(current.getFileSize());
+        }
+        return status;
+    }
+
+    @PreDestroy
+    public void exportOnShutdown() {
+        if (!enabled || !exportOnShutdown) {
+            return;
+        }
+        try {
+            export();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to export the schedule snapshot on shutdown", e);
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package com.appointment.service;
 
+import com.appointment.dto.AvailabilityResponse;
 import com.appointment.dto.TimeSlotDTO;
+import com.appointment.entity.Branch;
 import com.appointment.entity.TimeSlot;
+import com.appointment.exception.ResourceNotFoundException;
+import com.appointment.jfr.AvailabilityQueryEvent;
+import com.appointment.repository.BranchRepository;
 import com.appointment.repository.TimeSlotRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -13,26 +24,131 @@ import java.util.stream.Collectors;
 public class TimeSlotService {
 
     private final TimeSlotRepository timeSlotRepository;
+    private final BranchRepository branchRepository;
+    private final int maxRangeDays;
 
-    public TimeSlotService(TimeSlotRepository timeSlotRepository) {
+    public TimeSlotService(TimeSlotRepository timeSlotRepository,
+                           BranchRepository branchRepository,
+                           @Value("${appointment.availability.max-range-days:31}") int maxRangeDays) {
         this.timeSlotRepository = timeSlotRepository;
+        this.branchRepository = branchRepository;
+        this.maxRangeDays = maxRangeDays;
     }
 
+    @Transactional(readOnly = true)
     public List<TimeSlotDTO> getAvailableTimeSlots(Long branchId, LocalDate date) {
+        AvailabilityQueryEvent event = new AvailabilityQueryEvent();
+        event.begin();
+        event.setBranchId(branchId);
+        event.setOutcome("error");
+        try {
+            List<TimeSlotDTO> slots = findAvailableTimeSlots(branchId, date);
+            event.setSlotsReturned(slots.size());
+            event.setOutcome(slots.isEmpty() ? "empty" : "success");
+            return slots;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Open slots of a branch from {@code fromDate} to {@code toDate} inclusive,
+     * grouped by date for calendar views.
+     */
+    @Transactional(readOnly = true)
+    public AvailabilityResponse getAvailability(Long branchId, LocalDate fromDate, LocalDate toDate) {
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(fromDate, toDate) >= maxRangeDays) {
+            throw new IllegalArgumentException("Date range must not exceed " + maxRangeDays + " days");
+        }
+
+        AvailabilityQueryEvent event = new AvailabilityQueryEvent();
+        event.begin();
+        event.setBranchId(branchId);
+        event.setOutcome("error");
+        try {
+            AvailabilityResponse availability = findAvailability(branchId, fromDate, toDate);
+            event.setSlotsReturned(availability.getSlotCount());
+            event.setOutcome(availability.getDays().isEmpty() ? "empty" : "success");
+            return availability;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private AvailabilityResponse findAvailability(Long branchId, LocalDate fromDate, LocalDate toDate) {
+        // Slots first: the branch-keyed query is what pins the transaction to the branch's shard
+        List<TimeSlot> timeSlots = timeSlotRepository.findAvailableSlotsByBranchAndDateRange(branchId, fromDate, toDate);
+        String branchName = timeSlots.isEmpty()
+                ? branchRepository.findById(branchId).map(Branch::getName)
+                        .orElseThrow(() -> new ResourceNotFoundException("Branch not found"))
+                : timeSlots.get(0).getBranch().getName();
+
+        List<AvailabilityResponse.Day> days = new ArrayList<>();
+        int dayStart = 0;
+        for (int i = 1; i <= timeSlots.size(); i++) {
+            if (i == timeSlots.size() || !timeSlots.get(i).getSlotDate().equals(timeSlots.get(dayStart).getSlotDate())) {
+                days.add(toDay(timeSlots.subList(dayStart, i)));
+                dayStart = i;
+            }
+        }
+        return new AvailabilityResponse(branchId, branchName, fromDate, toDate, days);
+    }
+
+    private static AvailabilityResponse.Day toDay(List<TimeSlot> daySlots) {
+        int size = daySlots.size();
+        int[] startMinutes = new int[size];
+        int[] remaining = new int[size];
+        int[] lengthMinutes = new int[size];
+        for (int i = 0; i < size; i++) {
+            TimeSlot timeSlot = daySlots.get(i);
+            startMinutes[i] = timeSlot.getStartTime().toSecondOfDay() / 60;
+            remaining[i] = Math.max(0, timeSlot.getCapacity() - timeSlot.getBookedCount());
+            lengthMinutes[i] = (int) Duration.between(timeSlot.getStartTime(), timeSlot.getEndTime()).toMinutes();
+        }
+        return new AvailabilityResponse.Day(daySlots.get(0).getSlotDate(), mostCommon(lengthMinutes),
+                startMinutes, remaining, lengthMinutes, size);
+    }
+
+    // The day-level slot length; slots of any other length carry their own
+    private static int mostCommon(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int best = sorted[0];
+        int bestRun = 0;
+        int run = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            run = i > 0 && sorted[i] == sorted[i - 1] ? run + 1 : 1;
+            if (run > bestRun) {
+                best = sorted[i];
+                bestRun = run;
+            }
+        }
+        return best;
+    }
+
+    private List<TimeSlotDTO> findAvailableTimeSlots(Long branchId, LocalDate date) {
         List<TimeSlot> timeSlots = timeSlotRepository.findByBranchIdAndSlotDateAndAvailableTrue(branchId, date);
 
         return timeSlots.stream()
-                .map(timeSlot -> new TimeSlotDTO(
-                        timeSlot.getId(),
-                        timeSlot.getBranch().getId(),
-                        timeSlot.getBranch().getName(),
-                        timeSlot.getSlotDate(),
-                        timeSlot.getStartTime(),
-                        timeSlot.getEndTime(),
-                        timeSlot.getCapacity(),
-                        timeSlot.getBookedCount(),
-                        timeSlot.getAvailable()
-                ))
+                .map(TimeSlotService::toDto)
                 .collect(Collectors.toList());
     }
+
+    // Package-private for the JMH mapping benchmark
+    static TimeSlotDTO toDto(TimeSlot timeSlot) {
+        return new TimeSlotDTO(
+                timeSlot.getId(),
+                timeSlot.getBranch().getId(),
+                timeSlot.getBranch().getName(),
+                timeSlot.getSlotDate(),
+                timeSlot.getStartTime(),
+                timeSlot.getEndTime(),
+                timeSlot.getCapacity(),
+                timeSlot.getBookedCount(),
+                timeSlot.getAvailable()
+        );
+    }
 }
\ No newline at end of file
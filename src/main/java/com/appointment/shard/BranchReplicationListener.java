@@ -0,0 +1,89 @@
+package com.appointment.shard;
+
+import com.appointment.entity.Branch;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copies every committed {@link Branch} insert or update to the other shards.
+ * Branches are small, rarely written reference data that every shard's
+ * {@code time_slots} rows point at, so each shard keeps a full copy under the
+ * same ids. Copies are upserts over plain JDBC, so replaying one is harmless.
+ */
+public class BranchReplicationListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(BranchReplicationListener.class);
+
+    // Must list every column of Branch
+    private static final String UPDATE_SQL = "UPDATE branches SET name = ?, address = ?, phone = ?, email = ?, " +
+            "operating_hours = ? WHERE id = ?";
+    private static final String INSERT_SQL = "INSERT INTO branches (name, address, phone, email, operating_hours, id) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+
+    public BranchReplicationListener(List<DataSource> shards) {
+        for (DataSource shard : shards) {
+            this.shards.add(new JdbcTemplate(shard));
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        // Hibernate calls every post-commit listener once any of them asks for the entity
+        if (event.getEntity() instanceof Branch branch) {
+            replicate(branch);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Branch branch) {
+            replicate(branch);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return Branch.class.equals(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was replicated before the commit
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Nothing was replicated before the commit
+    }
+
+    private void replicate(Branch branch) {
+        int source = ShardContext.currentOrDefault();
+        Object[] values = {branch.getName(), branch.getAddress(), branch.getPhone(), branch.getEmail(),
+                branch.getOperatingHours(), branch.getId()};
+        for (int shard = 0; shard < shards.size(); shard++) {
+            if (shard == source) {
+                continue;
+            }
+            try {
+                JdbcTemplate jdbc = shards.get(shard);
+                if (jdbc.update(UPDATE_SQL, values) == 0) {
+                    jdbc.update(INSERT_SQL, values);
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to replicate branch {} to shard {}", branch.getId(), shard, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.appointment.shard;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Which shard the current thread talks to. A transaction is pinned to the
+ * shard of its first shard-keyed repository call (or, failing that, of its
+ * first statement) for its whole life; outside a transaction, {@link #callOn}
+ * sets the shard for a block of work. Anything unscoped goes to shard 0.
+ * <p>
+ * The transaction pin is kept as a {@link TransactionSynchronization}, so it
+ * is suspended and resumed together with the transaction it belongs to.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> SCOPE = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * The shard the current transaction is pinned to, else the enclosing
+     * {@link #callOn} scope, else null.
+     */
+    public static Integer current() {
+        Integer pinned = transactionShard();
+        return pinned != null ? pinned : SCOPE.get();
+    }
+
+    public static int currentOrDefault() {
+        Integer shard = current();
+        return shard != null ? shard : 0;
+    }
+
+    public static <T> T callOn(int shard, Supplier<T> work) {
+        Integer previous = SCOPE.get();
+        SCOPE.set(shard);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void runOn(int shard, Runnable work) {
+        callOn(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    static Integer transactionShard() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof ShardPin pin) {
+                return pin.shard;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pins the current transaction to {@code shard}, or fails if it is
+     * already pinned to another one: a transaction holds one connection and
+     * cannot span shards.
+     */
+    static void pinTransaction(int shard) {
+        Integer pinned = transactionShard();
+        if (pinned == null) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new ShardPin(shard));
+            }
+        } else if (pinned != shard) {
+            throw new IllegalStateException("Transaction is bound to shard " + pinned
+                    + " and cannot also access shard " + shard);
+        }
+    }
+
+    static Integer scope() {
+        return SCOPE.get();
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            SCOPE.remove();
+        } else {
+            SCOPE.set(previous);
+        }
+    }
+
+    static void enter(int shard) {
+        SCOPE.set(shard);
+    }
+
+    private static final class ShardPin implements TransactionSynchronization {
+        private final int shard;
+
+        private ShardPin(int shard) {
+            this.shard = shard;
+        }
+    }
+}
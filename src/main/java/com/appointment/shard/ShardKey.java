@@ -0,0 +1,21 @@
+package com.appointment.shard;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the repository method parameter that decides which shard the call
+ * (and the transaction it runs in) goes to.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+
+    Type value() default Type.BRANCH_ID;
+
+    enum Type {
+        BRANCH_ID, BOOKING_REFERENCE
+    }
+}
@@ -0,0 +1,110 @@
+package com.appointment.shard;
+
+import com.appointment.entity.Appointment;
+import com.appointment.entity.TimeSlot;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes repository calls to a shard before they reach the database: by the
+ * {@link ShardKey} parameter, or for {@code save}/{@code delete} calls by the
+ * branch of the {@link TimeSlot} or {@link Appointment} being written. Inside
+ * a transaction the shard is pinned for the rest of it; outside one it only
+ * applies to this call. Calls with no shard key run wherever the current
+ * context points.
+ */
+public class ShardKeyInterceptor implements MethodInterceptor {
+
+    private static final ShardKey.Type[] NO_KEYS = new ShardKey.Type[0];
+
+    private final ShardMap shardMap;
+    private final Map<Method, ShardKey.Type[]> keysByMethod = new ConcurrentHashMap<>();
+
+    public ShardKeyInterceptor(ShardMap shardMap) {
+        this.shardMap = shardMap;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Integer shard = resolveShard(invocation.getMethod(), invocation.getArguments());
+        if (shard == null) {
+            return invocation.proceed();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            ShardContext.pinTransaction(shard);
+            return invocation.proceed();
+        }
+        Integer previous = ShardContext.scope();
+        ShardContext.enter(shard);
+        try {
+            return invocation.proceed();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    Integer resolveShard(Method method, Object[] arguments) {
+        ShardKey.Type[] keys = keysByMethod.computeIfAbsent(method, ShardKeyInterceptor::shardKeys);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && arguments[i] != null) {
+                return keys[i] == ShardKey.Type.BRANCH_ID
+                        ? shardMap.shardForBranch(((Number) arguments[i]).longValue())
+                        : shardMap.shardForReference(arguments[i].toString());
+            }
+        }
+        String name = method.getName();
+        if (arguments.length == 1 && (name.startsWith("save") || name.startsWith("delete"))) {
+            return shardForEntities(arguments[0]);
+        }
+        return null;
+    }
+
+    private Integer shardForEntities(Object argument) {
+        if (!(argument instanceof Iterable<?> entities)) {
+            return shardForEntity(argument);
+        }
+        Integer shard = null;
+        for (Object entity : entities) {
+            Integer entityShard = shardForEntity(entity);
+            if (shard == null) {
+                shard = entityShard;
+            } else if (entityShard != null && !entityShard.equals(shard)) {
+                throw new IllegalArgumentException("Batch spans shards " + shard + " and " + entityShard
+                        + "; write each branch's rows separately");
+            }
+        }
+        return shard;
+    }
+
+    private Integer shardForEntity(Object entity) {
+        if (entity instanceof Appointment appointment) {
+            entity = appointment.getTimeSlot();
+        }
+        if (entity instanceof TimeSlot timeSlot && timeSlot.getBranch() != null
+                && timeSlot.getBranch().getId() != null) {
+            return shardMap.shardForBranch(timeSlot.getBranch().getId());
+        }
+        return null;
+    }
+
+    private static ShardKey.Type[] shardKeys(Method method) {
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        ShardKey.Type[] keys = new ShardKey.Type[parameterAnnotations.length];
+        boolean found = false;
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof ShardKey shardKey) {
+                    keys[i] = shardKey.value();
+                    found = true;
+                }
+            }
+        }
+        return found ? keys : NO_KEYS;
+    }
+}
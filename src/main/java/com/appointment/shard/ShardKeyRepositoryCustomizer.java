@@ -0,0 +1,27 @@
+package com.appointment.shard;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Adds {@link ShardKeyInterceptor} as the outermost advice of every Spring
+ * Data repository, ahead of the repository's own transaction interceptor, so
+ * the shard is chosen before any connection is taken.
+ */
+public class ShardKeyRepositoryCustomizer implements BeanPostProcessor {
+
+    private final ShardKeyInterceptor interceptor;
+
+    public ShardKeyRepositoryCustomizer(ShardMap shardMap) {
+        this.interceptor = new ShardKeyInterceptor(shardMap);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0, interceptor)));
+        }
+        return bean;
+    }
+}
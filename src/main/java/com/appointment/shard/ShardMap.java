@@ -0,0 +1,107 @@
+package com.appointment.shard;
+
+import java.util.Arrays;
+
+/**
+ * Consistent-hash ring that assigns each branch to one of N shards. Every
+ * shard owns {@link #VIRTUAL_NODES} points on a 64-bit ring and a branch
+ * belongs to the shard owning the first point at or after the branch's hash,
+ * so adding a shard only moves the roughly 1/N of branches that land on its
+ * new points; nothing moves between the existing shards.
+ * <p>
+ * Shards are numbered by their position in the configuration (0 is the
+ * primary), and booking references written on shard {@code n > 0} end in
+ * {@code -n}, so a reference always resolves to the shard it was written to
+ * even after the ring changes.
+ */
+public final class ShardMap {
+
+    public static final int VIRTUAL_NODES = 128;
+
+    // Each shard's id sequences start at shard * ID_BLOCK so ids stay unique across shards
+    public static final long ID_BLOCK = 1L << 40;
+
+    private final int shardCount;
+    private final long[] points;
+    private final int[] owners;
+
+    public ShardMap(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardCount = shardCount;
+        long[][] ring = new long[shardCount * VIRTUAL_NODES][];
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < VIRTUAL_NODES; node++) {
+                ring[shard * VIRTUAL_NODES + node] = new long[]{mix(((long) shard << 32) | node), shard};
+            }
+        }
+        Arrays.sort(ring, (a, b) -> Long.compareUnsigned(a[0], b[0]));
+        this.points = new long[ring.length];
+        this.owners = new int[ring.length];
+        for (int i = 0; i < ring.length; i++) {
+            points[i] = ring[i][0];
+            owners[i] = (int) ring[i][1];
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardForBranch(long branchId) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        long hash = mix(branchId ^ 0x5DEECE66DL);
+        int low = 0;
+        int high = points.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(points[mid], hash) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        // Past the last point wraps around to the first
+        return owners[low == points.length ? 0 : low];
+    }
+
+    /**
+     * Shard encoded in a booking reference ({@code APT-YYYYMMDD-XXXXXX[-n]});
+     * references without a shard suffix, or with one outside this map, belong
+     * to shard 0.
+     */
+    public int shardForReference(String bookingReference) {
+        if (bookingReference == null) {
+            return 0;
+        }
+        int dash = bookingReference.lastIndexOf('-');
+        if (dash < 0 || dash == bookingReference.length() - 1
+                || bookingReference.chars().filter(c -> c == '-').count() < 3) {
+            return 0;
+        }
+        int shard = 0;
+        for (int i = dash + 1; i < bookingReference.length(); i++) {
+            char c = bookingReference.charAt(i);
+            if (c < '0' || c > '9' || shard > shardCount) {
+                return 0;
+            }
+            shard = shard * 10 + (c - '0');
+        }
+        return shard < shardCount ? shard : 0;
+    }
+
+    public static String referenceSuffix(int shard) {
+        return shard == 0 ? "" : "-" + shard;
+    }
+
+    // SplitMix64 finaliser: spreads sequential ids evenly over the ring
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
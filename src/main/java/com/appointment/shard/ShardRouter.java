@@ -0,0 +1,180 @@
+package com.appointment.shard;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Service-level entry point to sharding: which shard a branch or booking
+ * reference lives on, running a block of work against one shard, and
+ * fanning a read out to several shards in parallel. With no
+ * {@code appointment.datasource.shard.urls} there is a single shard and every
+ * method runs inline on the caller's thread.
+ * <p>
+ * A fan-out runs its last shard's read on the calling thread and hands the
+ * others to a pool shared by all requests. The pool keeps one idle thread
+ * per other shard and grows on demand up to
+ * {@code appointment.datasource.shard.fan-out-max-threads}; past that a read
+ * runs on the calling thread rather than queueing behind other requests.
+ */
+@Component
+public class ShardRouter {
+
+    private final ShardMap shardMap;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate shardReadTransaction;
+    private final TransactionTemplate primaryTransaction;
+    private final TransactionTemplate shardPrimaryTransaction;
+    private final ThreadPoolExecutor fanOutExecutor;
+
+    public ShardRouter(@Value("${appointment.datasource.shard.urls:}") List<String> shardUrls,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${appointment.datasource.shard.fan-out-max-threads:64}") int fanOutMaxThreads) {
+        int extraShards = (int) shardUrls.stream().filter(url -> !url.isBlank()).count();
+        this.shardMap = new ShardMap(1 + extraShards);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // A shard read may run on the calling thread: it must not join a transaction bound to another shard
+        this.shardReadTransaction = new TransactionTemplate(transactionManager);
+        this.shardReadTransaction.setReadOnly(true);
+        this.shardReadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.shardPrimaryTransaction = new TransactionTemplate(transactionManager);
+        this.shardPrimaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.fanOutExecutor = extraShards == 0 ? null
+                : new ThreadPoolExecutor(extraShards, Math.max(extraShards, fanOutMaxThreads), 60, TimeUnit.SECONDS,
+                        new SynchronousQueue<>(), new CustomizableThreadFactory("shard-fan-out-"),
+                        new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public boolean isSharded() {
+        return shardMap.getShardCount() > 1;
+    }
+
+    public int getShardCount() {
+        return shardMap.getShardCount();
+    }
+
+    public int shardForBranch(Long branchId) {
+        return shardMap.shardForBranch(branchId);
+    }
+
+    public int shardForReference(String bookingReference) {
+        return shardMap.shardForReference(bookingReference);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        return ShardContext.callOn(shard, work);
+    }
+
+    public void onShard(int shard, Runnable work) {
+        ShardContext.runOn(shard, work);
+    }
+
+    public <T> T onBranchShard(Long branchId, Supplier<T> work) {
+        return onShard(shardForBranch(branchId), work);
+    }
+
+    public void onBranchShard(Long branchId, Runnable work) {
+        onShard(shardForBranch(branchId), work);
+    }
+
+    /**
+     * Runs {@code query} in a read-only transaction on every shard, in
+     * parallel, and concatenates the results in shard order.
+     */
+    public <T> List<T> readAllShards(Supplier<List<T>> query) {
+        return readAllShards(query, readOnlyTransaction, shardReadTransaction);
+    }
+
+    /**
+     * As {@link #readAllShards}, but in read-write transactions, so no read
+     * is served by a replica that may not have the latest commits yet.
+     */
+    public <T> List<T> readAllShardsOnPrimary(Supplier<List<T>> query) {
+        return readAllShards(query, primaryTransaction, shardPrimaryTransaction);
+    }
+
+    private <T> List<T> readAllShards(Supplier<List<T>> query, TransactionTemplate transaction,
+                                      TransactionTemplate shardTransaction) {
+        if (!isSharded()) {
+            return transaction.execute(status -> query.get());
+        }
+        Map<Integer, Supplier<List<T>>> reads = new TreeMap<>();
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            reads.put(shard, query);
+        }
+        return fanOut(reads, shardTransaction);
+    }
+
+    /**
+     * Runs {@code query} once for each shard that owns any of
+     * {@code bookingReferences}, passing it just that shard's references, in
+     * parallel read-only transactions; results are concatenated in shard order.
+     */
+    public <T> List<T> readByReference(Collection<String> bookingReferences, Function<List<String>, List<T>> query) {
+        if (!isSharded()) {
+            List<String> references = List.copyOf(bookingReferences);
+            return readOnlyTransaction.execute(status -> query.apply(references));
+        }
+        Map<Integer, List<String>> referencesByShard = new TreeMap<>();
+        for (String bookingReference : bookingReferences) {
+            referencesByShard.computeIfAbsent(shardForReference(bookingReference), shard -> new ArrayList<>())
+                    .add(bookingReference);
+        }
+        Map<Integer, Supplier<List<T>>> reads = new TreeMap<>();
+        referencesByShard.forEach((shard, references) -> reads.put(shard, () -> query.apply(references)));
+        return fanOut(reads, shardReadTransaction);
+    }
+
+    private <T> List<T> fanOut(Map<Integer, Supplier<List<T>>> reads, TransactionTemplate shardTransaction) {
+        List<Map.Entry<Integer, Supplier<List<T>>>> shardReads = new ArrayList<>(reads.entrySet());
+        Map.Entry<Integer, Supplier<List<T>>> callerRead = shardReads.remove(shardReads.size() - 1);
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>();
+        for (Map.Entry<Integer, Supplier<List<T>>> read : shardReads) {
+            futures.add(CompletableFuture.supplyAsync(() -> readShard(read.getKey(), read.getValue(), shardTransaction), fanOutExecutor));
+        }
+        List<T> callerResults = readShard(callerRead.getKey(), callerRead.getValue(), shardTransaction);
+        List<T> results = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                results.addAll(future.join());
+            }
+            results.addAll(callerResults);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    private <T> List<T> readShard(int shard, Supplier<List<T>> read, TransactionTemplate shardTransaction) {
+        return onShard(shard, () -> shardTransaction.execute(status -> read.get()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.appointment.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections to the shard chosen by {@link ShardContext}, shard 0
+ * when nothing chose one. A transaction whose first statement runs unscoped
+ * is pinned to that shard, so a later shard-keyed call for another shard
+ * fails instead of silently reading the wrong database.
+ * <p>
+ * Must be wrapped in a {@code LazyConnectionDataSourceProxy} so the
+ * connection is fetched at the first statement, after the shard key is known.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = Collections.unmodifiableList(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int shard = ShardContext.currentOrDefault();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            ShardContext.pinTransaction(shard);
+        }
+        return shard;
+    }
+
+    public List<DataSource> getShards() {
+        return shards;
+    }
+
+    // Shard 0 is the primary bean in its own right; only the other pools are owned here
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : shards.subList(1, shards.size())) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
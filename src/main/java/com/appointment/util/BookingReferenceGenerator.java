@@ -1,5 +1,7 @@
 package com.appointment.util;
 
+import com.appointment.shard.ShardContext;
+import com.appointment.shard.ShardMap;
 import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -8,13 +10,15 @@ import java.util.UUID;
 public class BookingReferenceGenerator {
     /**
      * Generates a unique booking reference
-     * Format: APT-YYYYMMDD-XXXXXX
-     * Where XXXXXX is a 6-character alphanumeric code
+     * Format: APT-YYYYMMDD-XXXXXX[-N]
+     * Where XXXXXX is a 6-character alphanumeric code and N is the shard the
+     * current transaction writes to (omitted for shard 0), so lookups by
+     * reference go straight to the right shard
      */
     public String generateBookingReference() {
         String timestamp = LocalDateTime.now().toString().substring(0, 10).replace("-", "");
         String uuid = UUID.randomUUID().toString().replace("-", "").toUpperCase();
         String shortCode = uuid.substring(0, 6);
-        return "APT-" + timestamp + "-" + shortCode;
+        return "APT-" + timestamp + "-" + shortCode + ShardMap.referenceSuffix(ShardContext.currentOrDefault());
     }
 }
@@ -0,0 +1,39 @@
+package com.appointment.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate-samples a hot-path log statement: at most {@code permitsPerSecond}
+ * calls per one-second window are let through and the rest are counted, so
+ * a burst of rejections or bad tokens cannot flood the appender. The first
+ * statement let through after a drop reports how many were dropped.
+ */
+public class LogSampler {
+
+    private final int permitsPerSecond;
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicInteger permitsUsed = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogSampler(int permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    /**
+     * Returns -1 if the statement should be dropped, otherwise the number of
+     * statements dropped since the last one that was let through.
+     */
+    public long sample() {
+        long second = System.nanoTime() / 1_000_000_000L;
+        long windowSecond = currentSecond.get();
+        if (second != windowSecond && currentSecond.compareAndSet(windowSecond, second)) {
+            permitsUsed.set(0);
+        }
+        if (permitsUsed.incrementAndGet() > permitsPerSecond) {
+            suppressed.incrementAndGet();
+            return -1;
+        }
+        return suppressed.getAndSet(0);
+    }
+}
@@ -0,0 +1,60 @@
+package com.appointment.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket holding up to {@code capacity} tokens that refill
+ * at {@code refillPerSecond}. The whole state is one {@link AtomicLong}, the
+ * time at which the bucket would be full again (the generic cell rate
+ * algorithm), so taking a token is a single compare-and-set and a bucket
+ * that has refilled completely is indistinguishable from a new one.
+ * <p>
+ * Times are {@link System#nanoTime()} readings passed in by the caller.
+ */
+public final class TokenBucket {
+
+    private final int capacity;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity and refill rate must be positive");
+        }
+        this.capacity = capacity;
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token. Returns the tokens left (zero or more) if one was
+     * available, otherwise the negated nanoseconds until one will be.
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long start = current - nowNanos < 0 ? nowNanos : current;
+            long next = start + intervalNanos;
+            long debt = next - nowNanos;
+            if (debt > burstNanos) {
+                return -(debt - burstNanos);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return (burstNanos - debt) / intervalNanos;
+            }
+        }
+    }
+
+    /**
+     * True once the bucket has refilled completely, so dropping it loses nothing.
+     */
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
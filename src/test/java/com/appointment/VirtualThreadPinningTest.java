@@ -0,0 +1,72 @@
+package com.appointment;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guard for the virtual-thread mode (spring.threads.virtual.enabled on Java 21+):
+ * a virtual thread that blocks inside a {@code synchronized} method or block
+ * pins its carrier thread, so application code uses {@code ReentrantLock}
+ * instead. Scans the compiled main classes for synchronized methods and
+ * monitorenter instructions.
+ */
+class VirtualThreadPinningTest {
+
+    @Test
+    void mainClasses_ShouldNotUseMonitors() throws Exception {
+        // Given
+        Path classes = Paths.get(AppointmentBookingSystemApplication.class.getProtectionDomain()
+                .getCodeSource().getLocation().toURI());
+        List<String> offenders = new ArrayList<>();
+
+        // When
+        try (Stream<Path> files = Files.walk(classes)) {
+            for (Path file : (Iterable<Path>) files.filter(path -> path.toString().endsWith(".class"))::iterator) {
+                scan(file, offenders);
+            }
+        }
+
+        // Then
+        assertTrue(offenders.isEmpty(), "synchronized can pin virtual threads, use a ReentrantLock: " + offenders);
+    }
+
+    // Helper methods
+    private void scan(Path file, List<String> offenders) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            ClassReader reader = new ClassReader(in);
+            String className = reader.getClassName().replace('/', '.');
+            reader.accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor,
+                                                 String signature, String[] exceptions) {
+                    String method = className + "." + name;
+                    if ((access & Opcodes.ACC_SYNCHRONIZED) != 0) {
+                        offenders.add(method);
+                    }
+                    return new MethodVisitor(Opcodes.ASM9) {
+                        @Override
+                        public void visitInsn(int opcode) {
+                            if (opcode == Opcodes.MONITORENTER) {
+                                offenders.add(method);
+                            }
+                        }
+                    };
+                }
+            }, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        }
+    }
+}
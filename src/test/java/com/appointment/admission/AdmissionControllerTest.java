@@ -0,0 +1,166 @@
+package com.appointment.admission;
+
+import com.appointment.admission.AdmissionController.Priority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControllerTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Mock
+    private ConnectionPoolMonitor poolMonitor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionController admissionController;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Limit 10: low priority may use 5 slots, normal 8, critical all 10
+        admissionController = new AdmissionController(poolMonitor, meterRegistry, true,
+                10, 4, 100, 100, 0.5, 0.8, 0.5);
+    }
+
+    @Test
+    void tryAcquire_ShouldShedLowPriorityBeforeBookings() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            assertTrue(admissionController.tryAcquire(Priority.LOW));
+        }
+
+        // When & Then
+        assertFalse(admissionController.tryAcquire(Priority.LOW));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(admissionController.tryAcquire(Priority.CRITICAL));
+        }
+        assertFalse(admissionController.tryAcquire(Priority.CRITICAL));
+        assertEquals(10, admissionController.getInFlight());
+        assertEquals(1.0, meterRegistry.get(AdmissionController.REQUESTS_COUNTER)
+                .tags("priority", "low", "outcome", "shed").counter().count());
+    }
+
+    @Test
+    void tryAcquire_WhenThreadsWaitForConnections_ShouldShedLowPriorityOnly() {
+        // Given
+        when(poolMonitor.threadsAwaitingConnection()).thenReturn(3);
+
+        // When & Then
+        assertFalse(admissionController.tryAcquire(Priority.LOW));
+        assertTrue(admissionController.tryAcquire(Priority.NORMAL));
+        assertTrue(admissionController.tryAcquire(Priority.CRITICAL));
+    }
+
+    @Test
+    void onSample_WhenRequestsFail_ShouldBackOffMultiplicatively() {
+        // When
+        admissionController.onSample(0, 5 * MILLI, true, 10);
+        admissionController.onSample(100 * MILLI, 5 * MILLI, false, 10);
+
+        // Then
+        assertEquals(5.0, admissionController.getLimit(), 0.001);
+    }
+
+    @Test
+    void onSample_WithSteadyLatencyUnderLoad_ShouldRaiseTheLimit() {
+        // When
+        long now = 0;
+        for (int window = 0; window < 5; window++) {
+            admissionController.onSample(now, 5 * MILLI, false, 10);
+            now += 100 * MILLI;
+        }
+
+        // Then
+        assertTrue(admissionController.getLimit() > 10, "limit " + admissionController.getLimit());
+    }
+
+    @Test
+    void onSample_WhenLatencyClimbs_ShouldLowerTheLimit() {
+        // Given - a no-load baseline of 5 ms
+        admissionController.onSample(0, 5 * MILLI, false, 2);
+        admissionController.onSample(100 * MILLI, 5 * MILLI, false, 2);
+
+        // When - requests now take ten times as long, so most of the limit is queueing
+        admissionController.onSample(200 * MILLI, 50 * MILLI, false, 10);
+        admissionController.onSample(300 * MILLI, 50 * MILLI, false, 10);
+
+        // Then
+        assertTrue(admissionController.getLimit() < 10, "limit " + admissionController.getLimit());
+    }
+
+    @Test
+    void filter_WhenShed_ShouldAnswer503WithRetryAfter() throws Exception {
+        // Given
+        AdmissionControlFilter filter = new AdmissionControlFilter(admissionController, new ObjectMapper());
+        when(poolMonitor.threadsAwaitingConnection()).thenReturn(1);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/timeslots/available");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest(), "shed before reaching the controllers");
+        assertEquals(0, admissionController.getInFlight());
+    }
+
+    @Test
+    void filter_WhenAnsweredWithClientError_ShouldNotSampleItsLatency() throws Exception {
+        // Given - a rate-limited 429 returns in microseconds however loaded the server is
+        AdmissionController controller = mock(AdmissionController.class);
+        when(controller.isEnabled()).thenReturn(true);
+        when(controller.tryAcquire(Priority.NORMAL)).thenReturn(true);
+        AdmissionControlFilter filter = new AdmissionControlFilter(controller, new ObjectMapper());
+        MockHttpServletResponse rateLimited = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                response.setStatus(429);
+            }
+        });
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/appointments/my-appointments"), rateLimited, chain);
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/appointments/my-appointments"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        verify(controller).releaseWithoutSample();
+        verify(controller).release(anyLong(), eq(false));
+    }
+
+    @Test
+    void priorityOf_ShouldRankBookingsAboveBrowsing() {
+        // Given / When / Then
+        assertEquals(Priority.CRITICAL,
+                AdmissionControlFilter.priorityOf(new MockHttpServletRequest("POST", "/api/appointments")));
+        assertEquals(Priority.CRITICAL,
+                AdmissionControlFilter.priorityOf(new MockHttpServletRequest("DELETE", "/api/appointments/APT-1")));
+        assertEquals(Priority.NORMAL,
+                AdmissionControlFilter.priorityOf(new MockHttpServletRequest("GET", "/api/appointments/my-appointments")));
+        assertEquals(Priority.NORMAL,
+                AdmissionControlFilter.priorityOf(new MockHttpServletRequest("POST", "/api/appointments/lookup")));
+        assertEquals(Priority.LOW,
+                AdmissionControlFilter.priorityOf(new MockHttpServletRequest("GET", "/api/timeslots/available")));
+    }
+}
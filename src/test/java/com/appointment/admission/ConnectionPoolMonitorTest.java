@@ -0,0 +1,43 @@
+package com.appointment.admission;
+
+import com.appointment.shard.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionPoolMonitorTest {
+
+    @Test
+    void threadsAwaitingConnection_ShouldCountPoolsInsideRoutingDataSourcesOnce() {
+        // Given - the primary is a bean and shard 0; shard 1's pool exists only inside the router
+        HikariDataSource primary = pool(2);
+        HikariDataSource shard = pool(3);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("primaryDataSource", primary);
+        beanFactory.addBean("shardRoutingDataSource", new ShardRoutingDataSource(List.of(primary, shard)));
+        ConnectionPoolMonitor monitor = new ConnectionPoolMonitor(beanFactory.getBeanProvider(HikariDataSource.class),
+                beanFactory.getBeanProvider(AbstractRoutingDataSource.class));
+
+        // When
+        int waiting = monitor.threadsAwaitingConnection();
+
+        // Then
+        assertEquals(5, waiting);
+    }
+
+    // Helper methods
+    private static HikariDataSource pool(int threadsAwaiting) {
+        HikariPoolMXBean mxBean = mock(HikariPoolMXBean.class);
+        when(mxBean.getThreadsAwaitingConnection()).thenReturn(threadsAwaiting);
+        HikariDataSource pool = mock(HikariDataSource.class);
+        when(pool.getHikariPoolMXBean()).thenReturn(mxBean);
+        return pool;
+    }
+}
@@ -0,0 +1,119 @@
+package com.appointment.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Slow refill so nothing comes back while a test runs
+        filter = new RateLimitFilter(new ObjectMapper(), meterRegistry, true, 100,
+                3, 0.01, 2, 0.01, 1, 0.01);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_WithinBurst_ShouldPassThroughWithRemainingHeader() throws Exception {
+        // When
+        MockHttpServletResponse response = send("/api/timeslots/available", "10.0.0.1");
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals("3", response.getHeader("X-RateLimit-Limit"));
+        assertEquals("2", response.getHeader("X-RateLimit-Remaining"));
+    }
+
+    @Test
+    void doFilter_WhenBurstUsedUp_ShouldReturn429WithRetryAfter() throws Exception {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            send("/api/timeslots/available", "10.0.0.1");
+        }
+
+        // When
+        MockHttpServletResponse response = send("/api/timeslots/available", "10.0.0.1");
+
+        // Then
+        assertEquals(429, response.getStatus());
+        assertEquals("0", response.getHeader("X-RateLimit-Remaining"));
+        assertTrue(Long.parseLong(response.getHeader("Retry-After")) >= 1);
+        assertTrue(response.getContentAsString().contains("Too Many Requests"));
+        assertEquals(1.0, meterRegistry.get(RateLimitFilter.REQUESTS_COUNTER)
+                .tags("group", "availability", "outcome", "rejected").counter().count());
+        assertEquals(3.0, meterRegistry.get(RateLimitFilter.REQUESTS_COUNTER)
+                .tags("group", "availability", "outcome", "allowed").counter().count());
+    }
+
+    @Test
+    void doFilter_ShouldKeepSeparateBucketsPerIpUserAndGroup() throws Exception {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            send("/api/timeslots/available", "10.0.0.1");
+        }
+
+        // When & Then
+        assertEquals(200, send("/api/timeslots/available", "10.0.0.2").getStatus(), "other IP");
+        assertEquals(200, send("/api/appointments/my-appointments", "10.0.0.1").getStatus(), "other group");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "alice", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        assertEquals(200, send("/api/timeslots/available", "10.0.0.1").getStatus(), "signed in, limited per user");
+        assertEquals(4, filter.getClientCount());
+    }
+
+    @Test
+    void doFilter_OnUnlimitedPath_ShouldNotCountTheRequest() throws Exception {
+        // When
+        MockHttpServletResponse response = send("/api/admin/cache/statistics", "10.0.0.1");
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader("X-RateLimit-Limit"));
+        assertEquals(0, filter.getClientCount());
+    }
+
+    @Test
+    void doFilter_WhenClientMapIsFull_ShouldShareTheOverflowBucket() throws Exception {
+        // Given
+        filter = new RateLimitFilter(new ObjectMapper(), meterRegistry, true, 1,
+                3, 0.01, 2, 0.01, 1, 0.01);
+        send("/api/auth/login", "10.0.0.1");
+
+        // When
+        MockHttpServletResponse first = send("/api/auth/login", "10.0.0.2");
+        MockHttpServletResponse second = send("/api/auth/login", "10.0.0.3");
+
+        // Then
+        assertEquals(1, filter.getClientCount());
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+    }
+
+    // Helper methods
+    private MockHttpServletResponse send(String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
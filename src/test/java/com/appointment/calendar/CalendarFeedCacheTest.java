@@ -0,0 +1,229 @@
+package com.appointment.calendar;
+
+import com.appointment.controller.CalendarFeedController;
+import com.appointment.entity.Appointment;
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+import com.appointment.repository.AppointmentRepository;
+import com.appointment.repository.BranchRepository;
+import com.appointment.shard.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarFeedCacheTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CalendarFeedCache calendarFeedCache;
+    private Branch branch;
+
+    @BeforeEach
+    void setUp() {
+        calendarFeedCache = new CalendarFeedCache(appointmentRepository, branchRepository,
+                new ShardRouter(List.of(), transactionManager, 64), transactionManager, 100, 60_000);
+        branch = new Branch();
+        branch.setId(1L);
+        branch.setName("Main Branch");
+        branch.setAddress("1 High Street, Springfield");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void branchFeed_ShouldQueryOnceAndServeCachedBytes() {
+        // Given
+        when(appointmentRepository.findConfirmedWithTimeSlotAndBranchByBranchId(1L))
+                .thenReturn(List.of(appointment("APT-1", "Peter Test", LocalTime.of(9, 0))));
+
+        // When
+        CalendarFeed first = calendarFeedCache.branchFeed(1L);
+        CalendarFeed second = calendarFeedCache.branchFeed(1L);
+
+        // Then
+        assertSame(first, second);
+        String body = new String(first.getBody(), StandardCharsets.UTF_8);
+        assertTrue(body.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(body.contains("UID:APT-1@appointment-booking-system\r\n"));
+        assertTrue(body.contains("DTSTART:20300107T090000\r\nDTEND:20300107T093000\r\n"));
+        assertTrue(body.contains("LOCATION:1 High Street\\, Springfield\r\n"));
+        assertTrue(body.endsWith("END:VCALENDAR\r\n"));
+        verify(appointmentRepository, times(1)).findConfirmedWithTimeSlotAndBranchByBranchId(1L);
+    }
+
+    @Test
+    void feeds_ShouldLoadInReadWriteTransactionsSoTheyReadThePrimary() {
+        // Given - a replica behind a dropped patch would leave the booking out of the cached feed
+        when(appointmentRepository.findConfirmedWithTimeSlotAndBranchByBranchId(1L))
+                .thenReturn(List.of(appointment("APT-1", "Peter Test", LocalTime.of(9, 0))));
+        when(appointmentRepository.findConfirmedWithTimeSlotAndBranchByUsername("Peter Test"))
+                .thenReturn(List.of(appointment("APT-1", "Peter Test", LocalTime.of(9, 0))));
+
+        // When
+        calendarFeedCache.branchFeed(1L);
+        calendarFeedCache.customerFeed("Peter Test");
+
+        // Then
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(2)).getTransaction(definitions.capture());
+        definitions.getAllValues().forEach(definition -> assertFalse(definition.isReadOnly()));
+    }
+
+    @Test
+    void appointmentBooked_ShouldPatchCachedFeedsWithoutQuerying() {
+        // Given
+        when(appointmentRepository.findConfirmedWithTimeSlotAndBranchByBranchId(1L))
+                .thenReturn(List.of(appointment("APT-1", "Peter Test", LocalTime.of(9, 0))));
+        when(appointmentRepository.findConfirmedWithTimeSlotAndBranchByUsername("Peter Test"))
+                .thenReturn(List.of(appointment("APT-1", "Peter Test", LocalTime.of(9, 0))));
+        CalendarFeed branchFeed = calendarFeedCache.branchFeed(1L);
+        CalendarFeed customerFeed = calendarFeedCache.customerFeed("Peter Test");
+
+        // When
+        calendarFeedCache.appointmentBooked(appointment("APT-2", "Peter Test", LocalTime.of(10, 0)));
+
+        // Then
+        CalendarFeed patchedBranchFeed = calendarFeedCache.branchFeed(1L);
+        assertEquals(2, patchedBranchFeed.getEventCount());
+        assertNotEquals(branchFeed.getETag(), patchedBranchFeed.getETag());
+        assertEquals(2, calendarFeedCache.customerFeed("Peter Test").getEventCount());
+        assertNotEquals(customerFeed.getETag(), calendarFeedCache.customerFeed("Peter Test").getETag());
+        verify(appointmentRepository, times(1)).findConfirmedWithTimeSlotAndBranchByBranchId(1L);
+        verify(appointmentRepository, times(1)).findConfirmedWithTimeSlotAndBranchByUsername("Peter Test");
+    }
+
+    @Test
+    void appointmentCancelled_ShouldRestoreThePreviousBody() {
+        // Given
+        when(appointmentRepository.findConfirmedWithTimeSlotAndBranchByBranchId(1L))
+                .thenReturn(List.of(appointment("APT-1", "Peter Test", LocalTime.of(9, 0))));
+        CalendarFeed before = calendarFeedCache.branchFeed(1L);
+        Appointment booked = appointment("APT-2", "Anna Test", LocalTime.of(10, 0));
+        calendarFeedCache.appointmentBooked(booked);
+
+        // When
+        calendarFeedCache.appointmentCancelled(booked);
+
+        // Then
+        CalendarFeed after = calendarFeedCache.branchFeed(1L);
+        assertArrayEquals(before.getBody(), after.getBody());
+        assertEquals(before.getETag(), after.getETag());
+        assertEquals(1, calendarFeedCache.getCachedFeedCount(), "no feed created for the uncached customer");
+    }
+
+    @Test
+    void appointmentBooked_InsideTransaction_ShouldPatchOnlyAfterCommit() {
+        // Given
+        when(appointmentRepository.findConfirmedWithTimeSlotAndBranchByBranchId(1L)).thenReturn(List.of());
+        when(branchRepository.findById(1L)).thenReturn(Optional.of(branch));
+        calendarFeedCache.branchFeed(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        calendarFeedCache.appointmentBooked(appointment("APT-1", "Peter Test", LocalTime.of(9, 0)));
+
+        // Then
+        assertEquals(0, calendarFeedCache.branchFeed(1L).getEventCount(), "not visible before commit");
+        List<TransactionSynchronization> synchronizations =
+                new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, calendarFeedCache.branchFeed(1L).getEventCount());
+    }
+
+    @Test
+    void branchFeed_ShouldFoldLongLinesAt75Octets() {
+        // Given
+        Appointment appointment = appointment("APT-1", "Zoë Ålander-Ødegård ".repeat(8), LocalTime.of(9, 0));
+        when(appointmentRepository.findConfirmedWithTimeSlotAndBranchByBranchId(1L)).thenReturn(List.of(appointment));
+
+        // When
+        byte[] body = calendarFeedCache.branchFeed(1L).getBody();
+
+        // Then
+        String text = new String(body, StandardCharsets.UTF_8);
+        for (String line : text.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, "line too long: " + line);
+        }
+        String unfolded = text.replace("\r\n ", "");
+        assertTrue(unfolded.contains("SUMMARY:" + "Zoë Ålander-Ødegård ".repeat(8) + "\r\n"));
+    }
+
+    @Test
+    void controller_WithMatchingIfNoneMatch_ShouldAnswer304() throws Exception {
+        // Given
+        when(appointmentRepository.findConfirmedWithTimeSlotAndBranchByBranchId(1L))
+                .thenReturn(List.of(appointment("APT-1", "Peter Test", LocalTime.of(9, 0))));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new CalendarFeedController(calendarFeedCache,
+                mock(CalendarFeedTokenService.class))).build();
+        MvcResult first = mockMvc.perform(get("/api/admin/branches/{branchId}/calendar.ics", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/calendar;charset=UTF-8"))
+                .andReturn();
+        String eTag = first.getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/admin/branches/{branchId}/calendar.ics", 1L).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        calendarFeedCache.appointmentBooked(appointment("APT-2", "Anna Test", LocalTime.of(10, 0)));
+        mockMvc.perform(get("/api/admin/branches/{branchId}/calendar.ics", 1L).header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
+    // Helper methods
+    private Appointment appointment(String reference, String customerName, LocalTime start) {
+        TimeSlot timeSlot = new TimeSlot();
+        timeSlot.setBranch(branch);
+        timeSlot.setSlotDate(DATE);
+        timeSlot.setStartTime(start);
+        timeSlot.setEndTime(start.plusMinutes(30));
+
+        Appointment appointment = new Appointment();
+        appointment.setBookingReference(reference);
+        appointment.setCustomerName(customerName);
+        appointment.setCustomerEmail("customer@example.com");
+        appointment.setTimeSlot(timeSlot);
+        appointment.setCreatedAt(LocalDateTime.of(2030, 1, 1, 12, 0));
+        return appointment;
+    }
+}
@@ -0,0 +1,53 @@
+package com.appointment.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AotConditionCheckTest {
+
+    @Test
+    void ignoredSettings_WithReplicaUrlsAndNoReplicaConfig_ShouldReportThem() {
+        // Given
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(AotConditionCheck.REPLICA_URLS, "jdbc:h2:mem:replica");
+
+        // When
+        List<String> ignored = AotConditionCheck.ignoredSettings(environment, new StaticApplicationContext());
+
+        // Then
+        assertEquals(List.of(AotConditionCheck.REPLICA_URLS), ignored);
+    }
+
+    @Test
+    void ignoredSettings_WithShardUrlsAndNoShardConfig_ShouldReportOnlyShards() {
+        // Given - replicas alongside shards are ShardConfig's error to raise, not this check's
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(AotConditionCheck.REPLICA_URLS, "jdbc:h2:mem:replica")
+                .withProperty(ShardConfig.SHARD_URLS, "jdbc:h2:mem:shard1");
+
+        // When
+        List<String> ignored = AotConditionCheck.ignoredSettings(environment, new StaticApplicationContext());
+
+        // Then
+        assertEquals(List.of(ShardConfig.SHARD_URLS), ignored);
+    }
+
+    @Test
+    void ignoredSettings_WhenTheConfigurationWasBuiltIn_ShouldReportNothing() {
+        // Given
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(AotConditionCheck.REPLICA_URLS, "jdbc:h2:mem:replica");
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.registerBeanDefinition("readReplicaConfig", new RootBeanDefinition(ReadReplicaConfig.class));
+
+        // When & Then
+        assertTrue(AotConditionCheck.ignoredSettings(environment, context).isEmpty());
+        assertTrue(AotConditionCheck.ignoredSettings(new MockEnvironment(), new StaticApplicationContext()).isEmpty());
+    }
+}
@@ -0,0 +1,68 @@
+package com.appointment.config;
+
+import com.appointment.entity.AppointmentStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:seedtest",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "appointment.seed.branches=4",
+        "appointment.seed.days=3",
+        "appointment.seed.slots-per-day=5",
+        "appointment.seed.capacity=3",
+        "appointment.seed.users=50",
+        "appointment.seed.start-date=2030-01-07",
+        "appointment.jfr.summary.enabled=false"
+})
+@ActiveProfiles("seed")
+class BulkDataSeederTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void seeding_ShouldCreateConfiguredVolumes() {
+        // Then
+        assertEquals(4, count("SELECT COUNT(*) FROM branches WHERE name LIKE 'Seed Branch %'"));
+        assertEquals(4 * 3 * 5, count("SELECT COUNT(*) FROM time_slots ts JOIN branches b ON b.id = ts.branch_id "
+                + "WHERE b.name LIKE 'Seed Branch %'"));
+        assertEquals(50, count("SELECT COUNT(*) FROM users WHERE username LIKE 'seed-user-%'"));
+        assertEquals(LocalDate.of(2030, 1, 9), jdbcTemplate.queryForObject(
+                "SELECT MAX(slot_date) FROM time_slots", LocalDate.class));
+        assertTrue(count("SELECT COUNT(*) FROM appointments") > 0);
+    }
+
+    @Test
+    void seeding_ShouldKeepBookedCountConsistentWithAppointments() {
+        // Then
+        long inconsistent = count("SELECT COUNT(*) FROM time_slots ts WHERE ts.booked_count <> "
+                + "(SELECT COUNT(*) FROM appointments a WHERE a.time_slot_id = ts.id AND a.status = "
+                + AppointmentStatus.CONFIRMED.getCode() + ") OR ts.booked_count > ts.capacity "
+                + "OR ts.available <> (ts.booked_count < ts.capacity)");
+        assertEquals(0, inconsistent);
+        assertEquals(0, count("SELECT COUNT(*) FROM (SELECT time_slot_id, customer_email FROM appointments "
+                + "GROUP BY time_slot_id, customer_email HAVING COUNT(*) > 1)"));
+    }
+
+    @Test
+    void seeding_ShouldAdvanceIdSequencesPastSeededRows() {
+        // Then
+        long maxAppointmentId = count("SELECT MAX(id) FROM appointments");
+        long nextAppointmentId = count("SELECT NEXT VALUE FOR appointments_seq");
+        assertTrue(nextAppointmentId > maxAppointmentId);
+    }
+
+    // Helper methods
+    private long count(String sql) {
+        Long value = jdbcTemplate.queryForObject(sql, Long.class);
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,124 @@
+package com.appointment.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two H2 file databases stand in for the primary and a replica; each holds a
+ * marker row naming itself so the test can tell where a query was routed.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    @TempDir
+    Path dataDir;
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaRoutingDataSource routingDataSource;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate routedJdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = fileDatabase("primary");
+        DataSource replica = fileDatabase("replica");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        createMarker(primaryJdbc, "primary");
+        createMarker(replicaJdbc, "replica");
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica));
+        lagMonitor = new ReplicaLagMonitor(primary, routingDataSource, 5000);
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        routedJdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryJdbc.execute("SHUTDOWN");
+        replicaJdbc.execute("SHUTDOWN");
+    }
+
+    @Test
+    void readOnlyTransaction_WithHealthyReplica_ShouldRouteToReplica() {
+        // Given - replication has caught up with the primary's heartbeat
+        replicateHeartbeat(System.currentTimeMillis());
+        lagMonitor.checkReplicas();
+
+        // When & Then
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+        assertEquals("primary", readWrite.execute(status -> currentDatabase()));
+        assertEquals("primary", currentDatabase());
+    }
+
+    @Test
+    void readOnlyTransaction_BeforeFirstLagCheck_ShouldUsePrimary() {
+        // When & Then
+        assertTrue(routingDataSource.getHealthyReplicas().isEmpty());
+        assertEquals("primary", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readOnlyTransaction_WithLaggingReplica_ShouldFallBackToPrimary() {
+        // Given - replica is healthy first
+        replicateHeartbeat(System.currentTimeMillis());
+        lagMonitor.checkReplicas();
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+
+        // When - replica stops applying changes and its heartbeat falls behind
+        replicateHeartbeat(System.currentTimeMillis() - 60_000);
+        lagMonitor.checkReplicas();
+
+        // Then
+        assertTrue(routingDataSource.getHealthyReplicas().isEmpty());
+        assertEquals("primary", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readOnlyTransaction_WithUnreplicatedReplica_ShouldFallBackToPrimary() {
+        // When - replica has never received the heartbeat table
+        lagMonitor.checkReplicas();
+
+        // Then
+        assertEquals("primary", readOnly.execute(status -> currentDatabase()));
+    }
+
+    // Helper methods
+    private String currentDatabase() {
+        return routedJdbc.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private void replicateHeartbeat(long beatAt) {
+        replicaJdbc.execute(ReplicaLagMonitor.CREATE_HEARTBEAT_TABLE);
+        replicaJdbc.update("MERGE INTO replication_heartbeat (id, beat_at) KEY (id) VALUES (1, ?)", beatAt);
+    }
+
+    private DataSource fileDatabase(String name) {
+        return new DriverManagerDataSource("jdbc:h2:file:" + dataDir.resolve(name).toAbsolutePath(), "sa", "");
+    }
+
+    private static void createMarker(JdbcTemplate jdbc, String name) {
+        jdbc.execute("CREATE TABLE marker (name VARCHAR(20))");
+        jdbc.update("INSERT INTO marker VALUES (?)", name);
+    }
+}
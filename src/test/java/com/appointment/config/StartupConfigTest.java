@@ -0,0 +1,37 @@
+package com.appointment.config;
+
+import com.appointment.service.AppointmentArchiveService;
+import com.appointment.service.AppointmentService;
+import com.appointment.service.FlightEventSummaryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupConfigTest {
+
+    private final LazyInitializationExcludeFilter filter = StartupConfig.lifecycleBeansStayEager();
+
+    @Test
+    void lifecycleBeansStayEager_ShouldKeepScheduledAndPostConstructBeansEager() {
+        // Given / When / Then
+        assertTrue(isExcluded(ReplicaLagMonitor.class));
+        assertTrue(isExcluded(AppointmentArchiveService.class));
+        assertTrue(isExcluded(IdSequenceMigration.class));
+        assertTrue(isExcluded(AppointmentStatusMigration.class));
+        assertTrue(isExcluded(FlightEventSummaryService.class));
+    }
+
+    @Test
+    void lifecycleBeansStayEager_ShouldLeaveOrdinaryBeansLazy() {
+        // Given / When / Then
+        assertFalse(isExcluded(AppointmentService.class));
+        assertFalse(isExcluded(DataLoader.class));
+        assertFalse(isExcluded(null));
+    }
+
+    // Helper methods
+    private boolean isExcluded(Class<?> beanType) {
+        return filter.isExcluded("bean", null, beanType);
+    }
+}
@@ -1,5 +1,7 @@
 package com.appointment.controller;
 
+import com.appointment.dto.AppointmentLookupRequest;
+import com.appointment.dto.AppointmentLookupResponse;
 import com.appointment.dto.AppointmentRequest;
 import com.appointment.dto.AppointmentResponse;
 import com.appointment.service.AppointmentService;
@@ -16,6 +18,8 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -145,6 +149,47 @@ class AppointmentControllerMockTest {
         verify(appointmentService).getAppointmentByReference(VALID_BOOKING_REFERENCE);
     }
 
+    // LOOKUP APPOINTMENTS TESTS
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void lookupAppointments_WithReferences_ShouldReturnAppointmentsKeyedByReference() throws Exception {
+        // Given
+        AppointmentLookupRequest request = new AppointmentLookupRequest();
+        request.setBookingReferences(List.of(VALID_BOOKING_REFERENCE, INVALID_BOOKING_REFERENCE));
+
+        when(appointmentService.lookupAppointments(request.getBookingReferences()))
+                .thenReturn(new AppointmentLookupResponse(
+                        Map.of(VALID_BOOKING_REFERENCE, createMockAppointmentResponse()),
+                        List.of(INVALID_BOOKING_REFERENCE)));
+
+        // When & Then
+        mockMvc.perform(post("/api/appointments/lookup")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.appointments['" + VALID_BOOKING_REFERENCE + "'].customerName", is(CUSTOMER_NAME)))
+                .andExpect(jsonPath("$.notFound[0]", is(INVALID_BOOKING_REFERENCE)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void lookupAppointments_WithoutReferences_ShouldReturnBadRequest() throws Exception {
+        // Given
+        AppointmentLookupRequest request = new AppointmentLookupRequest();
+        request.setBookingReferences(List.of());
+
+        // When & Then
+        mockMvc.perform(post("/api/appointments/lookup")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(appointmentService);
+    }
+
     // CANCEL APPOINTMENT TESTS
 
     @Test
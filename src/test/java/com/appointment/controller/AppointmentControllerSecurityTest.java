@@ -0,0 +1,52 @@
+package com.appointment.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs requests through the application's real security filter chain, which
+ * the standalone {@link AppointmentControllerMockTest} bypasses.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:securitytest",
+        "spring.jpa.show-sql=false",
+        "appointment.jfr.summary.enabled=false"
+})
+@AutoConfigureMockMvc
+class AppointmentControllerSecurityTest {
+
+    private static final String LOOKUP_REQUEST = "{\"bookingReferences\":[\"APT-SECURITY-1\"]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void lookupAppointments_AsUser_ShouldBeForbidden() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/appointments/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(LOOKUP_REQUEST))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void lookupAppointments_AsAdmin_ShouldReturnOk() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/appointments/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(LOOKUP_REQUEST))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.notFound[0]", is("APT-SECURITY-1")));
+    }
+}
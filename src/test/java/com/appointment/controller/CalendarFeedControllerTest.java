@@ -0,0 +1,108 @@
+package com.appointment.controller;
+
+import com.appointment.calendar.CalendarFeedTokenService;
+import com.appointment.entity.Branch;
+import com.appointment.repository.BranchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.net.URI;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Subscribes the way a calendar app does, through the real security chain:
+ * a plain GET of the secret URL with no Authorization header.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:calendarfeedtest",
+        "spring.jpa.show-sql=false",
+        "appointment.jfr.summary.enabled=false"
+})
+@AutoConfigureMockMvc
+class CalendarFeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private CalendarFeedTokenService calendarFeedTokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Branch branch;
+
+    @BeforeEach
+    void setUp() {
+        branch = new Branch();
+        branch.setName("Calendar Branch " + System.nanoTime());
+        branch.setAddress("1 Feed Street");
+        branch = branchRepository.save(branch);
+    }
+
+    @Test
+    void subscribedCalendar_WithoutBearerToken_ShouldServeTheFeedAndRevalidate() throws Exception {
+        // Given
+        String feedToken = calendarFeedTokenService.rotateBranchToken(branch.getId());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/calendar/{feedToken}.ics", feedToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, startsWith("text/calendar")))
+                .andReturn();
+
+        // Then
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        assertTrue(result.getResponse().getContentAsString().contains(branch.getName()));
+        mockMvc.perform(get("/calendar/{feedToken}.ics", feedToken).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void subscribedCalendar_AfterRotation_ShouldRejectTheOldUrl() throws Exception {
+        // Given
+        String oldToken = calendarFeedTokenService.rotateBranchToken(branch.getId());
+
+        // When
+        String newToken = calendarFeedTokenService.rotateBranchToken(branch.getId());
+
+        // Then
+        mockMvc.perform(get("/calendar/{feedToken}.ics", oldToken)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/calendar/{feedToken}.ics", newToken)).andExpect(status().isOk());
+        mockMvc.perform(get("/calendar/{feedToken}.ics", "not-a-token")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "calendar-user", roles = "USER")
+    void rotateMyCalendarToken_ShouldReturnAUrlACalendarAppCanPoll() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(post("/api/appointments/my-appointments/calendar-token"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        URI feedUrl = URI.create(objectMapper.readTree(result.getResponse().getContentAsString())
+                .path("feedUrl").asText());
+        assertTrue(feedUrl.getPath().startsWith("/calendar/"), feedUrl.toString());
+        mockMvc.perform(get(feedUrl.getPath()).with(anonymous()))
+                .andExpect(status().isOk());
+    }
+}
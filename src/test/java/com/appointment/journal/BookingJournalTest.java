@@ -0,0 +1,231 @@
+package com.appointment.journal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingJournalTest {
+
+    private static final int SEGMENT_RECORDS = 4;
+
+    @TempDir
+    Path directory;
+
+    private BookingJournal journal;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void open_ShouldRecoverCountersByReplayingTheJournal() throws Exception {
+        // Given
+        journal = openJournal();
+        journal.record(JournalRecord.Type.RESERVE, 10L, 1L, 1, 2, true);
+        journal.record(JournalRecord.Type.RESERVE, 10L, 2L, 2, 2, false);
+        journal.record(JournalRecord.Type.RESERVE, 20L, 3L, 1, 5, true);
+        journal.record(JournalRecord.Type.CANCEL, 10L, 1L, 1, 2, true);
+        journal.record(JournalRecord.Type.RESERVE, 30L, 4L, 1, 1, false);
+        crash();
+
+        // When
+        journal = openJournal();
+
+        // Then
+        assertState(1, 2, true, journal.slotState(10L));
+        assertState(1, 5, true, journal.slotState(20L));
+        assertState(1, 1, false, journal.slotState(30L));
+        assertEquals(5, journal.status().getLastSequence());
+        assertEquals(5, journal.status().getRecoveredRecords());
+        assertEquals(2, segments().size(), "5 records over 4-record segments");
+    }
+
+    @Test
+    void open_ShouldReplayOnlyRecordsAfterTheLatestSnapshot() throws Exception {
+        // Given
+        journal = openJournal();
+        journal.record(JournalRecord.Type.RESERVE, 10L, 1L, 1, 3, true);
+        journal.record(JournalRecord.Type.RESERVE, 10L, 2L, 2, 3, true);
+        journal.snapshot();
+        journal.record(JournalRecord.Type.RESERVE, 10L, 3L, 3, 3, false);
+        crash();
+
+        // When
+        journal = openJournal();
+
+        // Then
+        assertEquals(2, journal.status().getSnapshotSequence());
+        assertEquals(1, journal.status().getRecoveredRecords());
+        assertState(3, 3, false, journal.slotState(10L));
+    }
+
+    @Test
+    void open_ShouldStopAtATornRecordAndKeepAppendingAfterTheLastGoodOne() throws Exception {
+        // Given
+        journal = openJournal();
+        journal.record(JournalRecord.Type.RESERVE, 10L, 1L, 1, 3, true);
+        journal.record(JournalRecord.Type.RESERVE, 10L, 2L, 2, 3, true);
+        crash();
+        corruptRecord(segments().get(0), 1);
+
+        // When
+        journal = openJournal();
+        journal.record(JournalRecord.Type.RELEASE, 10L, 0L, 0, -1, false);
+        crash();
+        journal = openJournal();
+
+        // Then
+        assertEquals(2, journal.status().getLastSequence());
+        assertState(0, 3, false, journal.slotState(10L));
+    }
+
+    @Test
+    void open_ShouldKeepArchivedSlotsRetiredAcrossSnapshotAndReplay() throws Exception {
+        // Given
+        journal = openJournal();
+        journal.record(JournalRecord.Type.RESERVE, 10L, 1L, 1, 3, true);
+        journal.record(JournalRecord.Type.RESERVE, 20L, 2L, 1, 3, true);
+        journal.snapshot();
+        journal.record(JournalRecord.Type.ARCHIVE, 10L, 0L, 0, -1, false);
+        assertNull(journal.slotState(10L));
+        crash();
+
+        // When
+        journal = openJournal();
+        journal.snapshot();
+        crash();
+        journal = openJournal();
+
+        // Then
+        assertNull(journal.slotState(10L));
+        assertState(1, 3, true, journal.slotState(20L));
+        assertEquals(1, journal.status().getTrackedSlots());
+    }
+
+    @Test
+    void record_WhenDisabled_ShouldNotTouchTheDirectory() throws Exception {
+        // Given
+        journal = new BookingJournal(false, directory.toString(), SEGMENT_RECORDS, 1, true);
+        journal.open();
+
+        // When
+        journal.record(JournalRecord.Type.RESERVE, 10L, 1L, 1, 3, true);
+
+        // Then
+        assertNull(journal.slotState(10L));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void record_WhenAppendFails_ShouldRollTheTransactionBack() throws Exception {
+        // Given
+        journal = openJournal();
+        journal.close();
+        RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+
+        // When
+        assertThrows(IllegalStateException.class, () -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> journal.record(JournalRecord.Type.RESERVE, 10L, 1L, 1, 3, true)));
+
+        // Then
+        assertFalse(transactionManager.committed);
+        assertTrue(transactionManager.rolledBack);
+        assertNull(journal.slotState(10L));
+    }
+
+    // Helper methods
+    private BookingJournal openJournal() throws IOException {
+        BookingJournal bookingJournal = new BookingJournal(true, directory.toString(), SEGMENT_RECORDS, 1, true);
+        bookingJournal.open();
+        return bookingJournal;
+    }
+
+    /**
+     * Stops the journal without the shutdown snapshot, as a crash would; every
+     * record has already been forced because sync-commit is on.
+     */
+    private void crash() throws Exception {
+        List<Path> snapshotsBefore = files("snapshot-");
+        journal.close();
+        for (Path snapshot : files("snapshot-")) {
+            if (!snapshotsBefore.contains(snapshot)) {
+                Files.delete(snapshot);
+            }
+        }
+        journal = null;
+    }
+
+    private void corruptRecord(Path segment, int index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), (long) index * JournalRecord.SIZE + 20);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        return files("journal-");
+    }
+
+    private List<Path> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Runs the transaction synchronizations as a real transaction manager
+     * would, and records how the transaction ended.
+     */
+    private static class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+        private boolean committed;
+        private boolean rolledBack;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            committed = true;
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rolledBack = true;
+        }
+    }
+
+    private void assertState(int booked, int capacity, boolean available, SlotCounters.SlotState state) {
+        assertNotNull(state);
+        assertEquals(booked, state.getBooked());
+        assertEquals(capacity, state.getCapacity());
+        assertEquals(available, state.isAvailable());
+    }
+}
@@ -0,0 +1,241 @@
+package com.appointment.load;
+
+import com.appointment.admission.AdmissionController;
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+import com.appointment.entity.User;
+import com.appointment.load.WorkloadProfile.Operation;
+import com.appointment.repository.BranchRepository;
+import com.appointment.repository.TimeSlotRepository;
+import com.appointment.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Overloads the API with admission control on: after a warm-up run, the same
+ * closed-loop trace is run with more and more client threads against a small
+ * connection pool, while a few clients keep firing unauthenticated requests
+ * that are refused in microseconds. Goodput (requests per second answered
+ * with something other than a 503, a server error or an auth failure from a
+ * shed login) is logged for each step and must hold near its peak as the
+ * offered load climbs past what the pool can serve. Run with
+ * {@code mvn test -Pbenchmark -Dtest=AdmissionOverloadBenchmark}; the client
+ * thread steps are set with {@code -Dload.overload.steps=8,32,128,512}, and
+ * {@code -Dload.admission=false} gives the same run without admission control
+ * for comparison. That run is expected to fail: it completes more requests,
+ * but at multi-second medians and with logins failing on Hikari connection
+ * timeouts. The {@link WorkloadProfile} {@code load.*} knobs apply as usual.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "debug=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "logging.level.com.appointment=WARN",
+        "logging.level.com.appointment.load=INFO",
+        "logging.level.org.hibernate=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.web=WARN",
+        "logging.level.com.appointment.exception=ERROR",
+        "appointment.jfr.summary.enabled=false",
+        "spring.datasource.hikari.maximum-pool-size=8",
+        "spring.datasource.hikari.minimum-idle=8",
+        "spring.datasource.hikari.connection-timeout=30000",
+        "appointment.rate-limit.enabled=false",
+        "appointment.admission.enabled=${load.admission:true}"
+})
+class AdmissionOverloadBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionOverloadBenchmark.class);
+
+    // Goodput at the heaviest step, as a share of the best step, below which throughput has collapsed
+    private static final double MIN_GOODPUT_SHARE = 0.75;
+    private static final int REFUSED_CLIENTS = 4;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AdmissionController admissionController;
+
+    private final WorkloadProfile profile = new WorkloadProfile();
+    private final List<Long> branchIds = new ArrayList<>();
+    private LocalDate firstDay;
+
+    @BeforeEach
+    void setUp() {
+        firstDay = LocalDate.now().plusDays(1);
+        seedUsers();
+        seedSchedule();
+    }
+
+    @Test
+    void overload_ShouldKeepGoodputNearItsPeak() throws Exception {
+        // Given
+        int[] steps = Arrays.stream(System.getProperty("load.overload.steps", "8,32,128,512").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        WorkloadTrace trace = WorkloadTrace.generate(profile);
+        Path outputDir = Paths.get("target", "load", "overload-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        log.info("Overload steps {} with {} requests each: {}", Arrays.toString(steps),
+                trace.getEntries().size(), profile);
+
+        // When
+        double[] goodput = new double[steps.length];
+        LongAdder refused = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService refusedClients = startRefusedClients(running, refused);
+        try {
+            // Warm-up, so JIT compilation is not mistaken for the no-load latency or for the peak
+            new LoadDriver("http://localhost:" + port, branchIds, firstDay, steps[0]).run(trace, profile.getUsers());
+            for (int i = 0; i < steps.length; i++) {
+                LoadDriver driver = new LoadDriver("http://localhost:" + port, branchIds, firstDay, steps[i]);
+                long elapsedNanos = driver.run(trace, profile.getUsers());
+                driver.report(elapsedNanos, outputDir.resolve("threads-" + steps[i]));
+                goodput[i] = useful(driver) / (elapsedNanos / 1e9);
+                log.info("{} client threads: goodput {} req/s, booking 503s {}, admission limit {}, "
+                                + "{} refused requests so far", steps[i], String.format("%,.0f", goodput[i]),
+                        driver.statusCounts(Operation.BOOK).getOrDefault(503, 0L),
+                        (int) admissionController.getLimit(), refused.sum());
+                assertServerErrorsAreOnlyShedding(driver);
+            }
+        } finally {
+            running.set(false);
+            refusedClients.shutdown();
+            refusedClients.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        // Then
+        double peak = Arrays.stream(goodput).max().orElse(0);
+        double heaviest = goodput[goodput.length - 1];
+        assertTrue(heaviest >= MIN_GOODPUT_SHARE * peak, String.format(
+                "goodput fell to %,.0f req/s at %d threads from a peak of %,.0f req/s",
+                heaviest, steps[steps.length - 1], peak));
+    }
+
+    // Helper methods
+    private ExecutorService startRefusedClients(AtomicBoolean running, LongAdder refused) {
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/appointments/my-appointments")).GET().build();
+        ExecutorService executor = Executors.newFixedThreadPool(REFUSED_CLIENTS);
+        for (int i = 0; i < REFUSED_CLIENTS; i++) {
+            executor.execute(() -> {
+                while (running.get()) {
+                    try {
+                        httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        refused.increment();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        // Keep hammering; the load steps report their own failures
+                    }
+                }
+            });
+        }
+        return executor;
+    }
+
+    // Answers that did the user's work; a sold-out 400 or duplicate 409 counts, a 403 after a shed login does not
+    private static long useful(LoadDriver driver) {
+        long useful = 0;
+        for (Operation operation : Operation.values()) {
+            for (Map.Entry<Integer, Long> status : driver.statusCounts(operation).entrySet()) {
+                int code = status.getKey();
+                if (code > 0 && code < 500 && code != 401 && code != 403) {
+                    useful += status.getValue();
+                }
+            }
+        }
+        return useful;
+    }
+
+    private static void assertServerErrorsAreOnlyShedding(LoadDriver driver) {
+        for (Operation operation : Operation.values()) {
+            for (Map.Entry<Integer, Long> status : driver.statusCounts(operation).entrySet()) {
+                assertTrue(status.getKey() > 0 && (status.getKey() < 500 || status.getKey() == 503),
+                        operation + " returned " + status.getValue() + " x status " + status.getKey());
+            }
+        }
+    }
+
+    private void seedUsers() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < profile.getUsers(); i++) {
+            if (!userRepository.existsByUsername(LoadDriver.username(i))) {
+                users.add(new User(LoadDriver.username(i), passwordEncoder.encode(LoadDriver.password(i)),
+                        List.of("ROLE_USER")));
+            }
+        }
+        userRepository.saveAll(users);
+    }
+
+    private void seedSchedule() {
+        List<TimeSlot> timeSlots = new ArrayList<>();
+        for (int b = 0; b < profile.getBranches(); b++) {
+            Branch branch = new Branch();
+            branch.setName("Overload Branch " + b + " " + System.nanoTime());
+            branch.setAddress(b + " Load Street");
+            branchIds.add(branchRepository.save(branch).getId());
+
+            for (int d = 0; d < profile.getDays(); d++) {
+                for (int s = 0; s < profile.getSlotsPerDay(); s++) {
+                    TimeSlot timeSlot = new TimeSlot();
+                    timeSlot.setBranch(branch);
+                    timeSlot.setSlotDate(firstDay.plusDays(d));
+                    timeSlot.setStartTime(LoadDriver.slotStart(s));
+                    timeSlot.setEndTime(LoadDriver.slotStart(s).plusMinutes(30));
+                    timeSlot.setCapacity(profile.getCapacity());
+                    timeSlot.setBookedCount(0);
+                    timeSlot.setAvailable(true);
+                    timeSlots.add(timeSlot);
+                }
+            }
+        }
+        timeSlotRepository.saveAll(timeSlots);
+    }
+}
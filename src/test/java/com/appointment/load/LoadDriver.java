@@ -0,0 +1,297 @@
+package com.appointment.load;
+
+import com.appointment.load.WorkloadProfile.Operation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays a {@link WorkloadTrace} against the REST API over local HTTP from a
+ * fixed pool of client threads and records per-operation latency in
+ * HdrHistograms.
+ * <p>
+ * Closed-loop traces (all offsets zero) are drained as fast as the clients
+ * go, except that a client told to back off with a 503 and
+ * {@code Retry-After} waits that long before its next request, as a real
+ * client would. Open-loop traces are dispatched at their recorded offsets and latency is
+ * measured from the intended start, so queueing behind a slow server shows up
+ * in the tail instead of being hidden (coordinated omission).
+ */
+public class LoadDriver {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final int LOGGED_SERVER_ERRORS = 10;
+
+    private final String baseUrl;
+    private final List<Long> branchIds;
+    private final LocalDate firstDay;
+    private final int threads;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Integer, LongAdder>> statuses = new EnumMap<>(Operation.class);
+    private final Map<Integer, ConcurrentLinkedDeque<String>> references = new ConcurrentHashMap<>();
+    private final AtomicInteger serverErrors = new AtomicInteger();
+    private AtomicReferenceArray<String> tokens;
+
+    public LoadDriver(String baseUrl, List<Long> branchIds, LocalDate firstDay, int threads) {
+        this.baseUrl = baseUrl;
+        this.branchIds = branchIds;
+        this.firstDay = firstDay;
+        this.threads = threads;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            statuses.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    public static String username(int user) {
+        return "load-user-" + user;
+    }
+
+    public static String password(int user) {
+        return "load-pass-" + user;
+    }
+
+    public static LocalTime slotStart(int slot) {
+        return LocalTime.of(8, 0).plusMinutes(30L * slot);
+    }
+
+    /**
+     * Runs every entry of the trace and returns the wall-clock duration in nanoseconds.
+     */
+    public long run(WorkloadTrace trace, int users) throws InterruptedException {
+        tokens = new AtomicReferenceArray<>(users);
+        List<WorkloadTrace.Entry> entries = trace.getEntries();
+        boolean openLoop = entries.stream().anyMatch(entry -> entry.getOffsetMicros() > 0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long startedAt = System.nanoTime();
+
+        try {
+            if (openLoop) {
+                for (WorkloadTrace.Entry entry : entries) {
+                    long intendedStart = startedAt + TimeUnit.MICROSECONDS.toNanos(entry.getOffsetMicros());
+                    long wait = intendedStart - System.nanoTime();
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                    executor.execute(() -> execute(entry, intendedStart));
+                }
+            } else {
+                AtomicInteger next = new AtomicInteger();
+                for (int t = 0; t < threads; t++) {
+                    executor.execute(() -> {
+                        int index;
+                        while ((index = next.getAndIncrement()) < entries.size()) {
+                            long retryAfterNanos = execute(entries.get(index), System.nanoTime());
+                            if (retryAfterNanos > 0) {
+                                try {
+                                    TimeUnit.NANOSECONDS.sleep(retryAfterNanos);
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                    return;
+                                }
+                            }
+                        }
+                    });
+                }
+            }
+        } finally {
+            executor.shutdown();
+            if (!executor.awaitTermination(30, TimeUnit.MINUTES)) {
+                executor.shutdownNow();
+            }
+        }
+        return System.nanoTime() - startedAt;
+    }
+
+    /**
+     * Logs a one-line summary per operation and writes each full percentile
+     * distribution to {@code <operation>.hgrm} in {@code outputDir}, in milliseconds.
+     */
+    public void report(long elapsedNanos, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        long total = histograms.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        log.info("Load run: {} requests in {} ms -> {} req/s", total, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                String.format("%,.0f", total / (elapsedNanos / 1e9)));
+
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            log.info("{} n={} p50={}ms p90={}ms p99={}ms p99.9={}ms max={}ms statuses={}",
+                    entry.getKey(), histogram.getTotalCount(),
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    String.format("%.2f", histogram.getMaxValue() / 1000.0), statusCounts(entry.getKey()));
+
+            Path file = outputDir.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    public Map<Integer, Long> statusCounts(Operation operation) {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.get(operation).forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    // Returns how long the server asked the client to back off for, or 0
+    private long execute(WorkloadTrace.Entry entry, long intendedStart) {
+        Operation operation = entry.getOperation();
+        int status;
+        long retryAfterNanos = 0;
+        try {
+            if (operation != Operation.LOGIN && tokens.get(entry.getUser()) == null) {
+                // A user's first request logs in; the LOGIN sample times just the exchange, while the
+                // operation keeps its intended start so its queueing delay stays in its own tail
+                long loginStart = System.nanoTime();
+                record(Operation.LOGIN, login(entry.getUser()), System.nanoTime(), loginStart);
+            }
+            HttpResponse<String> response = send(entry);
+            status = response.statusCode();
+            if (status >= 500 && serverErrors.getAndIncrement() < LOGGED_SERVER_ERRORS) {
+                log.warn("{} returned {}: {}", operation, status, response.body());
+            }
+            if (status == 503) {
+                retryAfterNanos = TimeUnit.SECONDS.toNanos(response.headers().firstValueAsLong("Retry-After").orElse(0));
+            }
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+        record(operation, status, System.nanoTime(), intendedStart);
+        return retryAfterNanos;
+    }
+
+    private HttpResponse<String> send(WorkloadTrace.Entry entry) throws IOException, InterruptedException {
+        int user = entry.getUser();
+        switch (entry.getOperation()) {
+            case LOGIN:
+                return loginExchange(user);
+            case BROWSE:
+                return exchange(authorized(user, "/api/timeslots/available?branchId=" + branchId(entry)
+                        + "&date=" + firstDay.plusDays(entry.getDay())).GET().build());
+            case BOOK:
+                return book(entry);
+            case MY_APPOINTMENTS:
+                return exchange(authorized(user, "/api/appointments/my-appointments").GET().build());
+            case CANCEL:
+                String reference = userReferences(user).pollLast();
+                if (reference == null) {
+                    // Nothing to cancel yet: fall back to what a real user would do next
+                    return exchange(authorized(user, "/api/appointments/my-appointments").GET().build());
+                }
+                return exchange(authorized(user, "/api/appointments/" + reference).DELETE().build());
+            default:
+                throw new IllegalArgumentException("Unknown operation " + entry.getOperation());
+        }
+    }
+
+    private int login(int user) throws IOException, InterruptedException {
+        return loginExchange(user).statusCode();
+    }
+
+    private HttpResponse<String> loginExchange(int user) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("username", username(user), "password", password(user)));
+        HttpResponse<String> response = exchange(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+        if (response.statusCode() == 200) {
+            tokens.set(user, objectMapper.readTree(response.body()).path("accessToken").asText());
+        }
+        return response;
+    }
+
+    private HttpResponse<String> book(WorkloadTrace.Entry entry) throws IOException, InterruptedException {
+        int user = entry.getUser();
+        Map<String, Object> request = Map.of(
+                "customerName", username(user),
+                "customerEmail", username(user) + "@example.com",
+                "customerPhone", "0820000000",
+                "branchId", branchId(entry),
+                "appointmentDate", firstDay.plusDays(entry.getDay()).toString(),
+                "startTime", slotStart(entry.getSlot()).toString());
+        HttpResponse<String> response = exchange(authorized(user, "/api/appointments")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(request)))
+                .build());
+        if (response.statusCode() == 200) {
+            JsonNode body = objectMapper.readTree(response.body());
+            userReferences(user).add(body.path("bookingReference").asText());
+        }
+        return response;
+    }
+
+    private HttpRequest.Builder authorized(int user, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        String token = tokens.get(user);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> exchange(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void record(Operation operation, int status, long finishedAt, long intendedStart) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(finishedAt - intendedStart);
+        histograms.get(operation).recordValue(Math.min(Math.max(micros, 1), MAX_LATENCY_MICROS));
+        statuses.get(operation).computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    private ConcurrentLinkedDeque<String> userReferences(int user) {
+        return references.computeIfAbsent(user, key -> new ConcurrentLinkedDeque<>());
+    }
+
+    private Long branchId(WorkloadTrace.Entry entry) {
+        return branchIds.get(entry.getBranch() % branchIds.size());
+    }
+
+    private static String millis(Histogram histogram, double percentile) {
+        return String.format("%.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+    }
+}
@@ -0,0 +1,108 @@
+package com.appointment.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Shape of a synthetic workload: how many virtual users and slots, the
+ * operation mix, and how skewed traffic is towards hot branches and freshly
+ * opened slots. Every setting can be overridden with a {@code load.*} system
+ * property, e.g. {@code -Dload.operations=50000 -Dload.weight.book=40}.
+ */
+public class WorkloadProfile {
+
+    private final long seed = Long.getLong("load.seed", 42L);
+    private final int users = Integer.getInteger("load.users", 50);
+    private final int branches = Integer.getInteger("load.branches", 10);
+    private final int days = Integer.getInteger("load.days", 7);
+    private final int slotsPerDay = Integer.getInteger("load.slots-per-day", 16);
+    private final int capacity = Integer.getInteger("load.capacity", 4);
+    private final int operations = Integer.getInteger("load.operations", 10_000);
+    private final int threads = Integer.getInteger("load.threads", 32);
+    // Arrivals per second for an open-loop run; 0 runs closed-loop as fast as the clients go
+    private final int ratePerSecond = Integer.getInteger("load.rate", 0);
+    private final int hotBranches = Integer.getInteger("load.hot-branches", 2);
+    private final double hotBranchShare = doubleProperty("load.hot-branch-share", 0.7);
+    // Share of bookings that pile onto the first slot of the newest bookable day
+    private final double hotOpeningShare = doubleProperty("load.hot-opening-share", 0.2);
+    private final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+
+    public WorkloadProfile() {
+        weights.put(Operation.LOGIN, Integer.getInteger("load.weight.login", 5));
+        weights.put(Operation.BROWSE, Integer.getInteger("load.weight.browse", 55));
+        weights.put(Operation.BOOK, Integer.getInteger("load.weight.book", 20));
+        weights.put(Operation.MY_APPOINTMENTS, Integer.getInteger("load.weight.my-appointments", 15));
+        weights.put(Operation.CANCEL, Integer.getInteger("load.weight.cancel", 5));
+    }
+
+    public enum Operation {
+        LOGIN, BROWSE, BOOK, MY_APPOINTMENTS, CANCEL
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    // Getters
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getBranches() {
+        return branches;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public int getSlotsPerDay() {
+        return slotsPerDay;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getOperations() {
+        return operations;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public int getHotBranches() {
+        return hotBranches;
+    }
+
+    public double getHotBranchShare() {
+        return hotBranchShare;
+    }
+
+    public double getHotOpeningShare() {
+        return hotOpeningShare;
+    }
+
+    public Map<Operation, Integer> getWeights() {
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        return "users=" + users + " branches=" + branches + " days=" + days + " slotsPerDay=" + slotsPerDay
+                + " capacity=" + capacity + " operations=" + operations + " threads=" + threads
+                + " rate=" + (ratePerSecond == 0 ? "closed-loop" : ratePerSecond + "/s")
+                + " hotBranches=" + hotBranches + "@" + hotBranchShare + " hotOpening=" + hotOpeningShare
+                + " weights=" + weights;
+    }
+}
@@ -0,0 +1,166 @@
+package com.appointment.load;
+
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+import com.appointment.entity.User;
+import com.appointment.load.WorkloadProfile.Operation;
+import com.appointment.repository.BranchRepository;
+import com.appointment.repository.TimeSlotRepository;
+import com.appointment.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the real REST endpoints over local HTTP with a synthetic workload
+ * (login, availability browsing, booking, my-appointments, cancellation) and
+ * writes per-endpoint HdrHistogram reports plus the trace that was run to
+ * {@code target/load/<timestamp>/}. Run with {@code mvn test -Pbenchmark
+ * -Dtest=WorkloadReplayBenchmark}; pass {@code -Dload.replay=<trace.ndjson>}
+ * to replay a recorded trace instead of generating one, and see
+ * {@link WorkloadProfile} for the {@code load.*} knobs. To compare thread
+ * models, replay the same trace with and without
+ * {@code -Dspring.threads.virtual.enabled=true} (needs Java 21+); the mode
+ * in effect is logged with the results.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "debug=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "logging.level.com.appointment=WARN",
+        "logging.level.com.appointment.load=INFO",
+        "logging.level.org.hibernate=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.web=WARN",
+        "logging.level.com.appointment.exception=ERROR",
+        "appointment.jfr.summary.enabled=false",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "appointment.rate-limit.enabled=false",
+        "appointment.admission.enabled=false"
+})
+class WorkloadReplayBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkloadReplayBenchmark.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Environment environment;
+
+    private final WorkloadProfile profile = new WorkloadProfile();
+    private final List<Long> branchIds = new ArrayList<>();
+    private LocalDate firstDay;
+
+    @BeforeEach
+    void setUp() {
+        firstDay = LocalDate.now().plusDays(1);
+        seedUsers();
+        seedSchedule();
+    }
+
+    @Test
+    void replayWorkload_ShouldNotProduceServerErrors() throws Exception {
+        // Given
+        Path outputDir = Paths.get("target", "load",
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        String replay = System.getProperty("load.replay");
+        WorkloadTrace trace;
+        if (replay != null) {
+            trace = WorkloadTrace.read(Paths.get(replay));
+            log.info("Replaying {} requests from {}", trace.getEntries().size(), replay);
+        } else {
+            trace = WorkloadTrace.generate(profile);
+            log.info("Generated {} requests: {}", trace.getEntries().size(), profile);
+        }
+        trace.write(outputDir.resolve("trace.ndjson"));
+        LoadDriver driver = new LoadDriver("http://localhost:" + port, branchIds, firstDay, profile.getThreads());
+
+        // When
+        long elapsedNanos = driver.run(trace, profile.getUsers());
+
+        // Then
+        log.info("Threads: {}, Tomcat max threads {}, Hikari pool {}",
+                Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform",
+                environment.getProperty("server.tomcat.threads.max", "200"),
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size"));
+        driver.report(elapsedNanos, outputDir);
+        log.info("Histograms and trace written to {}", outputDir.toAbsolutePath());
+        for (Operation operation : Operation.values()) {
+            for (Map.Entry<Integer, Long> status : driver.statusCounts(operation).entrySet()) {
+                assertTrue(status.getKey() > 0 && status.getKey() < 500,
+                        operation + " returned " + status.getValue() + " x status " + status.getKey());
+            }
+        }
+    }
+
+    // Helper methods
+    private void seedUsers() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < profile.getUsers(); i++) {
+            if (!userRepository.existsByUsername(LoadDriver.username(i))) {
+                users.add(new User(LoadDriver.username(i), passwordEncoder.encode(LoadDriver.password(i)),
+                        List.of("ROLE_USER")));
+            }
+        }
+        userRepository.saveAll(users);
+    }
+
+    private void seedSchedule() {
+        List<TimeSlot> timeSlots = new ArrayList<>();
+        for (int b = 0; b < profile.getBranches(); b++) {
+            Branch branch = new Branch();
+            branch.setName("Load Branch " + b + " " + System.nanoTime());
+            branch.setAddress(b + " Load Street");
+            branchIds.add(branchRepository.save(branch).getId());
+
+            for (int d = 0; d < profile.getDays(); d++) {
+                for (int s = 0; s < profile.getSlotsPerDay(); s++) {
+                    TimeSlot timeSlot = new TimeSlot();
+                    timeSlot.setBranch(branch);
+                    timeSlot.setSlotDate(firstDay.plusDays(d));
+                    timeSlot.setStartTime(LoadDriver.slotStart(s));
+                    timeSlot.setEndTime(LoadDriver.slotStart(s).plusMinutes(30));
+                    timeSlot.setCapacity(profile.getCapacity());
+                    timeSlot.setBookedCount(0);
+                    timeSlot.setAvailable(true);
+                    timeSlots.add(timeSlot);
+                }
+            }
+        }
+        timeSlotRepository.saveAll(timeSlots);
+    }
+}
@@ -0,0 +1,180 @@
+package com.appointment.load;
+
+import com.appointment.load.WorkloadProfile.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * An ordered list of requests to replay. Entries refer to branches, days and
+ * slots by index rather than database id, so a trace recorded against one
+ * database can be replayed against any other seeded with the same profile.
+ * Traces are stored as NDJSON, one entry per line.
+ */
+public class WorkloadTrace {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectReader entryReader = objectMapper.readerFor(Entry.class);
+    private static final ObjectWriter entryWriter = objectMapper.writerFor(Entry.class);
+
+    private final List<Entry> entries;
+
+    public WorkloadTrace(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Generates a deterministic trace for the profile: the same seed always
+     * yields the same sequence of users, operations, targets and arrival times.
+     */
+    public static WorkloadTrace generate(WorkloadProfile profile) {
+        Random random = new Random(profile.getSeed());
+        int totalWeight = profile.getWeights().values().stream().mapToInt(Integer::intValue).sum();
+        List<Entry> entries = new ArrayList<>(profile.getOperations());
+        double offsetMicros = 0;
+
+        for (int i = 0; i < profile.getOperations(); i++) {
+            if (profile.getRatePerSecond() > 0) {
+                // Poisson arrivals at the target rate
+                offsetMicros += -Math.log(1 - random.nextDouble()) * 1_000_000.0 / profile.getRatePerSecond();
+            }
+
+            Entry entry = new Entry();
+            entry.setOffsetMicros((long) offsetMicros);
+            entry.setUser(random.nextInt(profile.getUsers()));
+            entry.setOperation(pickOperation(profile.getWeights(), random.nextInt(totalWeight)));
+            entry.setBranch(pickBranch(profile, random));
+            entry.setDay(random.nextInt(profile.getDays()));
+            entry.setSlot(random.nextInt(profile.getSlotsPerDay()));
+
+            if (entry.getOperation() == Operation.BOOK && random.nextDouble() < profile.getHotOpeningShare()) {
+                entry.setDay(profile.getDays() - 1);
+                entry.setSlot(0);
+            }
+            entries.add(entry);
+        }
+        return new WorkloadTrace(entries);
+    }
+
+    public static WorkloadTrace read(Path path) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    entries.add(entryReader.readValue(line));
+                }
+            }
+        }
+        return new WorkloadTrace(entries);
+    }
+
+    public void write(Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (Entry entry : entries) {
+                writer.write(entryWriter.writeValueAsString(entry));
+                writer.write('\n');
+            }
+        }
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    private static Operation pickOperation(Map<Operation, Integer> weights, int roll) {
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            roll -= weight.getValue();
+            if (roll < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Operation weights must be positive");
+    }
+
+    private static int pickBranch(WorkloadProfile profile, Random random) {
+        int hot = Math.min(profile.getHotBranches(), profile.getBranches());
+        if (hot > 0 && (hot == profile.getBranches() || random.nextDouble() < profile.getHotBranchShare())) {
+            return random.nextInt(hot);
+        }
+        return hot + random.nextInt(profile.getBranches() - hot);
+    }
+
+    /**
+     * One request: who sends it, what it does, which branch/day/slot it targets
+     * and when it is due, in microseconds from the start of the run.
+     */
+    public static class Entry {
+        private long offsetMicros;
+        private int user;
+        private Operation operation;
+        private int branch;
+        private int day;
+        private int slot;
+
+        // Default constructor
+        public Entry() {
+        }
+
+        // Getters and setters
+        public long getOffsetMicros() {
+            return offsetMicros;
+        }
+
+        public void setOffsetMicros(long offsetMicros) {
+            this.offsetMicros = offsetMicros;
+        }
+
+        public int getUser() {
+            return user;
+        }
+
+        public void setUser(int user) {
+            this.user = user;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public void setOperation(Operation operation) {
+            this.operation = operation;
+        }
+
+        public int getBranch() {
+            return branch;
+        }
+
+        public void setBranch(int branch) {
+            this.branch = branch;
+        }
+
+        public int getDay() {
+            return day;
+        }
+
+        public void setDay(int day) {
+            this.day = day;
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        public void setSlot(int slot) {
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.appointment.repository;
+
+import com.appointment.entity.Appointment;
+import com.appointment.entity.AppointmentStatus;
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@code EXPLAIN} against the SQL Hibernate generates for every declared
+ * repository query and fails if H2 plans any of them as a full table scan.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.appointment.repository.RepositoryQueryPlanTest$RecordingStatementInspector"
+})
+class RepositoryQueryPlanTest {
+
+    private static final int BRANCHES = 5;
+    private static final int DAYS = 10;
+    private static final int SLOTS_PER_DAY = 8;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+
+    @Autowired
+    private ArchivedTimeSlotRepository archivedTimeSlotRepository;
+
+    private Branch branch;
+    private TimeSlot timeSlot;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        seedData();
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void appointmentRepositoryQueries_ShouldUseIndexes() {
+        appointmentRepository.findByBookingReference("APT-PLAN-0");
+        assertIndexedPlans("findByBookingReference");
+
+        appointmentRepository.findWithTimeSlotAndBranchByBookingReferenceIn(List.of("APT-PLAN-0", "APT-PLAN-1"));
+        assertIndexedPlans("findWithTimeSlotAndBranchByBookingReferenceIn");
+
+        appointmentRepository.findByUsernameOrderBySlotDateAndStartTime("Customer 1");
+        assertIndexedPlans("findByUsernameOrderBySlotDateAndStartTime");
+
+        appointmentRepository.findByCustomerEmailOrderByTimeSlotSlotDateAscTimeSlotStartTimeAsc("customer1@example.com");
+        assertIndexedPlans("findByCustomerEmailOrderByTimeSlotSlotDateAscTimeSlotStartTimeAsc");
+
+        appointmentRepository.findByCustomerEmail("customer1@example.com");
+        assertIndexedPlans("findByCustomerEmail");
+
+        appointmentRepository.countConfirmedAppointmentsByTimeSlot(timeSlot.getId());
+        assertIndexedPlans("countConfirmedAppointmentsByTimeSlot");
+
+        appointmentRepository.findConfirmedAppointmentsByBranchId(branch.getId());
+        assertIndexedPlans("findConfirmedAppointmentsByBranchId");
+
+        appointmentRepository.findConfirmedWithTimeSlotAndBranchByBranchId(branch.getId());
+        assertIndexedPlans("findConfirmedWithTimeSlotAndBranchByBranchId");
+
+        appointmentRepository.findConfirmedWithTimeSlotAndBranchByUsername("Customer 1");
+        assertIndexedPlans("findConfirmedWithTimeSlotAndBranchByUsername");
+
+        appointmentRepository.existsByTimeSlotIdAndCustomerEmail(timeSlot.getId(), "customer1@example.com");
+        assertIndexedPlans("existsByTimeSlotIdAndCustomerEmail");
+
+        List<Long> appointmentIds = appointmentRepository.findConfirmedIdsByTimeSlotIds(Set.of(timeSlot.getId()));
+        assertIndexedPlans("findConfirmedIdsByTimeSlotIds");
+
+        appointmentRepository.findWithTimeSlotAndBranchByIdIn(appointmentIds);
+        assertIndexedPlans("findWithTimeSlotAndBranchByIdIn");
+
+        appointmentRepository.cancelConfirmedByIds(appointmentIds);
+        assertIndexedPlans("cancelConfirmedByIds");
+    }
+
+    @Test
+    void timeSlotRepositoryQueries_ShouldUseIndexes() {
+        timeSlotRepository.findByBranchIdAndSlotDateAndAvailableTrue(branch.getId(), date);
+        assertIndexedPlans("findByBranchIdAndSlotDateAndAvailableTrue");
+
+        timeSlotRepository.findAvailableSlot(branch.getId(), date, LocalTime.of(9, 0));
+        assertIndexedPlans("findAvailableSlot");
+
+        timeSlotRepository.findByIdForUpdate(timeSlot.getId());
+        assertIndexedPlans("findByIdForUpdate");
+
+        timeSlotRepository.existsByTimeSlotAndCustomerEmail(timeSlot.getId(), "customer1@example.com");
+        assertIndexedPlans("existsByTimeSlotAndCustomerEmail");
+
+        timeSlotRepository.findSlotsByBranchAndDateRange(branch.getId(), date, date.plusDays(3));
+        assertIndexedPlans("findSlotsByBranchAndDateRange");
+
+        timeSlotRepository.findAvailableSlotsByBranchAndDateRange(branch.getId(), date, date.plusDays(3));
+        assertIndexedPlans("findAvailableSlotsByBranchAndDateRange");
+
+        timeSlotRepository.findByBranchIdAndSlotDate(branch.getId(), date);
+        assertIndexedPlans("findByBranchIdAndSlotDate");
+
+        List<Long> slotIds = timeSlotRepository.findSlotIdsByBranchAndDateRange(branch.getId(), date, date.plusDays(3));
+        assertIndexedPlans("findSlotIdsByBranchAndDateRange");
+
+        timeSlotRepository.findAllByIdForUpdate(slotIds);
+        assertIndexedPlans("findAllByIdForUpdate");
+
+        timeSlotRepository.recountAndCloseSlots(slotIds);
+        assertIndexedPlans("recountAndCloseSlots");
+    }
+
+    @Test
+    void userRepositoryQueries_ShouldUseIndexes() {
+        userRepository.findByUsername("admin");
+        assertIndexedPlans("findByUsername");
+
+        userRepository.existsByUsername("admin");
+        assertIndexedPlans("existsByUsername");
+    }
+
+    @Test
+    void archiveQueries_ShouldUseIndexes() {
+        List<Long> slotIds = timeSlotRepository.findSlotIdsBefore(date.plusDays(1), PageRequest.of(0, 10));
+        assertIndexedPlans("findSlotIdsBefore");
+
+        archivedAppointmentRepository.copyAppointmentsForTimeSlots(slotIds, LocalDateTime.now());
+        assertIndexedPlans("copyAppointmentsForTimeSlots");
+
+        appointmentRepository.deleteByTimeSlotIds(slotIds);
+        assertIndexedPlans("deleteByTimeSlotIds");
+
+        archivedTimeSlotRepository.copyTimeSlots(slotIds, LocalDateTime.now());
+        assertIndexedPlans("copyTimeSlots");
+
+        timeSlotRepository.deleteByIds(slotIds);
+        assertIndexedPlans("deleteByIds");
+
+        archivedAppointmentRepository.findByBookingReference("APT-PLAN-0");
+        assertIndexedPlans("ArchivedAppointmentRepository.findByBookingReference");
+
+        archivedAppointmentRepository.findByBookingReferenceIn(List.of("APT-PLAN-0", "APT-PLAN-1"));
+        assertIndexedPlans("ArchivedAppointmentRepository.findByBookingReferenceIn");
+    }
+
+    // Helper methods
+    private void assertIndexedPlans(String queryName) {
+        List<String> statements = RecordingStatementInspector.drain();
+        assertFalse(statements.isEmpty(), queryName + " did not reach the database");
+
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertNotNull(plan);
+            assertFalse(plan.toLowerCase(Locale.ROOT).contains("tablescan"),
+                    queryName + " degraded to a full table scan:\n" + plan);
+        }
+    }
+
+    private void seedData() {
+        int appointmentCount = 0;
+        date = LocalDate.now().plusDays(1);
+
+        for (int b = 0; b < BRANCHES; b++) {
+            Branch seededBranch = new Branch();
+            seededBranch.setName("Plan Branch " + b);
+            seededBranch.setAddress(b + " Plan Street");
+            entityManager.persist(seededBranch);
+
+            for (int d = 0; d < DAYS; d++) {
+                for (int s = 0; s < SLOTS_PER_DAY; s++) {
+                    TimeSlot seededSlot = new TimeSlot();
+                    seededSlot.setBranch(seededBranch);
+                    seededSlot.setSlotDate(date.plusDays(d));
+                    seededSlot.setStartTime(LocalTime.of(9, 0).plusMinutes(30L * s));
+                    seededSlot.setEndTime(LocalTime.of(9, 30).plusMinutes(30L * s));
+                    seededSlot.setCapacity(3);
+                    seededSlot.setBookedCount(2);
+                    seededSlot.setAvailable(s % 4 != 0);
+                    entityManager.persist(seededSlot);
+
+                    for (int a = 0; a < 2; a++) {
+                        Appointment appointment = new Appointment();
+                        appointment.setCustomerName("Customer " + appointmentCount % 97);
+                        appointment.setCustomerEmail("customer" + appointmentCount % 97 + "@example.com");
+                        appointment.setTimeSlot(seededSlot);
+                        appointment.setBookingReference("APT-PLAN-" + appointmentCount);
+                        appointment.setStatus(appointmentCount % 5 == 0 ? AppointmentStatus.CANCELLED : AppointmentStatus.CONFIRMED);
+                        entityManager.persist(appointment);
+                        appointmentCount++;
+                    }
+
+                    if (b == 0 && d == 0 && s == 0) {
+                        branch = seededBranch;
+                        timeSlot = seededSlot;
+                    }
+                }
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Collects every SQL statement Hibernate prepares so the test can EXPLAIN it.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+
+        static void clear() {
+            synchronized (STATEMENTS) {
+                STATEMENTS.clear();
+            }
+        }
+
+        static List<String> drain() {
+            synchronized (STATEMENTS) {
+                List<String> drained = new ArrayList<>(STATEMENTS);
+                STATEMENTS.clear();
+                return drained;
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.appointment.repository;
+
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk-loads time slots through Hibernate with JDBC batching off (one round
+ * trip per row, as IDENTITY ids forced) and on, and logs rows per second for
+ * each. Run with {@code mvn test -Pbenchmark}; the slot count defaults to 1M
+ * and can be changed with {@code -Dbenchmark.slots=}.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "logging.level.org.hibernate=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TimeSlotBulkLoadBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeSlotBulkLoadBenchmark.class);
+
+    private static final int SLOTS = Integer.getInteger("benchmark.slots", 1_000_000);
+    private static final int BRANCHES = 100;
+    private static final int SLOTS_PER_DAY = 10;
+    private static final int ROWS_PER_TRANSACTION = 5_000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    private TransactionTemplate transactionTemplate;
+    private List<Branch> branches;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        branches = new ArrayList<>();
+        for (int b = 0; b < BRANCHES; b++) {
+            Branch branch = new Branch();
+            branch.setName("Benchmark Branch " + b);
+            branch.setAddress(b + " Benchmark Street");
+            branches.add(branchRepository.save(branch));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        timeSlotRepository.deleteAllInBatch();
+        branchRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void bulkLoadTimeSlots() {
+        // Warm up the JIT and connection pool on a smaller load
+        load(Math.min(SLOTS, 50_000), 50);
+        timeSlotRepository.deleteAllInBatch();
+
+        double unbatched = load(SLOTS, 1);
+        timeSlotRepository.deleteAllInBatch();
+        double batched = load(SLOTS, 50);
+
+        log.info("Bulk load of {} slots: unbatched={} rows/s, batched={} rows/s ({}x)",
+                SLOTS, Math.round(unbatched), Math.round(batched), String.format("%.1f", batched / unbatched));
+        assertEquals(SLOTS, timeSlotRepository.count());
+    }
+
+    // Helper methods
+    private double load(int slots, int batchSize) {
+        long start = System.nanoTime();
+        for (int offset = 0; offset < slots; offset += ROWS_PER_TRANSACTION) {
+            int from = offset;
+            int to = Math.min(slots, offset + ROWS_PER_TRANSACTION);
+            transactionTemplate.executeWithoutResult(status -> insertSlots(from, to, batchSize));
+        }
+        return slots / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    private void insertSlots(int from, int to, int batchSize) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        session.setCacheMode(CacheMode.IGNORE);
+
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        for (int i = from; i < to; i++) {
+            int slotOfDay = i % SLOTS_PER_DAY;
+            int day = i / SLOTS_PER_DAY / BRANCHES;
+            TimeSlot timeSlot = new TimeSlot();
+            timeSlot.setBranch(entityManager.getReference(Branch.class, branches.get(i / SLOTS_PER_DAY % BRANCHES).getId()));
+            timeSlot.setSlotDate(firstDay.plusDays(day));
+            timeSlot.setStartTime(LocalTime.of(8, 0).plusMinutes(30L * slotOfDay));
+            timeSlot.setEndTime(LocalTime.of(8, 30).plusMinutes(30L * slotOfDay));
+            timeSlot.setCapacity(3);
+            timeSlot.setBookedCount(0);
+            timeSlot.setAvailable(true);
+            entityManager.persist(timeSlot);
+
+            if ((i - from + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.appointment.schedule;
+
+import com.appointment.dto.ScheduleSnapshotStatusResponse;
+import com.appointment.service.ScheduleSnapshotService;
+import com.appointment.shard.ShardRouter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes a synthetic schedule snapshot and times a warm boot: mapping the
+ * file and verifying its CRC, then one pass over every slot through the
+ * mapped columns. A second run times the whole
+ * {@link ScheduleSnapshotService#load()} path against a seeded H2 database,
+ * including the checksum query that decides whether the file is trusted,
+ * since that scan, not the mapping, is what a warm boot waits for. Run with
+ * {@code mvn test -Pbenchmark -Dtest=ScheduleSnapshotBenchmark}; the slot
+ * count defaults to 1M and can be changed with {@code -Dbenchmark.slots=}.
+ */
+@Tag("benchmark")
+class ScheduleSnapshotBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleSnapshotBenchmark.class);
+
+    private static final int SLOTS = Integer.getInteger("benchmark.slots", 1_000_000);
+    private static final int BRANCHES = 100;
+    private static final int SLOTS_PER_DAY = 20;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void warmBoot_ShouldMapAndVerifyMillionsOfSlotsInMilliseconds() throws Exception {
+        // Given
+        Path file = Paths.get("target", "benchmark", "schedule.snapshot");
+        LocalDate today = LocalDate.now();
+        ScheduleSnapshot.Builder builder = new ScheduleSnapshot.Builder(today);
+        int slotsPerBranch = SLOTS / BRANCHES;
+        long slotId = 1;
+        long bookedTotal = 0;
+        for (int b = 0; b < BRANCHES; b++) {
+            for (int s = 0; s < slotsPerBranch; s++) {
+                LocalTime start = LocalTime.of(8, 0).plusMinutes(30L * (s % SLOTS_PER_DAY));
+                builder.add(slotId++, b + 1, today.plusDays(s / SLOTS_PER_DAY), start, start.plusMinutes(30),
+                        4, s % 5, s % 5 < 4);
+                bookedTotal += s % 5;
+            }
+        }
+        long writeStarted = System.nanoTime();
+        builder.write(file);
+        log.info("Wrote {} slots in {} ms", builder.getSlotCount(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - writeStarted));
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            // When
+            long startedAt = System.nanoTime();
+            ScheduleSnapshot snapshot = ScheduleSnapshot.open(file);
+            long openedAt = System.nanoTime();
+            long booked = 0;
+            for (int i = 0; i < snapshot.getSlotCount(); i++) {
+                booked += snapshot.getBookedCount(i);
+            }
+            long scannedAt = System.nanoTime();
+
+            // Then
+            assertEquals(builder.checksum(), snapshot.getChecksum());
+            assertEquals(bookedTotal, booked);
+            log.info("Round {}: {} slots, {} MB: open + CRC {} ms, full scan {} ms", round, snapshot.getSlotCount(),
+                    snapshot.getFileSize() >> 20, String.format("%.1f", (openedAt - startedAt) / 1e6),
+                    String.format("%.1f", (scannedAt - openedAt) / 1e6));
+        }
+    }
+
+    @Test
+    void warmBoot_ThroughTheService_ShouldIncludeTheDatabaseCheck() throws Exception {
+        // Given
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:snapshotbenchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long seedStarted = System.nanoTime();
+        seedTimeSlots(jdbcTemplate);
+        log.info("Seeded {} slots in {} ms", SLOTS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStarted));
+        ShardRouter shardRouter = new ShardRouter(List.of(), new DataSourceTransactionManager(dataSource), 64);
+        ScheduleSnapshotService service = new ScheduleSnapshotService(jdbcTemplate, shardRouter, true,
+                Paths.get("target", "benchmark", "schedule-db.snapshot").toString(), 5000, false);
+        ScheduleSnapshot exported = service.export();
+        log.info("Exported {} slots in {} ms", exported.getSlotCount(), service.status().getExportMillis());
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            // When
+            long startedAt = System.nanoTime();
+            ScheduleSnapshot loaded = service.load();
+            long loadedAt = System.nanoTime();
+
+            // Then
+            ScheduleSnapshotStatusResponse status = service.status();
+            assertEquals("snapshot", status.getSource(), "an unchanged database must not force a rebuild");
+            assertEquals(SLOTS / BRANCHES * BRANCHES, loaded.getSlotCount());
+            log.info("Round {}: load() {} ms (open + CRC {} ms, database check {} ms), export for comparison {} ms",
+                    round, String.format("%.1f", (loadedAt - startedAt) / 1e6), status.getLoadMillis(),
+                    status.getValidateMillis(), status.getExportMillis());
+        }
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    // Helper methods
+    /**
+     * Same layout as the file-only run: BRANCHES branches, SLOTS_PER_DAY
+     * half-hour slots a day from today on, with the columns and indexes the
+     * checksum query reads.
+     */
+    private void seedTimeSlots(JdbcTemplate jdbcTemplate) {
+        int slotsPerBranch = SLOTS / BRANCHES;
+        jdbcTemplate.execute("CREATE TABLE time_slots (id BIGINT PRIMARY KEY, branch_id BIGINT NOT NULL, " +
+                "slot_date DATE NOT NULL, start_time TIME NOT NULL, end_time TIME NOT NULL, capacity INT NOT NULL, " +
+                "booked_count INT NOT NULL, available BOOLEAN NOT NULL, UNIQUE (branch_id, slot_date, start_time))");
+        jdbcTemplate.execute("CREATE INDEX idx_time_slots_slot_date ON time_slots (slot_date)");
+        jdbcTemplate.update("INSERT INTO time_slots SELECT x + 1, x / ? + 1, " +
+                        "DATEADD(DAY, MOD(x, ?) / ?, CURRENT_DATE), " +
+                        "DATEADD(MINUTE, 30 * MOD(MOD(x, ?), ?), TIME '08:00:00'), " +
+                        "DATEADD(MINUTE, 30 * MOD(MOD(x, ?), ?) + 30, TIME '08:00:00'), " +
+                        "4, MOD(MOD(x, ?), 5), MOD(MOD(x, ?), 5) < 4 FROM SYSTEM_RANGE(0, ?)",
+                slotsPerBranch, slotsPerBranch, SLOTS_PER_DAY, slotsPerBranch, SLOTS_PER_DAY,
+                slotsPerBranch, SLOTS_PER_DAY, slotsPerBranch, slotsPerBranch, slotsPerBranch * BRANCHES - 1);
+    }
+}
@@ -0,0 +1,146 @@
+package com.appointment.service;
+
+import com.appointment.calendar.CalendarFeedCache;
+import com.appointment.entity.Appointment;
+import com.appointment.entity.ArchivedAppointment;
+import com.appointment.entity.ArchivedTimeSlot;
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+import com.appointment.journal.BookingJournal;
+import com.appointment.journal.JournalRecord;
+import com.appointment.repository.AppointmentRepository;
+import com.appointment.repository.ArchivedAppointmentRepository;
+import com.appointment.repository.ArchivedTimeSlotRepository;
+import com.appointment.repository.TimeSlotRepository;
+import com.appointment.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "appointment.archive.chunk-size=2"
+})
+@Import({AppointmentArchiveService.class, ShardRouter.class})
+class AppointmentArchiveServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AppointmentArchiveService archiveService;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ArchivedTimeSlotRepository archivedTimeSlotRepository;
+
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+
+    @MockitoBean
+    private CalendarFeedCache calendarFeedCache;
+
+    @MockitoBean
+    private BookingJournal bookingJournal;
+
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+        Branch branch = new Branch();
+        branch.setName("Archive Branch");
+        branch.setAddress("1 Archive Road");
+        entityManager.persist(branch);
+
+        for (int daysAgo = 1; daysAgo <= 3; daysAgo++) {
+            TimeSlot pastSlot = createTimeSlot(branch, today.minusDays(daysAgo));
+            createAppointment(pastSlot, "APT-PAST-" + daysAgo);
+        }
+        TimeSlot futureSlot = createTimeSlot(branch, today.plusDays(1));
+        createAppointment(futureSlot, "APT-FUTURE-1");
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void archiveBefore_ShouldMovePastSlotsAndAppointmentsInChunks() {
+        // Given
+        when(bookingJournal.isEnabled()).thenReturn(true);
+
+        // When
+        int archived = archiveService.archiveBefore(today);
+
+        // Then
+        assertEquals(3, archived);
+        assertEquals(1, timeSlotRepository.count());
+        assertEquals(1, appointmentRepository.count());
+        assertEquals(3, archivedTimeSlotRepository.count());
+        assertEquals(3, archivedAppointmentRepository.count());
+
+        assertTrue(appointmentRepository.findByBookingReference("APT-FUTURE-1").isPresent());
+        ArchivedAppointment archivedAppointment = archivedAppointmentRepository
+                .findByBookingReference("APT-PAST-2").orElseThrow();
+        assertEquals("Archive Branch", archivedAppointment.getBranchName());
+        assertEquals(today.minusDays(2), archivedAppointment.getSlotDate());
+        assertEquals(LocalTime.of(9, 0), archivedAppointment.getStartTime());
+        assertNotNull(archivedAppointment.getArchivedAt());
+
+        ArchivedTimeSlot archivedSlot = archivedTimeSlotRepository.findById(archivedAppointment.getTimeSlotId())
+                .orElseThrow();
+        assertEquals(1, archivedSlot.getBookedCount());
+        // The journal stops tracking the archived slots
+        verify(bookingJournal, times(3)).record(eq(JournalRecord.Type.ARCHIVE), anyLong(), eq(0L), eq(0), eq(-1),
+                eq(false));
+    }
+
+    @Test
+    void archiveBefore_WithNothingToArchive_ShouldLeaveLiveTablesUntouched() {
+        // When
+        int archived = archiveService.archiveBefore(today.minusDays(10));
+
+        // Then
+        assertEquals(0, archived);
+        assertEquals(4, timeSlotRepository.count());
+        assertEquals(4, appointmentRepository.count());
+    }
+
+    // Helper methods
+    private TimeSlot createTimeSlot(Branch branch, LocalDate date) {
+        TimeSlot timeSlot = new TimeSlot();
+        timeSlot.setBranch(branch);
+        timeSlot.setSlotDate(date);
+        timeSlot.setStartTime(LocalTime.of(9, 0));
+        timeSlot.setEndTime(LocalTime.of(9, 30));
+        timeSlot.setCapacity(2);
+        timeSlot.setBookedCount(1);
+        return entityManager.persist(timeSlot);
+    }
+
+    private void createAppointment(TimeSlot timeSlot, String reference) {
+        Appointment appointment = new Appointment();
+        appointment.setTimeSlot(timeSlot);
+        appointment.setBookingReference(reference);
+        appointment.setCustomerName("Customer " + reference);
+        appointment.setCustomerEmail(reference.toLowerCase() + "@example.com");
+        entityManager.persist(appointment);
+    }
+}
@@ -1,16 +1,25 @@
 package com.appointment.service;
 
+import com.appointment.calendar.CalendarFeedCache;
+import com.appointment.dto.AppointmentLookupResponse;
 import com.appointment.dto.AppointmentRequest;
 import com.appointment.dto.AppointmentResponse;
 import com.appointment.entity.Appointment;
+import com.appointment.entity.AppointmentStatus;
+import com.appointment.entity.ArchivedAppointment;
 import com.appointment.entity.Branch;
 import com.appointment.entity.TimeSlot;
 import com.appointment.exception.DoubleBookingException;
 import com.appointment.exception.ResourceNotFoundException;
 import com.appointment.exception.SlotNotAvailableException;
+import com.appointment.journal.BookingJournal;
+import com.appointment.journal.JournalRecord;
 import com.appointment.repository.AppointmentRepository;
+import com.appointment.repository.ArchivedAppointmentRepository;
 import com.appointment.repository.TimeSlotRepository;
+import com.appointment.shard.ShardRouter;
 import com.appointment.util.BookingReferenceGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,10 +28,13 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +46,9 @@ class AppointmentServiceTest {
     @Mock
     private AppointmentRepository appointmentRepository;
 
+    @Mock
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+
     @Mock
     private TimeSlotRepository timeSlotRepository;
 
@@ -43,6 +58,15 @@ class AppointmentServiceTest {
     @Mock
     private BookingReferenceGenerator bookingReferenceGenerator;
 
+    @Mock
+    private BookingJournal bookingJournal;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CalendarFeedCache calendarFeedCache;
+
     @InjectMocks
     private AppointmentService appointmentService;
 
@@ -56,15 +80,22 @@ class AppointmentServiceTest {
     private TimeSlot availableTimeSlot;
     private Branch testBranch;
     private Appointment savedAppointment;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
         // Create the service with mocked dependencies
+        meterRegistry = new SimpleMeterRegistry();
         appointmentService = new AppointmentService(
                 appointmentRepository,
+                archivedAppointmentRepository,
                 timeSlotRepository,
                 emailService,
-                bookingReferenceGenerator
+                bookingReferenceGenerator,
+                new BookingMetrics(meterRegistry),
+                bookingJournal,
+                new ShardRouter(List.of(), transactionManager, 64),
+                calendarFeedCache
         );
         validRequest = createAppointmentRequest();
         testBranch = createTestBranch();
@@ -132,6 +163,13 @@ class AppointmentServiceTest {
         TimeSlot updatedTimeSlot = timeSlotCaptor.getValue();
         assertEquals(1, updatedTimeSlot.getBookedCount());
         assertTrue(updatedTimeSlot.getAvailable());
+        verify(bookingJournal).record(JournalRecord.Type.RESERVE, availableTimeSlot.getId(), 1L, 1,
+                availableTimeSlot.getCapacity(), true);
+        // Verify every stage was timed and tagged with the outcome
+        assertEquals(1, meterRegistry.get(BookingMetrics.TOTAL_TIMER)
+                .tags("branch", "1", "outcome", "success").timer().count());
+        assertEquals(BookingMetrics.Stage.values().length, meterRegistry.get(BookingMetrics.STAGE_TIMER)
+                .tags("outcome", "success").timers().size());
     }
 
     @Test
@@ -154,6 +192,9 @@ class AppointmentServiceTest {
         verify(timeSlotRepository, never()).existsByTimeSlotAndCustomerEmail(any(), any());
         verify(appointmentRepository, never()).save(any());
         verify(emailService, never()).sendAppointmentConfirmation(any());
+        // The request's branch id is not trusted as a tag value until a slot confirms it
+        assertEquals(1, meterRegistry.get(BookingMetrics.TOTAL_TIMER)
+                .tags("branch", BookingMetrics.UNKNOWN_BRANCH, "outcome", "sold_out").timer().count());
     }
 
     @Test
@@ -180,6 +221,10 @@ class AppointmentServiceTest {
 
         verify(appointmentRepository, never()).save(any());
         verify(emailService, never()).sendAppointmentConfirmation(any());
+        assertEquals(1, meterRegistry.get(BookingMetrics.TOTAL_TIMER)
+                .tags("outcome", "double_booking").timer().count());
+        assertEquals(2, meterRegistry.get(BookingMetrics.STAGE_TIMER)
+                .tags("outcome", "double_booking").timers().size());
     }
 
     @Test
@@ -300,6 +345,80 @@ class AppointmentServiceTest {
         verify(appointmentRepository).findByBookingReference(invalidReference);
     }
 
+    @Test
+    void getAppointmentByReference_WithArchivedReference_ShouldFallBackToArchive() {
+        // Given
+        String archivedReference = "APT-20230101-OLD123";
+        ArchivedAppointment archived = new ArchivedAppointment();
+        archived.setId(42L);
+        archived.setBookingReference(archivedReference);
+        archived.setCustomerName("Peter Test");
+        archived.setCustomerEmail("peter@example.com");
+        archived.setStatus(AppointmentStatus.COMPLETED);
+        archived.setSlotDate(LocalDate.of(2023, 1, 2));
+        archived.setStartTime(LocalTime.of(9, 0));
+        archived.setEndTime(LocalTime.of(9, 30));
+        archived.setBranchName("Test Branch");
+
+        when(appointmentRepository.findByBookingReference(archivedReference))
+                .thenReturn(Optional.empty());
+        when(archivedAppointmentRepository.findByBookingReference(archivedReference))
+                .thenReturn(Optional.of(archived));
+
+        // When
+        AppointmentResponse response = appointmentService.getAppointmentByReference(archivedReference);
+
+        // Then
+        assertEquals(archivedReference, response.getBookingReference());
+        assertEquals("COMPLETED", response.getStatus());
+        assertEquals(LocalDate.of(2023, 1, 2), response.getAppointmentDate());
+        assertEquals("Test Branch", response.getBranchName());
+    }
+
+    @Test
+    void lookupAppointments_ShouldResolveInOneQueryAndReportMisses() {
+        // Given
+        String archivedReference = "APT-20230101-OLD123";
+        ArchivedAppointment archived = new ArchivedAppointment();
+        archived.setId(42L);
+        archived.setBookingReference(archivedReference);
+        archived.setStatus(AppointmentStatus.COMPLETED);
+        archived.setSlotDate(LocalDate.of(2023, 1, 2));
+        archived.setBranchName("Test Branch");
+
+        when(appointmentRepository.findWithTimeSlotAndBranchByBookingReferenceIn(
+                List.of("APT-ABC123", archivedReference, "APT-MISSING")))
+                .thenReturn(List.of(savedAppointment));
+        when(archivedAppointmentRepository.findByBookingReferenceIn(Set.of(archivedReference, "APT-MISSING")))
+                .thenReturn(List.of(archived));
+
+        // When
+        AppointmentLookupResponse response = appointmentService.lookupAppointments(
+                List.of("APT-ABC123", archivedReference, "APT-MISSING", "APT-ABC123"));
+
+        // Then
+        assertEquals(List.of("APT-ABC123", archivedReference), List.copyOf(response.getAppointments().keySet()));
+        assertEquals("Test Branch", response.getAppointments().get("APT-ABC123").getBranchName());
+        assertEquals("COMPLETED", response.getAppointments().get(archivedReference).getStatus());
+        assertEquals(List.of("APT-MISSING"), response.getNotFound());
+        verify(appointmentRepository, never()).findByBookingReference(any());
+    }
+
+    @Test
+    void lookupAppointments_WhenAllFound_ShouldSkipTheArchive() {
+        // Given
+        when(appointmentRepository.findWithTimeSlotAndBranchByBookingReferenceIn(List.of("APT-ABC123")))
+                .thenReturn(List.of(savedAppointment));
+
+        // When
+        AppointmentLookupResponse response = appointmentService.lookupAppointments(List.of("APT-ABC123"));
+
+        // Then
+        assertEquals(1, response.getAppointments().size());
+        assertTrue(response.getNotFound().isEmpty());
+        verifyNoInteractions(archivedAppointmentRepository);
+    }
+
     @Test
     void cancelAppointment_WithValidReference_ShouldCancelAndUpdateTimeSlot() {
         // Given
@@ -311,6 +430,8 @@ class AppointmentServiceTest {
 
         when(appointmentRepository.findByBookingReference(bookingReference))
                 .thenReturn(Optional.of(savedAppointment));
+        when(timeSlotRepository.findByIdForUpdate(savedAppointment.getTimeSlot().getId()))
+                .thenReturn(Optional.of(savedAppointment.getTimeSlot()));
 
         // Mock the count to return 1 after cancellation (2 bookings - 1 cancelled = 1 remaining)
         when(appointmentRepository.countConfirmedAppointmentsByTimeSlot(
@@ -328,7 +449,7 @@ class AppointmentServiceTest {
         verify(appointmentRepository).save(appointmentCaptor.capture());
 
         Appointment cancelledAppointment = appointmentCaptor.getValue();
-        assertEquals("CANCELLED", cancelledAppointment.getStatus());
+        assertEquals(AppointmentStatus.CANCELLED, cancelledAppointment.getStatus());
 
         // Verify time slot was updated
         verify(timeSlotRepository).save(timeSlotCaptor.capture());
@@ -340,6 +461,8 @@ class AppointmentServiceTest {
         // Should be available now since bookedCount (1) < capacity (3)
         assertTrue(updatedTimeSlot.getAvailable());
 
+        verify(bookingJournal).record(JournalRecord.Type.CANCEL, updatedTimeSlot.getId(), savedAppointment.getId(),
+                1, updatedTimeSlot.getCapacity(), true);
         verify(emailService).sendAppointmentCancellation(any(Appointment.class));
     }
 
@@ -427,7 +550,7 @@ class AppointmentServiceTest {
         appointment.setCustomerPhone("+1-555-0100");
         appointment.setTimeSlot(availableTimeSlot);
         appointment.setBookingReference("APT-ABC123");
-        appointment.setStatus("CONFIRMED");
+        appointment.setStatus(AppointmentStatus.CONFIRMED);
         return appointment;
     }
 
@@ -0,0 +1,249 @@
+package com.appointment.service;
+
+import com.appointment.dto.AppointmentRequest;
+import com.appointment.dto.AppointmentResponse;
+import com.appointment.entity.AppointmentStatus;
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+import com.appointment.exception.DoubleBookingException;
+import com.appointment.exception.SlotNotAvailableException;
+import com.appointment.journal.BookingJournal;
+import com.appointment.journal.SlotCounters;
+import com.appointment.repository.BranchRepository;
+import com.appointment.repository.TimeSlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires concurrent createAppointment / cancelAppointment calls from many
+ * threads at a handful of small-capacity slots in the real H2 database, then
+ * checks for every slot that {@code booked_count} equals the number of
+ * non-cancelled appointments and that neither exceeds capacity. Logs
+ * throughput, latency percentiles and the outcome mix.
+ * Run with {@code mvn test -Pbenchmark}; {@code -Dstress.threads=} and
+ * {@code -Dstress.operations=} change the load. With
+ * {@code -Dappointment.journal.enabled=true} the booking journal's counters
+ * must match {@code booked_count} as well.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "debug=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "logging.level.com.appointment=WARN",
+        "logging.level.com.appointment.service.BookingConcurrencyStressBenchmark=INFO",
+        "logging.level.org.hibernate=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.web=WARN",
+        "appointment.jfr.summary.enabled=false",
+        "spring.datasource.hikari.maximum-pool-size=32"
+})
+class BookingConcurrencyStressBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingConcurrencyStressBenchmark.class);
+
+    private static final int THREADS = Integer.getInteger("stress.threads", 32);
+    private static final int OPERATIONS = Integer.getInteger("stress.operations", 5_000);
+    private static final int SLOTS = 8;
+    private static final int CANCEL_PERCENT = 30;
+    // A small customer pool so some bookings collide on the duplicate check too
+    private static final int CUSTOMERS = 200;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private BookingJournal bookingJournal;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Branch branch;
+    private LocalDate date;
+    private List<TimeSlot> timeSlots;
+
+    @BeforeEach
+    void setUp() {
+        date = LocalDate.now().plusDays(30);
+        branch = new Branch();
+        branch.setName("Stress Branch " + System.nanoTime());
+        branch.setAddress("1 Stress Street");
+        branch = branchRepository.save(branch);
+
+        timeSlots = new ArrayList<>();
+        for (int i = 0; i < SLOTS; i++) {
+            TimeSlot timeSlot = new TimeSlot();
+            timeSlot.setBranch(branch);
+            timeSlot.setSlotDate(date);
+            timeSlot.setStartTime(LocalTime.of(9, 0).plusMinutes(30L * i));
+            timeSlot.setEndTime(LocalTime.of(9, 30).plusMinutes(30L * i));
+            timeSlot.setCapacity(1 + i % 3);
+            timeSlot.setBookedCount(0);
+            timeSlot.setAvailable(true);
+            timeSlots.add(timeSlotRepository.save(timeSlot));
+        }
+    }
+
+    @Test
+    void concurrentBookingsAndCancellations_ShouldNeverOverbook() throws InterruptedException {
+        // Given
+        ConcurrentLinkedQueue<String> bookedReferences = new ConcurrentLinkedQueue<>();
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        long[] latencies = new long[OPERATIONS];
+        AtomicInteger nextOperation = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // When
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    int operation;
+                    while ((operation = nextOperation.getAndIncrement()) < OPERATIONS) {
+                        long startedAt = System.nanoTime();
+                        String outcome = runOperation(bookedReferences);
+                        latencies[operation] = System.nanoTime() - startedAt;
+                        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        assertTrue(done.await(10, TimeUnit.MINUTES), "Stress run did not finish");
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        // Then
+        report(outcomes, latencies, elapsedNanos);
+        assertTrue(outcomes.containsKey("booked"), "No booking succeeded");
+        assertInvariantHolds();
+    }
+
+    // Helper methods
+    private String runOperation(ConcurrentLinkedQueue<String> bookedReferences) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            if (random.nextInt(100) < CANCEL_PERCENT) {
+                String reference = bookedReferences.poll();
+                if (reference == null) {
+                    return "cancel_skipped";
+                }
+                appointmentService.cancelAppointment(reference);
+                return "cancelled";
+            }
+
+            TimeSlot timeSlot = timeSlots.get(random.nextInt(SLOTS));
+            AppointmentResponse response = appointmentService.createAppointment(
+                    createRequest(timeSlot, random.nextInt(CUSTOMERS)));
+            bookedReferences.add(response.getBookingReference());
+            return "booked";
+        } catch (SlotNotAvailableException e) {
+            return "sold_out";
+        } catch (DoubleBookingException e) {
+            return "double_booking";
+        } catch (IllegalStateException e) {
+            return "already_cancelled";
+        } catch (RuntimeException e) {
+            // Lock timeouts, deadlocks and the like: counted, the invariant check decides pass/fail
+            return "error:" + e.getClass().getSimpleName();
+        }
+    }
+
+    private AppointmentRequest createRequest(TimeSlot timeSlot, int customer) {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setBranchId(branch.getId());
+        request.setAppointmentDate(date);
+        request.setStartTime(timeSlot.getStartTime());
+        request.setCustomerName("Stress Customer " + customer);
+        request.setCustomerEmail("stress" + customer + "@example.com");
+        request.setCustomerPhone("0820000000");
+        return request;
+    }
+
+    private void assertInvariantHolds() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT ts.id, ts.capacity, ts.booked_count, " +
+                "(SELECT COUNT(*) FROM appointments a WHERE a.time_slot_id = ts.id " +
+                "AND a.status <> ?) AS active " +
+                "FROM time_slots ts WHERE ts.branch_id = ? ORDER BY ts.id",
+                AppointmentStatus.CANCELLED.getCode(), branch.getId());
+
+        assertEquals(SLOTS, rows.size());
+        List<String> violations = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            long capacity = ((Number) row.get("CAPACITY")).longValue();
+            long bookedCount = ((Number) row.get("BOOKED_COUNT")).longValue();
+            long active = ((Number) row.get("ACTIVE")).longValue();
+            if (bookedCount != active || active > capacity) {
+                violations.add("slot " + row.get("ID") + ": capacity=" + capacity
+                        + " booked_count=" + bookedCount + " active=" + active);
+            }
+            SlotCounters.SlotState journalState = bookingJournal.slotState(((Number) row.get("ID")).longValue());
+            if (bookingJournal.isEnabled() && journalState != null && journalState.getBooked() != bookedCount) {
+                violations.add("slot " + row.get("ID") + ": booked_count=" + bookedCount
+                        + " journal=" + journalState.getBooked());
+            }
+        }
+        assertTrue(violations.isEmpty(), "Capacity invariant violated:\n" + String.join("\n", violations));
+    }
+
+    private void report(Map<String, LongAdder> outcomes, long[] latencies, long elapsedNanos) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        Map<String, Long> mix = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> mix.put(outcome, count.sum()));
+
+        log.info("Stress run: {} ops on {} threads in {} ms -> {} ops/s",
+                OPERATIONS, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                String.format("%,.0f", OPERATIONS / (elapsedNanos / 1e9)));
+        log.info("Latency ms: p50={} p90={} p99={} p99.9={} max={}",
+                millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99), millis(sorted, 0.999),
+                String.format("%.2f", sorted[sorted.length - 1] / 1e6));
+        log.info("Outcomes: {}", mix);
+    }
+
+    private String millis(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return String.format("%.2f", sorted[Math.max(0, index)] / 1e6);
+    }
+}
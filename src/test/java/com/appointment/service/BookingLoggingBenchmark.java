@@ -0,0 +1,228 @@
+package com.appointment.service;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.appointment.calendar.CalendarFeedCache;
+import com.appointment.dto.AppointmentRequest;
+import com.appointment.entity.Appointment;
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+import com.appointment.journal.BookingJournal;
+import com.appointment.repository.AppointmentRepository;
+import com.appointment.repository.ArchivedAppointmentRepository;
+import com.appointment.repository.TimeSlotRepository;
+import com.appointment.shard.ShardRouter;
+import com.appointment.util.BookingReferenceGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures createAppointment throughput under the development logging setup
+ * (DEBUG, synchronous appender flushing every line) and the prod profile setup
+ * (INFO, lossy async appender). Repositories are stubs so logging dominates
+ * the difference. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class BookingLoggingBenchmark {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(BookingLoggingBenchmark.class);
+
+    private static final int THREADS = 8;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(10);
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss} - %logger{36} - %-5level - %msg %kvp%n";
+
+    @TempDir
+    private Path logDir;
+
+    private final LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+    private final List<Appender<ILoggingEvent>> originalAppenders = new ArrayList<>();
+    private Level originalRootLevel;
+    private Level originalAppLevel;
+    private boolean loggingRestored;
+
+    private AppointmentService appointmentService;
+    private AppointmentRequest request;
+
+    @BeforeEach
+    void setUp() {
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+            originalAppenders.add(it.next());
+        }
+        originalAppenders.forEach(root::detachAppender);
+        originalRootLevel = root.getLevel();
+        originalAppLevel = loggerContext.getLogger("com.appointment").getLevel();
+
+        appointmentService = createService();
+        request = new AppointmentRequest();
+        request.setCustomerName("Benchmark Customer");
+        request.setCustomerEmail("benchmark@example.com");
+        request.setCustomerPhone("+1-555-0100");
+        request.setBranchId(1L);
+        request.setAppointmentDate(LocalDate.now().plusDays(1));
+        request.setStartTime(LocalTime.of(9, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        restoreLogging();
+    }
+
+    @Test
+    void bookingThroughput_DevelopmentVersusProductionLogging() throws Exception {
+        // When
+        useLogging(Level.DEBUG, false, "development.log");
+        double development = measure();
+        useLogging(Level.INFO, true, "production.log");
+        double production = measure();
+
+        // Then
+        restoreLogging();
+        log.info("createAppointment with {} threads: development logging={} ops/s, production logging={} ops/s ({}x)",
+                THREADS, Math.round(development), Math.round(production),
+                String.format("%.1f", production / development));
+        assertTrue(development > 0 && production > 0);
+    }
+
+    // Helper methods
+    private double measure() throws InterruptedException {
+        run(WARMUP);
+        return run(MEASUREMENT) / (MEASUREMENT.toNanos() / 1_000_000_000.0);
+    }
+
+    private long run(Duration duration) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        LongAdder bookings = new LongAdder();
+        CountDownLatch done = new CountDownLatch(THREADS);
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    appointmentService.createAppointment(request);
+                    bookings.increment();
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return bookings.sum();
+    }
+
+    private void restoreLogging() {
+        if (loggingRestored) {
+            return;
+        }
+        loggingRestored = true;
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        originalAppenders.forEach(root::addAppender);
+        root.setLevel(originalRootLevel);
+        loggerContext.getLogger("com.appointment").setLevel(originalAppLevel);
+    }
+
+    private void useLogging(Level appLevel, boolean async, String fileName) {
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(loggerContext);
+        file.setFile(logDir.resolve(fileName).toString());
+        file.setEncoder(encoder);
+        file.setImmediateFlush(!async);
+        file.start();
+
+        Appender<ILoggingEvent> appender = file;
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(loggerContext);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(file);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+
+        root.addAppender(appender);
+        root.setLevel(Level.INFO);
+        loggerContext.getLogger("com.appointment").setLevel(appLevel);
+    }
+
+    private AppointmentService createService() {
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class, withSettings().stubOnly());
+        TimeSlotRepository timeSlotRepository = mock(TimeSlotRepository.class, withSettings().stubOnly());
+        ArchivedAppointmentRepository archivedAppointmentRepository =
+                mock(ArchivedAppointmentRepository.class, withSettings().stubOnly());
+
+        Branch branch = new Branch();
+        branch.setId(1L);
+        branch.setName("Benchmark Branch");
+        branch.setAddress("1 Benchmark Street");
+        TimeSlot timeSlot = new TimeSlot();
+        timeSlot.setId(1L);
+        timeSlot.setBranch(branch);
+        timeSlot.setSlotDate(LocalDate.now().plusDays(1));
+        timeSlot.setStartTime(LocalTime.of(9, 0));
+        timeSlot.setEndTime(LocalTime.of(9, 30));
+        timeSlot.setCapacity(3);
+        timeSlot.setBookedCount(0);
+        timeSlot.setAvailable(true);
+
+        when(timeSlotRepository.findAvailableSlot(anyLong(), any(), any())).thenReturn(Optional.of(timeSlot));
+        when(timeSlotRepository.existsByTimeSlotAndCustomerEmail(anyLong(), anyString())).thenReturn(false);
+        when(appointmentRepository.countConfirmedAppointmentsByTimeSlot(anyLong())).thenReturn(0);
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        return new AppointmentService(
+                appointmentRepository,
+                archivedAppointmentRepository,
+                timeSlotRepository,
+                new EmailService(null, null),
+                new BookingReferenceGenerator(),
+                new BookingMetrics(new SimpleMeterRegistry()),
+                new BookingJournal(false, "data/journal", 1, 5, false),
+                new ShardRouter(List.of(), mock(PlatformTransactionManager.class), 64),
+                mock(CalendarFeedCache.class));
+    }
+}
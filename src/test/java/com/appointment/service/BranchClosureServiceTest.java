@@ -0,0 +1,164 @@
+package com.appointment.service;
+
+import com.appointment.calendar.CalendarFeedCache;
+import com.appointment.dto.BranchClosureResponse;
+import com.appointment.entity.Appointment;
+import com.appointment.entity.AppointmentStatus;
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+import com.appointment.exception.ResourceNotFoundException;
+import com.appointment.journal.BookingJournal;
+import com.appointment.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "appointment.closure.slot-chunk-size=2",
+        "appointment.closure.email-batch-size=2"
+})
+@Import({BranchClosureService.class, ShardRouter.class})
+class BranchClosureServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BranchClosureService branchClosureService;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @MockitoBean
+    private BookingJournal bookingJournal;
+
+    @MockitoBean
+    private CalendarFeedCache calendarFeedCache;
+
+    private Branch branch;
+    private LocalDate date;
+    private TimeSlot closedSlot;
+    private TimeSlot openSlot;
+
+    @BeforeEach
+    void setUp() {
+        date = LocalDate.now().plusDays(1);
+        branch = createBranch("Closing Branch");
+        Branch otherBranch = createBranch("Open Branch");
+
+        closedSlot = createTimeSlot(branch, date, LocalTime.of(9, 0));
+        TimeSlot secondSlot = createTimeSlot(branch, date, LocalTime.of(10, 0));
+        TimeSlot nextDaySlot = createTimeSlot(branch, date.plusDays(1), LocalTime.of(9, 0));
+        openSlot = createTimeSlot(branch, date.plusDays(5), LocalTime.of(9, 0));
+        TimeSlot otherBranchSlot = createTimeSlot(otherBranch, date, LocalTime.of(9, 0));
+
+        createAppointment(closedSlot, "APT-1", AppointmentStatus.CONFIRMED);
+        createAppointment(closedSlot, "APT-2", AppointmentStatus.CONFIRMED);
+        createAppointment(closedSlot, "APT-3", AppointmentStatus.CANCELLED);
+        createAppointment(secondSlot, "APT-4", AppointmentStatus.CONFIRMED);
+        createAppointment(nextDaySlot, "APT-5", AppointmentStatus.CONFIRMED);
+        createAppointment(openSlot, "APT-6", AppointmentStatus.CONFIRMED);
+        createAppointment(otherBranchSlot, "APT-7", AppointmentStatus.CONFIRMED);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void closeBranch_ShouldCancelAppointmentsAndCloseSlotsInRange() {
+        // When
+        BranchClosureResponse response = branchClosureService.closeBranch(branch.getId(), date, date.plusDays(1));
+
+        // Then
+        assertEquals(3, response.getSlotsClosed());
+        assertEquals(4, response.getAppointmentsCancelled());
+
+        assertEquals(AppointmentStatus.CANCELLED, findByReference("APT-1").getStatus());
+        assertEquals(AppointmentStatus.CANCELLED, findByReference("APT-2").getStatus());
+        assertEquals(AppointmentStatus.CANCELLED, findByReference("APT-4").getStatus());
+        assertEquals(AppointmentStatus.CANCELLED, findByReference("APT-5").getStatus());
+        assertEquals(AppointmentStatus.CONFIRMED, findByReference("APT-6").getStatus());
+        assertEquals(AppointmentStatus.CONFIRMED, findByReference("APT-7").getStatus());
+
+        TimeSlot updatedClosedSlot = entityManager.find(TimeSlot.class, closedSlot.getId());
+        assertEquals(0, updatedClosedSlot.getBookedCount());
+        assertFalse(updatedClosedSlot.getAvailable());
+
+        TimeSlot untouchedSlot = entityManager.find(TimeSlot.class, openSlot.getId());
+        assertEquals(1, untouchedSlot.getBookedCount());
+        assertTrue(untouchedSlot.getAvailable());
+
+        // Two batches of two cancellation emails each
+        ArgumentCaptor<List<Appointment>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(emailService, times(2)).sendAppointmentCancellations(batchCaptor.capture());
+        assertEquals(4, batchCaptor.getAllValues().stream().mapToInt(List::size).sum());
+        verify(calendarFeedCache, times(4)).appointmentCancelled(any(Appointment.class));
+    }
+
+    @Test
+    void closeBranch_WithUnknownBranch_ShouldThrowException() {
+        // When & Then
+        assertThrows(ResourceNotFoundException.class,
+                () -> branchClosureService.closeBranch(-1L, date, date.plusDays(1)));
+        verify(emailService, never()).sendAppointmentCancellations(anyList());
+    }
+
+    @Test
+    void closeBranch_WithInvertedRange_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> branchClosureService.closeBranch(branch.getId(), date.plusDays(1), date));
+    }
+
+    // Helper methods
+    private Appointment findByReference(String reference) {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT a FROM Appointment a WHERE a.bookingReference = :reference", Appointment.class)
+                .setParameter("reference", reference)
+                .getSingleResult();
+    }
+
+    private Branch createBranch(String name) {
+        Branch newBranch = new Branch();
+        newBranch.setName(name);
+        newBranch.setAddress("1 Test Street");
+        return entityManager.persist(newBranch);
+    }
+
+    private TimeSlot createTimeSlot(Branch slotBranch, LocalDate slotDate, LocalTime start) {
+        TimeSlot timeSlot = new TimeSlot();
+        timeSlot.setBranch(slotBranch);
+        timeSlot.setSlotDate(slotDate);
+        timeSlot.setStartTime(start);
+        timeSlot.setEndTime(start.plusMinutes(30));
+        timeSlot.setCapacity(3);
+        timeSlot.setBookedCount(1);
+        return entityManager.persist(timeSlot);
+    }
+
+    private void createAppointment(TimeSlot timeSlot, String reference, AppointmentStatus status) {
+        Appointment appointment = new Appointment();
+        appointment.setTimeSlot(timeSlot);
+        appointment.setBookingReference(reference);
+        appointment.setCustomerName("Customer " + reference);
+        appointment.setCustomerEmail(reference.toLowerCase() + "@example.com");
+        appointment.setStatus(status);
+        entityManager.persist(appointment);
+    }
+}
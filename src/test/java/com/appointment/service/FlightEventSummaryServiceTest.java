@@ -0,0 +1,75 @@
+package com.appointment.service;
+
+import com.appointment.dto.FlightEventSummaryResponse;
+import com.appointment.jfr.AuthenticationEvent;
+import com.appointment.jfr.BookingEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightEventSummaryServiceTest {
+
+    private FlightEventSummaryService summaryService;
+
+    @BeforeEach
+    void setUp() {
+        summaryService = new FlightEventSummaryService(true, 10);
+        summaryService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        summaryService.stop();
+    }
+
+    @Test
+    void summarize_ShouldAggregateStreamedEventsByOutcome() {
+        // Given
+        commitBooking("success");
+        commitBooking("success");
+        commitBooking("sold_out");
+        AuthenticationEvent authenticationEvent = new AuthenticationEvent();
+        authenticationEvent.begin();
+        authenticationEvent.setOutcome("authenticated");
+        authenticationEvent.commit();
+
+        // When & Then
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            FlightEventSummaryResponse.EventSummary bookings = eventSummary(BookingEvent.NAME);
+            assertEquals(3, bookings.getCount());
+            assertEquals(2L, bookings.getOutcomes().get("success"));
+            assertEquals(1L, bookings.getOutcomes().get("sold_out"));
+            assertTrue(bookings.getMaxMillis() >= bookings.getAverageMillis());
+            assertEquals(1, eventSummary(AuthenticationEvent.NAME).getCount());
+        });
+    }
+
+    @Test
+    void summarize_WithWindowBeyondRetention_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> summaryService.summarize(11));
+        assertThrows(IllegalArgumentException.class, () -> summaryService.summarize(0));
+    }
+
+    // Helper methods
+    private void commitBooking(String outcome) {
+        BookingEvent event = new BookingEvent();
+        event.begin();
+        event.setBranchId(1L);
+        event.setSlotId(2L);
+        event.setOutcome(outcome);
+        event.commit();
+    }
+
+    private FlightEventSummaryResponse.EventSummary eventSummary(String name) {
+        return summaryService.summarize(5).getEvents().stream()
+                .filter(summary -> summary.getEvent().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
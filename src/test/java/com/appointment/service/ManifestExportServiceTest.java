@@ -0,0 +1,125 @@
+package com.appointment.service;
+
+import com.appointment.entity.Appointment;
+import com.appointment.entity.AppointmentStatus;
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+import com.appointment.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({ManifestExportService.class, ShardRouter.class})
+class ManifestExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ManifestExportService manifestExportService;
+
+    private Branch branch;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        date = LocalDate.now().plusDays(1);
+        branch = createBranch("Manifest Branch");
+        Branch otherBranch = createBranch("Other Branch");
+
+        TimeSlot morning = createTimeSlot(branch, date, LocalTime.of(9, 0));
+        TimeSlot afternoon = createTimeSlot(branch, date, LocalTime.of(14, 0));
+        TimeSlot nextDay = createTimeSlot(branch, date.plusDays(1), LocalTime.of(9, 0));
+        TimeSlot otherBranchSlot = createTimeSlot(otherBranch, date, LocalTime.of(9, 0));
+
+        createAppointment(afternoon, "APT-2", "Smith, \"Jo\"", "jo@example.com", AppointmentStatus.CONFIRMED);
+        createAppointment(morning, "APT-1", "Peter Test", "peter@example.com", AppointmentStatus.CONFIRMED);
+        createAppointment(morning, "APT-3", "Cancelled Customer", "gone@example.com", AppointmentStatus.CANCELLED);
+        createAppointment(nextDay, "APT-4", "Tomorrow Customer", "later@example.com", AppointmentStatus.CONFIRMED);
+        createAppointment(otherBranchSlot, "APT-5", "Elsewhere Customer", "else@example.com", AppointmentStatus.CONFIRMED);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void writeManifest_AsCsv_ShouldStreamConfirmedRowsForDayInStartTimeOrder() throws Exception {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = manifestExportService.writeManifest(branch.getId(), date, ManifestExportService.Format.CSV, out);
+
+        // Then
+        assertEquals(2, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("bookingReference,startTime,endTime,customerName,customerEmail,customerPhone", lines[0]);
+        assertTrue(lines[1].startsWith("APT-1,09:00:00,09:30:00,Peter Test,peter@example.com,"));
+        assertTrue(lines[2].startsWith("APT-2,14:00:00,14:30:00,\"Smith, \"\"Jo\"\"\",jo@example.com,"));
+    }
+
+    @Test
+    void writeManifest_AsNdjson_ShouldWriteOneObjectPerLine() throws Exception {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = manifestExportService.writeManifest(branch.getId(), date, ManifestExportService.Format.NDJSON, out);
+
+        // Then
+        assertEquals(2, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"bookingReference\":\"APT-1\""));
+        assertTrue(lines[1].contains("\"customerName\":\"Smith, \\\"Jo\\\"\""));
+    }
+
+    @Test
+    void writeManifest_WithNoAppointments_ShouldWriteHeaderOnly() throws Exception {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = manifestExportService.writeManifest(branch.getId(), date.minusDays(5),
+                ManifestExportService.Format.CSV, out);
+
+        // Then
+        assertEquals(0, rows);
+        assertEquals("bookingReference,startTime,endTime,customerName,customerEmail,customerPhone\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    // Helper methods
+    private Branch createBranch(String name) {
+        Branch newBranch = new Branch();
+        newBranch.setName(name);
+        newBranch.setAddress("1 Test Street");
+        return entityManager.persist(newBranch);
+    }
+
+    private TimeSlot createTimeSlot(Branch slotBranch, LocalDate slotDate, LocalTime start) {
+        TimeSlot timeSlot = new TimeSlot();
+        timeSlot.setBranch(slotBranch);
+        timeSlot.setSlotDate(slotDate);
+        timeSlot.setStartTime(start);
+        timeSlot.setEndTime(start.plusMinutes(30));
+        timeSlot.setCapacity(3);
+        return entityManager.persist(timeSlot);
+    }
+
+    private void createAppointment(TimeSlot timeSlot, String reference, String name, String email, AppointmentStatus status) {
+        Appointment appointment = new Appointment();
+        appointment.setTimeSlot(timeSlot);
+        appointment.setBookingReference(reference);
+        appointment.setCustomerName(name);
+        appointment.setCustomerEmail(email);
+        appointment.setStatus(status);
+        entityManager.persist(appointment);
+    }
+}
@@ -0,0 +1,172 @@
+package com.appointment.service;
+
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+import com.appointment.schedule.ScheduleSnapshot;
+import com.appointment.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import(ShardRouter.class)
+class ScheduleSnapshotServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @TempDir
+    Path directory;
+
+    private Branch branch;
+    private TimeSlot morning;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        date = LocalDate.now().plusDays(1);
+        branch = createBranch("Snapshot Branch");
+        Branch otherBranch = createBranch("Other Branch");
+
+        morning = createTimeSlot(branch, date, LocalTime.of(9, 0), 2);
+        createTimeSlot(branch, date, LocalTime.of(14, 0), 0);
+        createTimeSlot(branch, date.plusDays(1), LocalTime.of(9, 0), 1);
+        createTimeSlot(otherBranch, date, LocalTime.of(9, 0), 3);
+        createTimeSlot(branch, LocalDate.now().minusDays(1), LocalTime.of(9, 0), 1);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void export_ShouldWriteFutureSlotsInBranchDateAndTimeOrder() throws Exception {
+        // When
+        ScheduleSnapshot snapshot = newService().export();
+
+        // Then
+        assertEquals(4, snapshot.getSlotCount(), "yesterday's slot is not part of the future schedule");
+        assertEquals(2, snapshot.getBranchCount());
+        int index = snapshot.indexOf(branch.getId(), date, LocalTime.of(9, 0));
+        assertEquals(morning.getId(), snapshot.getSlotId(index));
+        assertEquals(date, snapshot.getSlotDate(index));
+        assertEquals(LocalTime.of(9, 30), snapshot.getEndTime(index));
+        assertEquals(3, snapshot.getCapacity(index));
+        assertEquals(2, snapshot.getBookedCount(index));
+        assertTrue(snapshot.isAvailable(index));
+        assertArrayEquals(new int[]{index, index + 3}, snapshot.branchRange(branch.getId()));
+        assertEquals(-1, snapshot.indexOf(branch.getId(), date, LocalTime.of(10, 0)));
+    }
+
+    @Test
+    void load_WhenSnapshotMatchesDatabase_ShouldMapItWithoutRebuilding() throws Exception {
+        // Given
+        newService().export();
+
+        // When
+        ScheduleSnapshotService service = newService();
+        ScheduleSnapshot snapshot = service.load();
+
+        // Then
+        assertEquals("snapshot", service.status().getSource());
+        assertEquals(4, snapshot.getSlotCount());
+        assertEquals(service.databaseChecksum(snapshot.getFromDate()), snapshot.getChecksum());
+    }
+
+    @Test
+    void load_WhenBookedCountChangedSinceExport_ShouldRebuild() throws Exception {
+        // Given
+        newService().export();
+        jdbcTemplate.update("UPDATE time_slots SET booked_count = 3, available = false WHERE id = ?", morning.getId());
+
+        // When
+        ScheduleSnapshotService service = newService();
+        ScheduleSnapshot snapshot = service.load();
+
+        // Then
+        assertEquals("rebuilt", service.status().getSource());
+        int index = snapshot.indexOf(branch.getId(), date, LocalTime.of(9, 0));
+        assertEquals(3, snapshot.getBookedCount(index));
+        assertFalse(snapshot.isAvailable(index));
+    }
+
+    @Test
+    void load_WhenABookingAndACancellationOffsetEachOther_ShouldRebuild() throws Exception {
+        // Given - same slot count, booked total and open count as at export
+        newService().export();
+        jdbcTemplate.update("UPDATE time_slots SET booked_count = booked_count + 1 WHERE id = ?", morning.getId());
+        jdbcTemplate.update("UPDATE time_slots SET booked_count = booked_count - 1 WHERE slot_date = ? AND id <> ?",
+                date.plusDays(1), morning.getId());
+
+        // When
+        ScheduleSnapshotService service = newService();
+        ScheduleSnapshot snapshot = service.load();
+
+        // Then
+        assertEquals("rebuilt", service.status().getSource());
+        assertEquals(3, snapshot.getBookedCount(snapshot.indexOf(branch.getId(), date, LocalTime.of(9, 0))));
+    }
+
+    @Test
+    void load_WhenFileIsCorrupt_ShouldRebuild() throws Exception {
+        // Given
+        newService().export();
+        try (FileChannel channel = FileChannel.open(snapshotFile(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7F}), channel.size() - 1);
+        }
+
+        // When
+        ScheduleSnapshotService service = newService();
+        ScheduleSnapshot snapshot = service.load();
+
+        // Then
+        assertEquals("rebuilt", service.status().getSource());
+        assertEquals(4, snapshot.getSlotCount());
+    }
+
+    // Helper methods
+    private ScheduleSnapshotService newService() {
+        return new ScheduleSnapshotService(jdbcTemplate, shardRouter, true, snapshotFile().toString(), 100, false);
+    }
+
+    private Path snapshotFile() {
+        return directory.resolve("schedule.snapshot");
+    }
+
+    private Branch createBranch(String name) {
+        Branch newBranch = new Branch();
+        newBranch.setName(name);
+        newBranch.setAddress("1 Test Street");
+        return entityManager.persist(newBranch);
+    }
+
+    private TimeSlot createTimeSlot(Branch slotBranch, LocalDate slotDate, LocalTime start, int bookedCount) {
+        TimeSlot timeSlot = new TimeSlot();
+        timeSlot.setBranch(slotBranch);
+        timeSlot.setSlotDate(slotDate);
+        timeSlot.setStartTime(start);
+        timeSlot.setEndTime(start.plusMinutes(30));
+        timeSlot.setCapacity(3);
+        timeSlot.setBookedCount(bookedCount);
+        return entityManager.persist(timeSlot);
+    }
+}
@@ -0,0 +1,175 @@
+package com.appointment.service;
+
+import com.appointment.dto.CacheStatisticsResponse;
+import com.appointment.dto.TimeSlotDTO;
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+import com.appointment.repository.BranchRepository;
+import com.appointment.repository.TimeSlotRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements each read costs with a cold and a warm
+ * second-level cache. Runs outside a test transaction so cache puts happen
+ * as they would for real requests.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TimeSlotService.class, CacheStatisticsService.class})
+class SecondLevelCacheTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheTest.class);
+
+    private static final int BRANCHES = 3;
+    private static final int SLOTS_PER_BRANCH = 8;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    private SessionFactory sessionFactory;
+    private Branch branch;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        date = LocalDate.now().plusDays(1);
+
+        for (int b = 0; b < BRANCHES; b++) {
+            Branch seededBranch = new Branch();
+            seededBranch.setName("Cache Branch " + b);
+            seededBranch.setAddress(b + " Cache Street");
+            seededBranch = branchRepository.save(seededBranch);
+            if (b == 0) {
+                branch = seededBranch;
+            }
+
+            for (int s = 0; s < SLOTS_PER_BRANCH; s++) {
+                TimeSlot timeSlot = new TimeSlot();
+                timeSlot.setBranch(seededBranch);
+                timeSlot.setSlotDate(date);
+                timeSlot.setStartTime(LocalTime.of(9, 0).plusMinutes(30L * s));
+                timeSlot.setEndTime(LocalTime.of(9, 30).plusMinutes(30L * s));
+                timeSlot.setCapacity(3);
+                timeSlot.setBookedCount(0);
+                timeSlot.setAvailable(true);
+                timeSlotRepository.save(timeSlot);
+            }
+        }
+
+        sessionFactory.getCache().evictAllRegions();
+        cacheStatisticsService.clearStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        timeSlotRepository.deleteAll();
+        branchRepository.deleteAll();
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    @Test
+    void getAvailableTimeSlots_ShouldLoadBranchFromCacheWhenWarm() {
+        // When
+        long cold = statementsFor(() -> timeSlotService.getAvailableTimeSlots(branch.getId(), date));
+        long warm = statementsFor(() -> timeSlotService.getAvailableTimeSlots(branch.getId(), date));
+
+        // Then
+        log.info("getAvailableTimeSlots statements per request: cold={}, warm={}", cold, warm);
+        assertEquals(2, cold);
+        assertEquals(1, warm);
+        assertEquals(1, regionStatistics("branch").getHitCount());
+    }
+
+    @Test
+    void findAllBranches_ShouldBeServedFromQueryCacheWhenWarm() {
+        // When
+        long cold = statementsFor(() -> branchRepository.findAll());
+        long warm = statementsFor(() -> branchRepository.findAll());
+
+        // Then
+        log.info("findAll branches statements per request: cold={}, warm={}", cold, warm);
+        assertEquals(1, cold);
+        assertEquals(0, warm);
+        assertEquals(1, cacheStatisticsService.getStatistics().getQueryCacheHitCount());
+    }
+
+    @Test
+    void findAllBranches_ShouldHitDatabaseAgainAfterBranchWrite() {
+        // Given
+        branchRepository.findAll();
+        Branch newBranch = new Branch();
+        newBranch.setName("New Branch");
+        newBranch.setAddress("99 Cache Street");
+        branchRepository.save(newBranch);
+
+        // When
+        long statements = statementsFor(() -> assertEquals(BRANCHES + 1, branchRepository.findAll().size()));
+
+        // Then
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void cachedTimeSlot_ShouldReflectBookingWrites() {
+        // Given
+        TimeSlot timeSlot = timeSlotRepository.findByBranchIdAndSlotDate(branch.getId(), date).get(0);
+        timeSlotRepository.findById(timeSlot.getId());
+
+        // When
+        timeSlot.setBookedCount(2);
+        timeSlotRepository.save(timeSlot);
+        long statements = statementsFor(() ->
+                assertEquals(2, timeSlotRepository.findById(timeSlot.getId()).orElseThrow().getBookedCount()));
+
+        // Then
+        assertEquals(0, statements);
+        List<TimeSlotDTO> available = timeSlotService.getAvailableTimeSlots(branch.getId(), date);
+        assertEquals(2, available.stream()
+                .filter(dto -> dto.getId().equals(timeSlot.getId()))
+                .findFirst().orElseThrow().getBookedCount());
+    }
+
+    // Helper methods
+    private long statementsFor(Runnable request) {
+        long before = sessionFactory.getStatistics().getPrepareStatementCount();
+        request.run();
+        return sessionFactory.getStatistics().getPrepareStatementCount() - before;
+    }
+
+    private CacheStatisticsResponse.RegionStatistics regionStatistics(String region) {
+        return cacheStatisticsService.getStatistics().getRegions().stream()
+                .filter(stats -> stats.getRegion().equals(region))
+                .findFirst()
+                .orElseThrow();
+    }
+}
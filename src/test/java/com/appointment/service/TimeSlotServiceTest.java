@@ -0,0 +1,171 @@
+package com.appointment.service;
+
+import com.appointment.dto.AvailabilityResponse;
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+import com.appointment.exception.ResourceNotFoundException;
+import com.appointment.repository.BranchRepository;
+import com.appointment.repository.TimeSlotRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSlotServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    @Mock
+    private TimeSlotRepository timeSlotRepository;
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    private TimeSlotService timeSlotService;
+    private Branch branch;
+
+    @BeforeEach
+    void setUp() {
+        timeSlotService = new TimeSlotService(timeSlotRepository, branchRepository, 31);
+        branch = new Branch();
+        branch.setId(1L);
+        branch.setName("Main Branch");
+    }
+
+    @Test
+    void getAvailability_ShouldGroupSlotsByDate() {
+        // Given
+        when(timeSlotRepository.findAvailableSlotsByBranchAndDateRange(1L, MONDAY, MONDAY.plusDays(1)))
+                .thenReturn(List.of(
+                        slot(MONDAY, LocalTime.of(9, 0), 30, 3, 1),
+                        slot(MONDAY, LocalTime.of(9, 30), 30, 3, 3),
+                        slot(MONDAY.plusDays(1), LocalTime.of(10, 0), 30, 2, 0)));
+
+        // When
+        AvailabilityResponse availability = timeSlotService.getAvailability(1L, MONDAY, MONDAY.plusDays(1));
+
+        // Then
+        assertEquals("Main Branch", availability.getBranchName());
+        assertEquals(2, availability.getDays().size());
+        AvailabilityResponse.Day monday = availability.getDays().get(0);
+        assertEquals(MONDAY, monday.getDate());
+        assertEquals(30, monday.getSlotMinutes());
+        assertEquals(2, monday.size());
+        assertEquals(540, monday.startMinute(0));
+        assertEquals(2, monday.remaining(0));
+        assertEquals(0, monday.remaining(1));
+        assertEquals(3, availability.getSlotCount());
+        verifyNoInteractions(branchRepository);
+    }
+
+    @Test
+    void getAvailability_ShouldSerialiseGroupedJsonAndCbor() throws Exception {
+        // Given
+        when(timeSlotRepository.findAvailableSlotsByBranchAndDateRange(1L, MONDAY, MONDAY))
+                .thenReturn(List.of(
+                        slot(MONDAY, LocalTime.of(9, 0), 30, 3, 1),
+                        slot(MONDAY, LocalTime.of(9, 30), 30, 3, 0),
+                        slot(MONDAY, LocalTime.of(10, 0), 60, 1, 0)));
+        AvailabilityResponse availability = timeSlotService.getAvailability(1L, MONDAY, MONDAY);
+
+        // When
+        ObjectMapper json = new ObjectMapper();
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+        String grouped = json.writeValueAsString(availability);
+        byte[] binary = cbor.writeValueAsBytes(availability);
+
+        // Then
+        assertEquals("{\"branchId\":1,\"branchName\":\"Main Branch\",\"fromDate\":\"2030-01-07\","
+                + "\"toDate\":\"2030-01-07\",\"days\":[{\"date\":\"2030-01-07\",\"slotMinutes\":30,"
+                + "\"slots\":[[540,2],[570,3],[600,1,60]]}]}", grouped);
+        JsonNode decoded = cbor.readTree(binary);
+        assertEquals(json.readTree(grouped), decoded);
+        assertTrue(binary.length < grouped.length(), "cbor " + binary.length + " bytes, json " + grouped.length());
+    }
+
+    @Test
+    void getAvailability_ShouldBeSeveralTimesSmallerThanTheFlatList() throws Exception {
+        // Given - a fortnight of half-hour slots, the shape a calendar view asks for
+        List<TimeSlot> slots = new ArrayList<>();
+        for (int day = 0; day < 14; day++) {
+            for (int s = 0; s < 16; s++) {
+                slots.add(slot(MONDAY.plusDays(day), LocalTime.of(9, 0).plusMinutes(30L * s), 30, 3, s % 4));
+            }
+        }
+        when(timeSlotRepository.findAvailableSlotsByBranchAndDateRange(1L, MONDAY, MONDAY.plusDays(13)))
+                .thenReturn(slots);
+        ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        // When
+        AvailabilityResponse availability = timeSlotService.getAvailability(1L, MONDAY, MONDAY.plusDays(13));
+        int flatBytes = json.writeValueAsBytes(slots.stream().map(TimeSlotService::toDto).toList()).length;
+        int groupedBytes = json.writeValueAsBytes(availability).length;
+        int cborBytes = new ObjectMapper(new CBORFactory()).writeValueAsBytes(availability).length;
+
+        // Then
+        assertTrue(groupedBytes * 5 < flatBytes, "grouped " + groupedBytes + " bytes, flat " + flatBytes);
+        assertTrue(cborBytes < groupedBytes, "cbor " + cborBytes + " bytes, grouped " + groupedBytes);
+    }
+
+    @Test
+    void getAvailability_WithNoOpenSlots_ShouldStillNameTheBranch() {
+        // Given
+        when(timeSlotRepository.findAvailableSlotsByBranchAndDateRange(1L, MONDAY, MONDAY)).thenReturn(List.of());
+        when(branchRepository.findById(1L)).thenReturn(Optional.of(branch));
+
+        // When
+        AvailabilityResponse availability = timeSlotService.getAvailability(1L, MONDAY, MONDAY);
+
+        // Then
+        assertEquals("Main Branch", availability.getBranchName());
+        assertTrue(availability.getDays().isEmpty());
+    }
+
+    @Test
+    void getAvailability_WithUnknownBranch_ShouldThrowException() {
+        // Given
+        when(timeSlotRepository.findAvailableSlotsByBranchAndDateRange(9L, MONDAY, MONDAY)).thenReturn(List.of());
+        when(branchRepository.findById(9L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> timeSlotService.getAvailability(9L, MONDAY, MONDAY));
+    }
+
+    @Test
+    void getAvailability_WithRangeTooLong_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> timeSlotService.getAvailability(1L, MONDAY, MONDAY.plusDays(31)));
+        assertThrows(IllegalArgumentException.class,
+                () -> timeSlotService.getAvailability(1L, MONDAY, MONDAY.minusDays(1)));
+        verifyNoInteractions(timeSlotRepository);
+    }
+
+    // Helper methods
+    private TimeSlot slot(LocalDate date, LocalTime start, int minutes, int capacity, int booked) {
+        TimeSlot timeSlot = new TimeSlot();
+        timeSlot.setBranch(branch);
+        timeSlot.setSlotDate(date);
+        timeSlot.setStartTime(start);
+        timeSlot.setEndTime(start.plusMinutes(minutes));
+        timeSlot.setCapacity(capacity);
+        timeSlot.setBookedCount(booked);
+        timeSlot.setAvailable(true);
+        return timeSlot;
+    }
+}
@@ -0,0 +1,86 @@
+package com.appointment.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardMapTest {
+
+    private static final int BRANCHES = 10_000;
+
+    @Test
+    void shardForBranch_WithOneShard_ShouldAlwaysReturnPrimary() {
+        // Given
+        ShardMap shardMap = new ShardMap(1);
+
+        // When & Then
+        for (long branchId = 1; branchId <= 100; branchId++) {
+            assertEquals(0, shardMap.shardForBranch(branchId));
+        }
+    }
+
+    @Test
+    void shardForBranch_ShouldBeStableAcrossInstances() {
+        // Given
+        ShardMap first = new ShardMap(3);
+        ShardMap second = new ShardMap(3);
+
+        // When & Then
+        for (long branchId = 1; branchId <= BRANCHES; branchId++) {
+            assertEquals(first.shardForBranch(branchId), second.shardForBranch(branchId));
+        }
+    }
+
+    @Test
+    void shardForBranch_ShouldSpreadSequentialIdsEvenly() {
+        // Given
+        ShardMap shardMap = new ShardMap(4);
+        int[] counts = new int[4];
+
+        // When
+        for (long branchId = 1; branchId <= BRANCHES; branchId++) {
+            counts[shardMap.shardForBranch(branchId)]++;
+        }
+
+        // Then - within 25% of a perfect 1/4 split
+        for (int count : counts) {
+            assertTrue(count > BRANCHES / 4 * 0.75 && count < BRANCHES / 4 * 1.25,
+                    "uneven split: " + Arrays.toString(counts));
+        }
+    }
+
+    @Test
+    void shardForBranch_WhenShardAdded_ShouldOnlyMoveBranchesToTheNewShard() {
+        // Given
+        ShardMap before = new ShardMap(3);
+        ShardMap after = new ShardMap(4);
+        int moved = 0;
+
+        // When & Then
+        for (long branchId = 1; branchId <= BRANCHES; branchId++) {
+            int oldShard = before.shardForBranch(branchId);
+            int newShard = after.shardForBranch(branchId);
+            if (oldShard != newShard) {
+                assertEquals(3, newShard, "branch " + branchId + " moved between existing shards");
+                moved++;
+            }
+        }
+        assertTrue(moved > BRANCHES / 4 * 0.75 && moved < BRANCHES / 4 * 1.25,
+                "expected about a quarter of the branches to move, moved " + moved);
+    }
+
+    @Test
+    void shardForReference_ShouldReadTheShardSuffix() {
+        // Given
+        ShardMap shardMap = new ShardMap(3);
+
+        // When & Then
+        assertEquals(0, shardMap.shardForReference("APT-20260101-ABC123"));
+        assertEquals(2, shardMap.shardForReference("APT-20260101-ABC123" + ShardMap.referenceSuffix(2)));
+        assertEquals(0, shardMap.shardForReference("APT-20260101-ABC123-7"), "shard outside the map");
+        assertEquals(0, shardMap.shardForReference("APT-20260101-ABC123-x"));
+        assertEquals(0, shardMap.shardForReference(null));
+    }
+}
@@ -0,0 +1,184 @@
+package com.appointment.shard;
+
+import com.appointment.dto.AppointmentLookupResponse;
+import com.appointment.dto.AppointmentRequest;
+import com.appointment.dto.AppointmentResponse;
+import com.appointment.entity.Branch;
+import com.appointment.entity.TimeSlot;
+import com.appointment.repository.BranchRepository;
+import com.appointment.repository.TimeSlotRepository;
+import com.appointment.service.AppointmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The primary plus two H2 file databases as shards, wired exactly as
+ * {@code appointment.datasource.shard.urls} would be configured locally.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:shardtest",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "appointment.jfr.summary.enabled=false"
+})
+@DirtiesContext
+class ShardingIntegrationTest {
+
+    @TempDir
+    static Path dataDir;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    private LocalDate date;
+
+    @DynamicPropertySource
+    static void shardUrls(DynamicPropertyRegistry registry) {
+        registry.add("appointment.datasource.shard.urls", () ->
+                "jdbc:h2:file:" + dataDir.resolve("shard1") + ",jdbc:h2:file:" + dataDir.resolve("shard2"));
+    }
+
+    @BeforeEach
+    void setUp() {
+        date = LocalDate.now().plusDays(2);
+    }
+
+    @Test
+    void branchSave_ShouldCopyTheBranchToEveryShard() {
+        // When
+        Branch branch = createBranch("Replicated Branch");
+        branch.setPhone("+27-11-555-0199");
+        branchRepository.save(branch);
+
+        // Then
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            assertEquals("+27-11-555-0199", shardJdbc(shard).queryForObject(
+                    "SELECT phone FROM branches WHERE id = ?", String.class, branch.getId()), "shard " + shard);
+        }
+    }
+
+    @Test
+    void timeSlotSave_ShouldWriteToTheBranchShardOnly() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            // Given
+            Branch branch = createBranchOnShard(shard);
+
+            // When
+            TimeSlot timeSlot = createTimeSlot(branch, LocalTime.of(9, 0));
+
+            // Then
+            for (int other = 0; other < shardRouter.getShardCount(); other++) {
+                assertEquals(other == shard ? 1 : 0, shardJdbc(other).queryForObject(
+                        "SELECT COUNT(*) FROM time_slots WHERE id = ?", Integer.class, timeSlot.getId()));
+            }
+            assertEquals(List.of(timeSlot.getId()), timeSlotRepository.findByBranchIdAndSlotDate(branch.getId(), date)
+                    .stream().map(TimeSlot::getId).toList());
+        }
+    }
+
+    @Test
+    void bookings_ShouldResolveByReferenceAndFanOutByEmail() {
+        // Given
+        Branch first = createBranchOnShard(1);
+        Branch second = createBranchOnShard(2);
+        Branch primary = createBranchOnShard(0);
+        createTimeSlot(first, LocalTime.of(11, 0));
+        createTimeSlot(second, LocalTime.of(9, 0));
+        createTimeSlot(primary, LocalTime.of(10, 0));
+
+        // When
+        AppointmentResponse onFirst = appointmentService.createAppointment(request(first, LocalTime.of(11, 0)));
+        AppointmentResponse onSecond = appointmentService.createAppointment(request(second, LocalTime.of(9, 0)));
+        AppointmentResponse onPrimary = appointmentService.createAppointment(request(primary, LocalTime.of(10, 0)));
+
+        // Then
+        assertEquals(1, shardRouter.shardForReference(onFirst.getBookingReference()));
+        assertEquals(2, shardRouter.shardForReference(onSecond.getBookingReference()));
+        assertEquals(0, shardRouter.shardForReference(onPrimary.getBookingReference()));
+        assertEquals(onSecond.getId(),
+                appointmentService.getAppointmentByReference(onSecond.getBookingReference()).getId());
+
+        List<AppointmentResponse> appointments = appointmentService.getAppointmentsByCustomerEmail("sharded@test.com");
+        assertEquals(List.of(onSecond.getId(), onPrimary.getId(), onFirst.getId()),
+                appointments.stream().map(AppointmentResponse::getId).toList(),
+                "merged across shards in slot order");
+
+        AppointmentLookupResponse lookup = appointmentService.lookupAppointments(List.of(
+                onFirst.getBookingReference(), "APT-UNKNOWN", onSecond.getBookingReference(),
+                onPrimary.getBookingReference()));
+        assertEquals(List.of(onFirst.getBookingReference(), onSecond.getBookingReference(),
+                onPrimary.getBookingReference()), List.copyOf(lookup.getAppointments().keySet()),
+                "one IN query per shard, keyed in request order");
+        assertEquals(List.of("APT-UNKNOWN"), lookup.getNotFound());
+    }
+
+    // Helper methods
+    private JdbcTemplate shardJdbc(int shard) {
+        return new JdbcTemplate(shardRoutingDataSource.getShards().get(shard));
+    }
+
+    private Branch createBranch(String name) {
+        Branch branch = new Branch();
+        branch.setName(name + " " + System.nanoTime());
+        branch.setAddress("1 Shard Street");
+        return branchRepository.save(branch);
+    }
+
+    private Branch createBranchOnShard(int shard) {
+        while (true) {
+            Branch branch = createBranch("Shard " + shard + " Branch");
+            if (shardRouter.shardForBranch(branch.getId()) == shard) {
+                return branch;
+            }
+        }
+    }
+
+    private TimeSlot createTimeSlot(Branch branch, LocalTime start) {
+        TimeSlot timeSlot = new TimeSlot();
+        timeSlot.setBranch(branch);
+        timeSlot.setSlotDate(date);
+        timeSlot.setStartTime(start);
+        timeSlot.setEndTime(start.plusMinutes(30));
+        timeSlot.setCapacity(2);
+        timeSlot.setBookedCount(0);
+        timeSlot.setAvailable(true);
+        return timeSlotRepository.save(timeSlot);
+    }
+
+    private AppointmentRequest request(Branch branch, LocalTime start) {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setCustomerName("Sharded Customer");
+        request.setCustomerEmail("sharded@test.com");
+        request.setCustomerPhone("+27-11-555-0100");
+        request.setBranchId(branch.getId());
+        request.setAppointmentDate(date);
+        request.setStartTime(start);
+        return request;
+    }
+}
@@ -0,0 +1,81 @@
+package com.appointment.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryConsume_ShouldAllowTheBurstThenReportTheWait() {
+        // Given
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(3, 2, now);
+
+        // When & Then
+        assertEquals(2, bucket.tryConsume(now));
+        assertEquals(1, bucket.tryConsume(now));
+        assertEquals(0, bucket.tryConsume(now));
+        assertEquals(-SECOND / 2, bucket.tryConsume(now), "next token in half a second");
+        assertFalse(bucket.isFull(now));
+    }
+
+    @Test
+    void tryConsume_ShouldRefillAtTheConfiguredRateUpToCapacity() {
+        // Given
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryConsume(0);
+        }
+
+        // When & Then
+        assertEquals(0, bucket.tryConsume(SECOND / 2), "one token after half a second");
+        assertTrue(bucket.tryConsume(SECOND / 2) < 0);
+        assertTrue(bucket.isFull(10 * SECOND));
+        assertEquals(2, bucket.tryConsume(10 * SECOND), "refill stops at capacity");
+    }
+
+    @Test
+    void tryConsume_UnderContention_ShouldNeverHandOutMoreThanTheBurst() throws Exception {
+        // Given
+        int threads = 8;
+        TokenBucket bucket = new TokenBucket(1_000, 0.001, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int granted = 0;
+                for (int i = 0; i < 500; i++) {
+                    if (bucket.tryConsume(0) >= 0) {
+                        granted++;
+                    }
+                }
+                return granted;
+            }));
+        }
+        start.countDown();
+        int granted = 0;
+        for (Future<Integer> result : results) {
+            granted += result.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(1_000, granted);
+    }
+}